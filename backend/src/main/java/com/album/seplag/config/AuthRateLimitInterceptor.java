@@ -0,0 +1,66 @@
+package com.album.seplag.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import io.github.bucket4j.Bucket;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rate limit dos endpoints anônimos de {@code /auth}, por IP do cliente.
+ * Cada requisição consome 1 token; respostas 401 (credenciais ou refresh token inválidos) consomem
+ * {@code rate-limit.auth.failure-cost} no total, podendo deixar o bucket em débito, para frear
+ * tentativas de senha sem penalizar logins bem-sucedidos.
+ */
+@Slf4j
+@Component
+public class AuthRateLimitInterceptor implements HandlerInterceptor {
+
+    static final String KEY_PREFIX = "auth-ip:";
+
+    private final RateLimitBucketStore bucketStore;
+    private final RateLimitConfig rateLimitConfig;
+    private final ClientIpResolver clientIpResolver;
+
+    public AuthRateLimitInterceptor(RateLimitBucketStore bucketStore,
+                                    RateLimitConfig rateLimitConfig,
+                                    ClientIpResolver clientIpResolver) {
+        this.bucketStore = bucketStore;
+        this.rateLimitConfig = rateLimitConfig;
+        this.clientIpResolver = clientIpResolver;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Bucket bucket = bucket(request);
+        if (bucket.tryConsume(1)) {
+            return true;
+        }
+        log.debug("Rate limit de autenticação excedido para IP {}", clientIpResolver.resolver(request));
+        try {
+            RateLimitResponse.rejeitar(response, bucket, 1, "Too many authentication attempts. Maximum "
+                    + rateLimitConfig.getAuthRequestsPerMinute() + " requests per minute.");
+        } catch (IOException e) {
+            log.error("Error writing rate limit response", e);
+        }
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int extra = rateLimitConfig.getAuthFailureCost() - 1;
+        if (extra > 0 && response.getStatus() == HttpStatus.UNAUTHORIZED.value()) {
+            bucket(request).consumeIgnoringRateLimits(extra);
+        }
+    }
+
+    private Bucket bucket(HttpServletRequest request) {
+        String chave = KEY_PREFIX + clientIpResolver.resolver(request);
+        return bucketStore.obter(chave, rateLimitConfig.authBucketSpec());
+    }
+}
@@ -0,0 +1,54 @@
+package com.album.seplag.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.broker.BrokerAvailabilityEvent;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Acompanha a disponibilidade do broker STOMP (em memória ou relay externo).
+ * <ul>
+ *   <li>{@code websocket.broker.available} (gauge): 1 com o broker conectado, 0 caso contrário</li>
+ *   <li>{@code websocket.broker.disconnects} (counter): perdas de conexão com o broker</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class BrokerRelayMonitor {
+
+    static final String METRICA_DISPONIVEL = "websocket.broker.available";
+    static final String METRICA_DESCONEXOES = "websocket.broker.disconnects";
+
+    private final AtomicInteger disponivel = new AtomicInteger();
+    private final Counter desconexoes;
+
+    public BrokerRelayMonitor(MeterRegistry meterRegistry) {
+        Gauge.builder(METRICA_DISPONIVEL, disponivel, AtomicInteger::get)
+                .description("Broker STOMP disponível (1) ou não (0)")
+                .register(meterRegistry);
+        this.desconexoes = Counter.builder(METRICA_DESCONEXOES)
+                .description("Perdas de conexão com o broker STOMP")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onBrokerAvailability(BrokerAvailabilityEvent event) {
+        int anterior = disponivel.getAndSet(event.isBrokerAvailable() ? 1 : 0);
+        if (event.isBrokerAvailable()) {
+            log.info("Broker STOMP disponível");
+        } else if (anterior == 1) {
+            desconexoes.increment();
+            log.warn("Conexão com o broker STOMP perdida; notificações descartadas até a reconexão");
+        }
+    }
+
+    boolean isDisponivel() {
+        return disponivel.get() == 1;
+    }
+}
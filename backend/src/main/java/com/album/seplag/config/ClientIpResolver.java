@@ -0,0 +1,77 @@
+package com.album.seplag.config;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resolve o IP do cliente para limitação de requisições anônimas.
+ * {@code X-Forwarded-For} só é considerado quando a conexão vem de um proxy confiável
+ * ({@code rate-limit.auth.trusted-proxies}, IPs ou CIDRs); nesse caso o cabeçalho é lido da direita
+ * para a esquerda e o primeiro endereço que não é proxy confiável é o cliente.
+ */
+@Component
+public class ClientIpResolver {
+
+    static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    // Só literais IPv4/IPv6 chegam ao matcher, que resolveria nomes via DNS
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9a-fA-F:.]+");
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ClientIpResolver(@Value("${rate-limit.auth.trusted-proxies:127.0.0.1/32,::1/128}") String trustedProxies) {
+        this.trustedProxies = Arrays.stream(trustedProxies.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    public String resolver(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrusted(remoteAddr)) {
+            return remoteAddr;
+        }
+        String forwardedFor = request.getHeader(X_FORWARDED_FOR);
+        if (forwardedFor == null || forwardedFor.isBlank()) {
+            return remoteAddr;
+        }
+        String[] saltos = forwardedFor.split(",");
+        for (int i = saltos.length - 1; i >= 0; i--) {
+            String ip = saltos[i].trim();
+            if (ip.isEmpty()) {
+                continue;
+            }
+            if (!isTrusted(ip)) {
+                return ip;
+            }
+        }
+        // Todos os saltos são proxies confiáveis: o mais à esquerda é a origem
+        String origem = saltos[0].trim();
+        return origem.isEmpty() ? remoteAddr : origem;
+    }
+
+    private boolean isTrusted(String ip) {
+        if (ip == null || !IP_LITERAL.matcher(ip).matches()) {
+            return false;
+        }
+        for (IpAddressMatcher matcher : trustedProxies) {
+            try {
+                if (matcher.matches(ip)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // Valor que não é IP (cabeçalho forjado): nunca é confiável
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -1,66 +1,114 @@
 package com.album.seplag.config;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import java.util.function.Function;
 
-import javax.crypto.SecretKey;
-
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.album.seplag.security.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.MalformedJwtException;
 
 @Component
 public class JwtConfig {
 
     private static final String CLAIM_ROLES_ACCESS = "roles_access";
     private static final String CLAIM_TYPE = "type";
+    private static final String CLAIM_USER_ID = "uid";
     private static final String TYPE_REFRESH = "refresh";
 
-    @Value("${jwt.secret}")
-    private String secret;
-
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private final Long expiration;
+    private final Long refreshExpiration;
+
+    // Chaves e parser são imutáveis e thread-safe: construídos uma única vez
+    private final JwtKeys keys;
+    private final JwtParser parser;
+
+    /** Tokens já verificados, indexados pelo hash SHA-256; cada entrada expira junto com o token. */
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtConfig(JwtKeys keys,
+                     @Value("${jwt.expiration}") Long expiration,
+                     @Value("${jwt.refresh-expiration:604800000}") Long refreshExpiration,
+                     @Value("${jwt.cache.max-size:10000}") long cacheMaxSize) {
+        this.expiration = expiration;
+        this.refreshExpiration = refreshExpiration;
+        this.keys = keys;
+        this.parser = Jwts.parser().keyLocator(keys.localizador()).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long restanteMs = value.expiresAt().toEpochMilli() - System.currentTimeMillis();
+                        return Math.max(0, restanteMs) * 1_000_000;
+                    }
 
-    @Value("${jwt.refresh-expiration:604800000}")
-    private Long refreshExpiration;
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateAccessToken(String username, List<String> roles) {
+        return generateAccessToken(null, username, roles);
+    }
+
+    /**
+     * Access token com o id do usuário no claim {@code uid}, exposto em {@link VerifiedToken#userId()}
+     * para que gravações que referenciam o usuário não precisem consultá-lo.
+     */
+    public String generateAccessToken(Long userId, String username, List<String> roles) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
         var builder = Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(now)
                 .expiration(expiryDate);
 
+        if (userId != null) {
+            builder.claim(CLAIM_USER_ID, userId);
+        }
         if (roles != null && !roles.isEmpty()) {
             builder.claim(CLAIM_ROLES_ACCESS, roles);
         }
 
-        return builder.signWith(getSigningKey()).compact();
+        return keys.assinar(builder).compact();
     }
 
     public String generateRefreshToken(String username) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + refreshExpiration);
 
-        return Jwts.builder()
+        return keys.assinar(Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .claim(CLAIM_TYPE, TYPE_REFRESH)
-                .signWith(getSigningKey())
+                .claim(CLAIM_TYPE, TYPE_REFRESH))
                 .compact();
     }
 
@@ -68,12 +116,29 @@ public class JwtConfig {
         return generateAccessToken(username, List.of());
     }
 
+    /**
+     * Parseia e verifica a assinatura do token uma única vez; chamadas seguintes com o mesmo token
+     * são atendidas pelo cache até a expiração.
+     *
+     * @throws io.jsonwebtoken.JwtException se o token for inválido ou estiver expirado
+     */
+    public VerifiedToken verifyToken(String token) {
+        String chave = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(chave);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+        VerifiedToken verified = toVerifiedToken(getAllClaimsFromToken(token));
+        verifiedTokens.put(chave, verified);
+        return verified;
+    }
+
     public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        return verifyToken(token).username();
     }
 
     public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+        return Date.from(verifyToken(token).expiresAt());
     }
 
     public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
@@ -82,36 +147,21 @@ public class JwtConfig {
     }
 
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+        return verifyToken(token).isExpired();
     }
 
     public Boolean validateToken(String token, String username) {
-        final String tokenUsername = getUsernameFromToken(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
+        VerifiedToken verified = verifyToken(token);
+        return verified.username().equals(username) && !verified.isExpired();
     }
 
     public List<String> getRolesFromToken(String token) {
         try {
-            Claims claims = getAllClaimsFromToken(token);
-            Object rolesObj = claims.get(CLAIM_ROLES_ACCESS);
-            if (rolesObj instanceof List<?> list) {
-                List<String> roles = new ArrayList<>();
-                for (Object item : list) {
-                    if (item instanceof String s) {
-                        roles.add(s);
-                    }
-                }
-                return roles;
-            }
+            return verifyToken(token).roles();
         } catch (Exception ignored) {
         }
         return List.of();
@@ -119,8 +169,7 @@ public class JwtConfig {
 
     public boolean isRefreshToken(String token) {
         try {
-            Claims claims = getAllClaimsFromToken(token);
-            return TYPE_REFRESH.equals(claims.get(CLAIM_TYPE));
+            return verifyToken(token).refresh();
         } catch (Exception e) {
             return false;
         }
@@ -130,11 +179,43 @@ public class JwtConfig {
         if (!isRefreshToken(token)) {
             return false;
         }
-        final String tokenUsername = getUsernameFromToken(token);
-        return tokenUsername.equals(username) && !isTokenExpired(token);
+        VerifiedToken verified = verifyToken(token);
+        return verified.username().equals(username) && !verified.isExpired();
     }
 
     public Long getExpiration() {
         return expiration;
     }
-}
\ No newline at end of file
+
+    private static VerifiedToken toVerifiedToken(Claims claims) {
+        if (claims.getExpiration() == null) {
+            throw new MalformedJwtException("Token sem data de expiração");
+        }
+        List<String> roles = new ArrayList<>();
+        if (claims.get(CLAIM_ROLES_ACCESS) instanceof List<?> list) {
+            for (Object item : list) {
+                if (item instanceof String s) {
+                    roles.add(s);
+                }
+            }
+        }
+        return new VerifiedToken(
+                claims.getSubject(),
+                roles,
+                TYPE_REFRESH.equals(claims.get(CLAIM_TYPE)),
+                claims.getExpiration().toInstant(),
+                claims.getId(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.get(CLAIM_USER_ID) instanceof Number uid ? uid.longValue() : null
+        );
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.album.seplag.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Chaves de assinatura e verificação dos JWT, carregadas e parseadas uma única vez.
+ * <p>
+ * Com {@code jwt.algorithm} ES256 ou EdDSA os tokens são assinados com a chave privada de
+ * {@code jwt.signing-jwk} (JWK privado em JSON) e levam o header {@code kid}. A verificação aceita
+ * a chave atual e as chaves públicas de {@code jwt.verification-jwks} (JWK Set), o que permite
+ * rotação sem downtime: publica-se a chave nova como verificação, troca-se a de assinatura e a
+ * antiga permanece em verificação até os tokens emitidos com ela expirarem. As chaves públicas
+ * são expostas em {@code /.well-known/jwks.json}.
+ * <p>
+ * Sem {@code jwt.signing-jwk} um algoritmo assimétrico impede a subida: uma chave efêmera por
+ * processo derrubaria as sessões a cada reinício e os tokens de uma réplica seriam recusados nas
+ * outras. {@code jwt.allow-ephemeral-key} libera a chave efêmera só para desenvolvimento. Por isso
+ * o padrão continua HS256 com {@code jwt.secret} até um JWK ser configurado.
+ * <p>
+ * Com {@code jwt.accept-legacy-hmac} (desligado por padrão) tokens sem {@code kid} assinados com
+ * {@code jwt.secret} (HS256, formato anterior) continuam válidos durante a migração; deve ser
+ * desligado assim que os tokens antigos expirarem, já que o secret padrão é público. HS256 como
+ * algoritmo de assinatura continua suportado, mas não publica chaves.
+ */
+@Slf4j
+@Component
+public class JwtKeys {
+
+    private final String algoritmo;
+    private final Key chaveAssinatura;
+    private final SignatureAlgorithm algoritmoAssimetrico;
+    private final String kidAssinatura;
+    private final SecretKey chaveHmac;
+    private final boolean aceitaHmacLegado;
+    private final Map<String, PublicKey> chavesVerificacao;
+    private final Map<String, Object> jwks;
+
+    public JwtKeys(@Value("${jwt.algorithm:HS256}") String algoritmo,
+                   @Value("${jwt.secret:}") String secret,
+                   @Value("${jwt.signing-jwk:}") String signingJwk,
+                   @Value("${jwt.verification-jwks:}") String verificationJwks,
+                   @Value("${jwt.accept-legacy-hmac:false}") boolean aceitaHmacLegado,
+                   @Value("${jwt.allow-ephemeral-key:false}") boolean permiteChaveEfemera) {
+        this.algoritmo = algoritmo.toUpperCase();
+        this.chaveHmac = secret == null || secret.isBlank()
+                ? null
+                : Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+
+        if ("HS256".equals(this.algoritmo)) {
+            if (chaveHmac == null) {
+                throw new IllegalStateException("jwt.secret é obrigatório com jwt.algorithm=HS256");
+            }
+            this.chaveAssinatura = chaveHmac;
+            this.algoritmoAssimetrico = null;
+            this.kidAssinatura = null;
+            this.aceitaHmacLegado = true;
+            this.chavesVerificacao = Map.of();
+            this.jwks = Map.of("keys", List.of());
+            return;
+        }
+
+        this.algoritmoAssimetrico = switch (this.algoritmo) {
+            case "ES256" -> Jwts.SIG.ES256;
+            case "EDDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalStateException("jwt.algorithm não suportado: " + algoritmo
+                    + " (use ES256, EdDSA ou HS256)");
+        };
+        this.aceitaHmacLegado = aceitaHmacLegado && chaveHmac != null;
+
+        KeyPair par;
+        String kid;
+        if (signingJwk == null || signingJwk.isBlank()) {
+            if (!permiteChaveEfemera) {
+                throw new IllegalStateException("jwt.signing-jwk é obrigatório com jwt.algorithm=" + algoritmo
+                        + " (ou use HS256, ou jwt.allow-ephemeral-key=true apenas em desenvolvimento)");
+            }
+            par = this.algoritmoAssimetrico.keyPair().build();
+            kid = Jwks.builder().key(par.getPublic()).idFromThumbprint().build().getId();
+            log.warn("jwt.signing-jwk não configurado: usando chave {} efêmera (kid {}). Tokens deixam de valer "
+                    + "ao reiniciar e não são aceitos por outras réplicas", this.algoritmo, kid);
+        } else {
+            Jwk<?> jwk = Jwks.parser().build().parse(signingJwk);
+            if (!(jwk instanceof PrivateJwk<?, ?, ?> privado)) {
+                throw new IllegalStateException("jwt.signing-jwk deve ser um JWK privado");
+            }
+            par = privado.toKeyPair().toJavaKeyPair();
+            kid = jwk.getId() != null ? jwk.getId() : privado.toPublicJwk().thumbprint().toString();
+        }
+        this.chaveAssinatura = par.getPrivate();
+        this.kidAssinatura = kid;
+
+        Map<String, PublicKey> verificacao = new LinkedHashMap<>();
+        List<Map<String, Object>> publicas = new ArrayList<>();
+        adicionarVerificacao(verificacao, publicas, kid, par.getPublic());
+        if (verificationJwks != null && !verificationJwks.isBlank()) {
+            JwkSet conjunto = Jwks.setParser().build().parse(verificationJwks);
+            for (Jwk<?> jwk : conjunto) {
+                if (!(jwk instanceof PublicJwk<?> publico)) {
+                    throw new IllegalStateException("jwt.verification-jwks deve conter apenas chaves públicas");
+                }
+                String id = jwk.getId() != null ? jwk.getId() : publico.thumbprint().toString();
+                adicionarVerificacao(verificacao, publicas, id, publico.toKey());
+            }
+        }
+        this.chavesVerificacao = Map.copyOf(verificacao);
+        this.jwks = Map.of("keys", List.copyOf(publicas));
+        log.info("JWT {} - kid de assinatura: {}, chaves de verificação: {}, HMAC legado aceito: {}",
+                this.algoritmo, kid, verificacao.keySet(), this.aceitaHmacLegado);
+    }
+
+    public static JwtKeys hmac(String secret) {
+        return new JwtKeys("HS256", secret, "", "", true, false);
+    }
+
+    /** Assina o token com a chave atual, incluindo o {@code kid} quando assimétrica. */
+    JwtBuilder assinar(JwtBuilder builder) {
+        if (algoritmoAssimetrico == null) {
+            return builder.signWith(chaveHmac);
+        }
+        return builder.header().keyId(kidAssinatura).and()
+                .signWith((PrivateKey) chaveAssinatura, algoritmoAssimetrico);
+    }
+
+    /**
+     * Escolhe a chave de verificação pelo {@code kid} do header: consulta em mapa, sem parse de chave.
+     */
+    LocatorAdapter<Key> localizador() {
+        return new LocatorAdapter<>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                String kid = header.getKeyId();
+                if (kid == null) {
+                    if (aceitaHmacLegado) {
+                        return chaveHmac;
+                    }
+                    throw new UnsupportedJwtException("Token sem kid");
+                }
+                Key chave = chavesVerificacao.get(kid);
+                if (chave == null) {
+                    throw new UnsupportedJwtException("kid desconhecido: " + kid);
+                }
+                return chave;
+            }
+        };
+    }
+
+    /** JWK Set público (RFC 7517) com todas as chaves de verificação. */
+    public Map<String, Object> jwks() {
+        return jwks;
+    }
+
+    public String getAlgoritmo() {
+        return algoritmo;
+    }
+
+    public String getKidAssinatura() {
+        return kidAssinatura;
+    }
+
+    private void adicionarVerificacao(Map<String, PublicKey> verificacao, List<Map<String, Object>> publicas,
+                                      String kid, PublicKey chave) {
+        verificacao.put(kid, chave);
+        PublicJwk<?> jwk = Jwks.builder().key(chave).id(kid).publicKeyUse("sig").build();
+        Map<String, Object> publica = new LinkedHashMap<>();
+        jwk.forEach((nome, valor) -> publica.put(nome, String.valueOf(valor)));
+        publica.put("alg", algoritmoAssimetrico.getId());
+        publicas.add(publica);
+    }
+}
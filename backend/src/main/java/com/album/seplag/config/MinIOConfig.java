@@ -1,5 +1,6 @@
 package com.album.seplag.config;
 
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -24,5 +25,17 @@ public class MinIOConfig {
                 .credentials(accessKey, secretKey)
                 .build();
     }
+
+    /**
+     * Cliente assíncrono: expõe as operações de multipart upload (create/uploadPart/complete/abort)
+     * usadas pelo upload resumível de capas.
+     */
+    @Bean
+    public MinioAsyncClient minioAsyncClient() {
+        return MinioAsyncClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .build();
+    }
 }
 
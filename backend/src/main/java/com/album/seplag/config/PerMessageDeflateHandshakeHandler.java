@@ -0,0 +1,35 @@
+package com.album.seplag.config;
+
+import java.util.List;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+/**
+ * Handshake que controla a extensão {@code permessage-deflate} (RFC 7692). O Tomcat a implementa e
+ * a negocia sempre que o cliente oferece; aqui ela pode ser desligada
+ * ({@code websocket.compression.enabled}) quando o custo de CPU não compensar, por exemplo atrás de
+ * um proxy que já comprime.
+ */
+class PerMessageDeflateHandshakeHandler extends DefaultHandshakeHandler {
+
+    static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+    private final boolean compressao;
+
+    PerMessageDeflateHandshakeHandler(boolean compressao) {
+        this.compressao = compressao;
+    }
+
+    @Override
+    protected List<WebSocketExtension> filterRequestedExtensions(ServerHttpRequest request,
+                                                                 List<WebSocketExtension> requestedExtensions,
+                                                                 List<WebSocketExtension> supportedExtensions) {
+        List<WebSocketExtension> negociadas = super.filterRequestedExtensions(request, requestedExtensions, supportedExtensions);
+        if (compressao) {
+            return negociadas;
+        }
+        return negociadas.stream().filter(e -> !PERMESSAGE_DEFLATE.equalsIgnoreCase(e.getName())).toList();
+    }
+}
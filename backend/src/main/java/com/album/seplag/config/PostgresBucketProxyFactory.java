@@ -0,0 +1,87 @@
+package com.album.seplag.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.distributed.jdbc.BucketTableSettings;
+import io.github.bucket4j.distributed.jdbc.PrimaryKeyMapper;
+import io.github.bucket4j.distributed.jdbc.SQLProxyConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimization;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.postgresql.PostgreSQLadvisoryLockBasedProxyManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Buckets compartilhados entre réplicas, com estado na tabela {@code rate_limit_buckets} (V12)
+ * e serialização por advisory lock do Postgres.
+ * <p>
+ * Cada nó consome localmente até {@code max-unsynced-tokens} tokens (ou por {@code max-unsynced-ms})
+ * antes de sincronizar com o banco, então a maioria das requisições não faz round trip.
+ * O excesso máximo no cluster é de {@code max-unsynced-tokens} por nó e por chave.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "rate-limit.distributed.enabled", havingValue = "true")
+public class PostgresBucketProxyFactory {
+
+    static final String TABELA = "rate_limit_buckets";
+
+    private final ProxyManager<String> proxyManager;
+    private final Optimization optimization;
+    private final JdbcTemplate jdbcTemplate;
+    private final long retencaoMs;
+
+    public PostgresBucketProxyFactory(DataSource dataSource,
+                                      JdbcTemplate jdbcTemplate,
+                                      @Value("${rate-limit.distributed.max-unsynced-tokens:5}") long maxUnsyncedTokens,
+                                      @Value("${rate-limit.distributed.max-unsynced-ms:500}") long maxUnsyncedMs,
+                                      @Value("${rate-limit.distributed.retention-ms:3600000}") long retencaoMs) {
+        this.proxyManager = criarProxyManager(dataSource);
+        this.optimization = maxUnsyncedTokens > 0
+                ? Optimizations.delaying(new DelayParameters(maxUnsyncedTokens, Duration.ofMillis(maxUnsyncedMs)))
+                : null;
+        this.jdbcTemplate = jdbcTemplate;
+        this.retencaoMs = retencaoMs;
+        log.info("Rate limit distribuído habilitado (Postgres) - tokens sem sincronizar por nó: {}", maxUnsyncedTokens);
+    }
+
+    static ProxyManager<String> criarProxyManager(DataSource dataSource) {
+        SQLProxyConfiguration<String> configuration = SQLProxyConfiguration.builder()
+                .withTableSettings(BucketTableSettings.customSettings(TABELA, "id", "state"))
+                .withPrimaryKeyMapper(PrimaryKeyMapper.STRING)
+                .build(dataSource);
+        return new PostgreSQLadvisoryLockBasedProxyManager<>(configuration);
+    }
+
+    public Bucket criar(String chave, RateLimitBucketStore.BucketSpec spec) {
+        var builder = proxyManager.builder();
+        if (optimization != null) {
+            builder = builder.withOptimization(optimization);
+        }
+        return builder.build(chave, spec::configuracao);
+    }
+
+    /**
+     * Remove buckets sem consumo há mais de {@code retention-ms}; qualquer bucket ocioso por esse
+     * tempo já reabasteceu, então é recriado cheio sem afetar o limite.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.distributed.cleanup-interval-ms:600000}")
+    public void removerBucketsOciosos() {
+        int removidos = jdbcTemplate.update(
+                "DELETE FROM " + TABELA + " WHERE updated_at < CURRENT_TIMESTAMP - (? * INTERVAL '1 millisecond')",
+                retencaoMs);
+        if (removidos > 0) {
+            log.info("Buckets de rate limit ociosos removidos: {}", removidos);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.album.seplag.config;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Armazena os buckets dos rate limiters com limite de tamanho e expiração por inatividade.
+ * <p>
+ * Um bucket só é removido depois de ficar ocioso tempo suficiente para reabastecer por completo
+ * (considerando débito de {@code consumeIgnoringRateLimits}), então recriá-lo cheio não altera o
+ * limite efetivo. A expiração é recalculada a cada acesso a partir dos tokens disponíveis.
+ * O limite de tamanho ({@code rate-limit.store.max-size}) só é atingido sob volume anormal de chaves;
+ * nesse caso os buckets menos usados são descartados.
+ * <p>
+ * Um proxy distribuído removido da memória (ou no encerramento) sincroniza antes os tokens
+ * consumidos localmente e ainda não gravados no banco; sem isso esse consumo se perderia.
+ * A sincronização é uma escrita no banco, então a manutenção do cache (onde roda o listener de
+ * remoção) usa uma thread própria com fila limitada em vez do {@code ForkJoinPool.commonPool()};
+ * com a fila cheia o Caffeine faz a manutenção na thread que acessou o cache.
+ */
+@Slf4j
+@Component
+public class RateLimitBucketStore {
+
+    /** Capacidade e janela de reabastecimento de um bucket. */
+    public record BucketSpec(long capacidade, Duration janela, boolean refillGradual) {
+
+        public Bucket criar() {
+            return Bucket.builder().addLimit(bandwidth()).build();
+        }
+
+        public BucketConfiguration configuracao() {
+            return BucketConfiguration.builder().addLimit(bandwidth()).build();
+        }
+
+        private Bandwidth bandwidth() {
+            return refillGradual
+                    ? Bandwidth.builder().capacity(capacidade).refillGreedy(capacidade, janela).build()
+                    : Bandwidth.builder().capacity(capacidade).refillIntervally(capacidade, janela).build();
+        }
+    }
+
+    private record Entrada(Bucket bucket, BucketSpec spec, boolean distribuido) {
+
+        /**
+         * Tempo até o bucket estar cheio, arredondado para janelas inteiras, mais uma janela de folga
+         * para o consumo que acontece logo após o acesso.
+         * Buckets distribuídos têm o estado no banco: o proxy local (com os tokens ainda não
+         * sincronizados) é mantido por uma janela de inatividade, sem consultar o banco para isso.
+         */
+        long nanosAteCheio() {
+            if (distribuido) {
+                return spec.janela().toNanos();
+            }
+            long faltando = Math.max(0, spec.capacidade() - bucket.getAvailableTokens());
+            long janelas = 1 + (faltando + spec.capacidade() - 1) / spec.capacidade();
+            return spec.janela().toNanos() * janelas;
+        }
+    }
+
+    /** Tarefas de manutenção pendentes antes de o Caffeine passar a fazê-las na thread chamadora. */
+    private static final int FILA_SINCRONIZACAO = 1000;
+
+    private final Cache<String, Entrada> buckets;
+    private final PostgresBucketProxyFactory distribuido;
+    private final ThreadPoolExecutor sincronizacao;
+
+    @Autowired
+    public RateLimitBucketStore(MeterRegistry meterRegistry,
+                                @Value("${rate-limit.store.max-size:100000}") long maxSize,
+                                ObjectProvider<PostgresBucketProxyFactory> distribuido) {
+        this(meterRegistry, maxSize, Ticker.systemTicker(), distribuido.getIfAvailable());
+    }
+
+    RateLimitBucketStore(MeterRegistry meterRegistry, long maxSize) {
+        this(meterRegistry, maxSize, Ticker.systemTicker(), null);
+    }
+
+    RateLimitBucketStore(MeterRegistry meterRegistry, long maxSize, Ticker ticker, PostgresBucketProxyFactory distribuido) {
+        this.distribuido = distribuido;
+        this.sincronizacao = distribuido != null ? executorSincronizacao() : null;
+        Counter expirados = evictionCounter(meterRegistry, "expired");
+        Counter porTamanho = evictionCounter(meterRegistry, "size");
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (sincronizacao != null) {
+            builder.executor(sincronizacao);
+        }
+        this.buckets = builder
+                .maximumSize(maxSize)
+                .ticker(ticker)
+                .expireAfter(new Expiry<String, Entrada>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entrada value, long currentTime) {
+                        return value.nanosAteCheio();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entrada value, long currentTime, long currentDuration) {
+                        return value.nanosAteCheio();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entrada value, long currentTime, long currentDuration) {
+                        return value.nanosAteCheio();
+                    }
+                })
+                .evictionListener((String key, Entrada value, RemovalCause cause) -> {
+                    sincronizar(key, value);
+                    if (cause == RemovalCause.EXPIRED) {
+                        expirados.increment();
+                    } else if (cause == RemovalCause.SIZE) {
+                        porTamanho.increment();
+                    }
+                })
+                .build();
+
+        Gauge.builder("rate.limit.buckets", buckets, Cache::estimatedSize)
+                .description("Buckets de rate limit em memória")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retorna o bucket da chave, criando-o a partir de {@code spec} se necessário (local ou, com
+     * {@code rate-limit.distributed.enabled}, um proxy para o estado no Postgres).
+     * A criação é atômica: acessos concorrentes à mesma chave compartilham o mesmo bucket.
+     */
+    public Bucket obter(String chave, BucketSpec spec) {
+        return buckets.get(chave, k -> distribuido != null
+                ? new Entrada(distribuido.criar(k, spec), spec, true)
+                : new Entrada(spec.criar(), spec, false)).bucket();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (distribuido != null) {
+            buckets.asMap().forEach(RateLimitBucketStore::sincronizar);
+            sincronizacao.shutdown();
+        }
+    }
+
+    private static void sincronizar(String chave, Entrada entrada) {
+        if (entrada == null || !entrada.distribuido() || !(entrada.bucket() instanceof BucketProxy proxy)) {
+            return;
+        }
+        try {
+            proxy.getOptimizationController().syncImmediately();
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível sincronizar o bucket de rate limit {}: {}", chave, e.getMessage());
+        }
+    }
+
+    long tamanho() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private static ThreadPoolExecutor executorSincronizacao() {
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(FILA_SINCRONIZACAO), r -> {
+            Thread t = new Thread(r, "rate-limit-sync");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String causa) {
+        return Counter.builder("rate.limit.bucket.evictions")
+                .description("Buckets de rate limit removidos da memória")
+                .tag("cause", causa)
+                .register(meterRegistry);
+    }
+}
@@ -1,14 +1,11 @@
 package com.album.seplag.config;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.album.seplag.enums.RateLimitTier;
+
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Configuration
 public class RateLimitConfig {
@@ -16,23 +13,94 @@ public class RateLimitConfig {
     @Value("${rate-limit.requests-per-minute:10}")
     private int requestsPerMinute;
 
-    @Bean
-    public Map<String, Bucket> rateLimitBuckets() {
-        return new ConcurrentHashMap<>();
+    @Value("${rate-limit.auth.requests-per-minute:20}")
+    private int authRequestsPerMinute;
+
+    @Value("${rate-limit.auth.failure-cost:5}")
+    private int authFailureCost;
+
+    @Value("${rate-limit.tiers.read.requests-per-minute:${rate-limit.requests-per-minute:10}}")
+    private int readRequestsPerMinute;
+
+    @Value("${rate-limit.tiers.read.cost:1}")
+    private int readCost;
+
+    @Value("${rate-limit.tiers.write.requests-per-minute:${rate-limit.requests-per-minute:10}}")
+    private int writeRequestsPerMinute;
+
+    @Value("${rate-limit.tiers.write.cost:1}")
+    private int writeCost;
+
+    @Value("${rate-limit.tiers.upload.requests-per-minute:20}")
+    private int uploadRequestsPerMinute;
+
+    @Value("${rate-limit.tiers.upload.cost:2}")
+    private int uploadCost;
+
+    @Value("${rate-limit.tiers.upload.bytes-per-token:1048576}")
+    private long uploadBytesPerToken;
+
+    @Value("${rate-limit.tiers.export.requests-per-minute:5}")
+    private int exportRequestsPerMinute;
+
+    @Value("${rate-limit.tiers.export.cost:1}")
+    private int exportCost;
+
+    public RateLimitBucketStore.BucketSpec bucketSpec() {
+        return new RateLimitBucketStore.BucketSpec(requestsPerMinute, Duration.ofMinutes(1), false);
     }
 
-    public Bucket createBucket() {
-        Bandwidth limit = Bandwidth.builder()
-                .capacity(requestsPerMinute)
-                .refillIntervally(requestsPerMinute, Duration.ofMinutes(1))
-                .build();
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+    public RateLimitBucketStore.BucketSpec bucketSpec(RateLimitTier tier) {
+        return new RateLimitBucketStore.BucketSpec(getRequestsPerMinute(tier), Duration.ofMinutes(1), false);
+    }
+
+    public RateLimitBucketStore.BucketSpec authBucketSpec() {
+        return new RateLimitBucketStore.BucketSpec(authRequestsPerMinute, Duration.ofMinutes(1), true);
+    }
+
+    /**
+     * Tokens cobrados por uma requisição da faixa. Uploads pagam o maior valor entre o custo fixo
+     * e um token por {@code bytes-per-token} do corpo declarado; sem Content-Length (corpo chunked,
+     * {@code contentLength < 0}) o tamanho é desconhecido e o upload paga a capacidade inteira.
+     * Partes de upload resumível chegam com {@code contentLength} 0 e pagam só o custo fixo
+     * ({@link RateLimited#porTamanho()}). O custo nunca passa da capacidade, senão a requisição
+     * seria recusada para sempre.
+     */
+    public long custo(RateLimitTier tier, long contentLength) {
+        long custo = switch (tier) {
+            case READ -> readCost;
+            case WRITE -> writeCost;
+            case EXPORT -> exportCost;
+            case UPLOAD -> {
+                if (contentLength < 0) {
+                    yield getRequestsPerMinute(tier);
+                }
+                yield contentLength > 0 && uploadBytesPerToken > 0
+                        ? Math.max(uploadCost, (contentLength + uploadBytesPerToken - 1) / uploadBytesPerToken)
+                        : uploadCost;
+            }
+        };
+        return Math.max(1, Math.min(custo, getRequestsPerMinute(tier)));
     }
 
     public int getRequestsPerMinute() {
         return requestsPerMinute;
     }
-}
 
+    public int getRequestsPerMinute(RateLimitTier tier) {
+        return switch (tier) {
+            case READ -> readRequestsPerMinute;
+            case WRITE -> writeRequestsPerMinute;
+            case UPLOAD -> uploadRequestsPerMinute;
+            case EXPORT -> exportRequestsPerMinute;
+        };
+    }
+
+    public int getAuthRequestsPerMinute() {
+        return authRequestsPerMinute;
+    }
+
+    public int getAuthFailureCost() {
+        return authFailureCost;
+    }
+}
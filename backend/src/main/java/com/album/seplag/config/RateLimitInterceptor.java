@@ -1,30 +1,37 @@
 package com.album.seplag.config;
 
 import java.io.IOException;
-import java.util.Map;
 
-import io.github.bucket4j.EstimationProbe;
-import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import com.album.seplag.enums.RateLimitTier;
+
 import io.github.bucket4j.Bucket;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Rate limit por usuário e por faixa ({@link RateLimitTier}): cada faixa tem bucket próprio,
+ * então uma rajada de uploads não consome a cota de leitura, e o Retry-After reflete a faixa recusada.
+ */
 @Slf4j
 @Component
 public class RateLimitInterceptor implements HandlerInterceptor {
 
-    private final Map<String, Bucket> rateLimitBuckets;
+    private final RateLimitBucketStore bucketStore;
     private final RateLimitConfig rateLimitConfig;
+    private final RateLimitTierResolver tierResolver;
 
-    public RateLimitInterceptor(Map<String, Bucket> rateLimitBuckets, RateLimitConfig rateLimitConfig) {
-        this.rateLimitBuckets = rateLimitBuckets;
+    public RateLimitInterceptor(RateLimitBucketStore bucketStore, RateLimitConfig rateLimitConfig,
+                                RateLimitTierResolver tierResolver) {
+        this.bucketStore = bucketStore;
         this.rateLimitConfig = rateLimitConfig;
+        this.tierResolver = tierResolver;
     }
 
     @Override
@@ -35,31 +42,25 @@ public class RateLimitInterceptor implements HandlerInterceptor {
             return true;
         }
 
+        HandlerMethod handlerMethod = handler instanceof HandlerMethod h ? h : null;
+        RateLimitTier tier = handlerMethod != null ? tierResolver.resolver(handlerMethod) : RateLimitTier.READ;
+        long tamanho = handlerMethod == null || tierResolver.cobraPorTamanho(handlerMethod)
+                ? request.getContentLengthLong()
+                : 0;
         String username = authentication.getName();
-        Bucket bucket = rateLimitBuckets.computeIfAbsent(username, k -> rateLimitConfig.createBucket());
+        Bucket bucket = bucketStore.obter(username + ":" + tier.name(), rateLimitConfig.bucketSpec(tier));
+        long custo = rateLimitConfig.custo(tier, tamanho);
         
-        if (bucket.tryConsume(1)) {
+        if (bucket.tryConsume(custo)) {
             return true;
-        } else {
-            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            response.setContentType("application/json");
-
-            // Header Retry-After: segundos até próximo refill (frontend usa para retry)
-            EstimationProbe probe = bucket.estimateAbilityToConsume(1);
-            long nanosToWait = probe.getNanosToWaitForRefill();
-            if (nanosToWait > 0) {
-                long secondsToWait = (nanosToWait + 999_999_999) / 1_000_000_000;
-                response.setHeader("Retry-After", String.valueOf(secondsToWait));
-            }
-
-            try {
-                int limit = rateLimitConfig.getRequestsPerMinute();
-                response.getWriter().write("{\"message\":\"Rate limit exceeded. Maximum " + limit + " requests per minute.\"}");
-            } catch (IOException e) {
-                log.error("Error writing rate limit response", e);
-                return false;
-            }
-            return false;
         }
+        try {
+            int limit = rateLimitConfig.getRequestsPerMinute(tier);
+            RateLimitResponse.rejeitar(response, bucket, custo, "Rate limit exceeded. Maximum " + limit
+                    + " " + tier.name().toLowerCase() + " requests per minute.");
+        } catch (IOException e) {
+            log.error("Error writing rate limit response", e);
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
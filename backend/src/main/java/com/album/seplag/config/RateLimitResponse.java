@@ -0,0 +1,33 @@
+package com.album.seplag.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.EstimationProbe;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Resposta 429 compartilhada pelos interceptors de rate limit.
+ */
+final class RateLimitResponse {
+
+    private RateLimitResponse() {
+    }
+
+    static void rejeitar(HttpServletResponse response, Bucket bucket, long tokens, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType("application/json");
+
+        // Header Retry-After: segundos até próximo refill (frontend usa para retry)
+        EstimationProbe probe = bucket.estimateAbilityToConsume(tokens);
+        long nanosToWait = probe.getNanosToWaitForRefill();
+        if (nanosToWait > 0) {
+            long secondsToWait = (nanosToWait + 999_999_999) / 1_000_000_000;
+            response.setHeader("Retry-After", String.valueOf(secondsToWait));
+        }
+
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
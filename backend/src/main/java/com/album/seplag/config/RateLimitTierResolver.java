@@ -0,0 +1,97 @@
+package com.album.seplag.config;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
+
+import com.album.seplag.enums.RateLimitTier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Classifica cada handler em uma {@link RateLimitTier} uma única vez, quando o contexto sobe,
+ * para que o interceptor faça apenas uma consulta em mapa por requisição.
+ * Ordem: {@link RateLimited} no método ou na classe; consumes multipart/octet-stream → UPLOAD;
+ * apenas GET/HEAD → READ; demais → WRITE. Também guarda os handlers anotados com
+ * {@code porTamanho = false}, cujo custo não depende do corpo.
+ */
+@Slf4j
+@Component
+public class RateLimitTierResolver {
+
+    private static final Set<MediaType> UPLOAD_TYPES =
+            Set.of(MediaType.MULTIPART_FORM_DATA, MediaType.APPLICATION_OCTET_STREAM);
+
+    private volatile Map<Method, RateLimitTier> tiers = Map.of();
+    private volatile Set<Method> custoFixo = Set.of();
+
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        Map<Method, RateLimitTier> novo = new HashMap<>();
+        event.getApplicationContext().getBeansOfType(RequestMappingInfoHandlerMapping.class).values()
+                .forEach(mapping -> mapping.getHandlerMethods()
+                        .forEach((info, handler) -> novo.merge(handler.getMethod(), classificar(info, handler), this::maisRestritiva)));
+        tiers = Map.copyOf(novo);
+        custoFixo = novo.keySet().stream()
+                .filter(metodo -> !porTamanho(anotacao(metodo, metodo.getDeclaringClass())))
+                .collect(Collectors.toUnmodifiableSet());
+        log.info("Faixas de rate limit resolvidas para {} endpoints", novo.size());
+    }
+
+    public RateLimitTier resolver(HandlerMethod handler) {
+        RateLimitTier tier = tiers.get(handler.getMethod());
+        return tier != null ? tier : classificar(null, handler);
+    }
+
+    /** Se o tamanho do corpo entra no custo da requisição ({@link RateLimited#porTamanho()}). */
+    public boolean cobraPorTamanho(HandlerMethod handler) {
+        if (tiers.containsKey(handler.getMethod())) {
+            return !custoFixo.contains(handler.getMethod());
+        }
+        return porTamanho(anotacao(handler.getMethod(), handler.getBeanType()));
+    }
+
+    static RateLimitTier classificar(RequestMappingInfo info, HandlerMethod handler) {
+        RateLimited explicito = anotacao(handler.getMethod(), handler.getBeanType());
+        if (explicito != null) {
+            return explicito.value();
+        }
+        if (info == null) {
+            return RateLimitTier.WRITE;
+        }
+        boolean upload = info.getConsumesCondition().getConsumableMediaTypes().stream()
+                .anyMatch(tipo -> UPLOAD_TYPES.stream().anyMatch(tipo::isCompatibleWith));
+        if (upload) {
+            return RateLimitTier.UPLOAD;
+        }
+        Set<RequestMethod> metodos = info.getMethodsCondition().getMethods();
+        boolean leitura = !metodos.isEmpty() && metodos.stream()
+                .allMatch(m -> m == RequestMethod.GET || m == RequestMethod.HEAD);
+        return leitura ? RateLimitTier.READ : RateLimitTier.WRITE;
+    }
+
+    private static RateLimited anotacao(Method metodo, Class<?> tipo) {
+        RateLimited explicito = AnnotatedElementUtils.findMergedAnnotation(metodo, RateLimited.class);
+        return explicito != null ? explicito : AnnotatedElementUtils.findMergedAnnotation(tipo, RateLimited.class);
+    }
+
+    private static boolean porTamanho(RateLimited explicito) {
+        return explicito == null || explicito.porTamanho();
+    }
+
+    private RateLimitTier maisRestritiva(RateLimitTier a, RateLimitTier b) {
+        return a.ordinal() >= b.ordinal() ? a : b;
+    }
+}
@@ -0,0 +1,26 @@
+package com.album.seplag.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.album.seplag.enums.RateLimitTier;
+
+/**
+ * Define explicitamente a faixa de rate limit de um endpoint (ou de todos os endpoints do controller),
+ * em vez da classificação automática por método HTTP e content type.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    RateLimitTier value();
+
+    /**
+     * Se o Content-Length entra no custo (só faz diferença em {@link RateLimitTier#UPLOAD}). Partes
+     * de upload resumível usam {@code false}: pagam o custo fixo, pois o tamanho já é limitado pela
+     * sessão e cobrar cada parte por MiB faria o arquivo em partes custar mais que num POST único.
+     */
+    boolean porTamanho() default true;
+}
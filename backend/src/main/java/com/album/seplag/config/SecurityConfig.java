@@ -2,6 +2,7 @@ package com.album.seplag.config;
 
 import com.album.seplag.exception.AuthenticationEntryPointImpl;
 import com.album.seplag.security.JwtAuthenticationFilter;
+import com.album.seplag.service.TokenRevocationService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,6 +16,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
+import jakarta.servlet.DispatcherType;
 
 @Configuration
 @EnableWebSecurity
@@ -28,30 +30,36 @@ public class SecurityConfig {
     private final UserDetailsService userDetailsService;
     private final AuthenticationEntryPointImpl authenticationEntryPoint;
     private final CorsConfigurationSource corsConfigurationSource;
+    private final TokenRevocationService tokenRevocationService;
 
     public SecurityConfig(
             JwtConfig jwtConfig,
             UserDetailsService userDetailsService,
             AuthenticationEntryPointImpl authenticationEntryPoint,
-            CorsConfigurationSource corsConfigurationSource) {
+            CorsConfigurationSource corsConfigurationSource,
+            TokenRevocationService tokenRevocationService) {
         this.jwtConfig = jwtConfig;
         this.userDetailsService = userDetailsService;
         this.authenticationEntryPoint = authenticationEntryPoint;
         this.corsConfigurationSource = corsConfigurationSource;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         // Criando o filtro manualmente aqui para evitar o registro automático como Bean do Servlet
         // e eliminar o aviso de Proxy CGLIB sobre métodos 'final'
-        JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtConfig, userDetailsService);
+        JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtConfig, userDetailsService, tokenRevocationService);
 
         http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Dispatch assíncrono do stream SSE: a requisição original já foi autenticada
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(getAuthWhitelist()).permitAll()
+                .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .exceptionHandling(ex -> ex.authenticationEntryPoint(authenticationEntryPoint))
@@ -69,6 +77,7 @@ public class SecurityConfig {
             apiBasePath + "/auth/register",
             apiBasePath + "/auth/refresh",
             "/actuator/health/**",
+            "/.well-known/jwks.json",
             "/csrf",
             "/",
             "/ws/**"  // WebSocket SockJS handshake (SockJS não envia JWT em headers)
@@ -12,12 +12,14 @@ import org.springframework.beans.factory.annotation.Value;
 public class WebMvcConfig implements WebMvcConfigurer {
 
     private final RateLimitInterceptor rateLimitInterceptor;
+    private final AuthRateLimitInterceptor authRateLimitInterceptor;
 
     @Value("${app.api.base}")
     private String basePath;
 
-    public WebMvcConfig(RateLimitInterceptor rateLimitInterceptor) {
+    public WebMvcConfig(RateLimitInterceptor rateLimitInterceptor, AuthRateLimitInterceptor authRateLimitInterceptor) {
         this.rateLimitInterceptor = rateLimitInterceptor;
+        this.authRateLimitInterceptor = authRateLimitInterceptor;
     }
 
     @Override
@@ -38,6 +40,9 @@ public class WebMvcConfig implements WebMvcConfigurer {
         registry.addInterceptor(rateLimitInterceptor)
                 .addPathPatterns(basePath + "/**")
                 .excludePathPatterns(basePath + "/auth/**", "/actuator/**", "/swagger-ui/**", "/v3/api-docs/**", "/api-docs/**");
+        // Endpoints anônimos: limitados por IP, com falhas de login custando mais tokens
+        registry.addInterceptor(authRateLimitInterceptor)
+                .addPathPatterns(basePath + "/auth/**");
     }
 
 }
@@ -2,13 +2,56 @@ package com.album.seplag.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import lombok.extern.slf4j.Slf4j;
 
 import java.util.Arrays;
 
+/**
+ * STOMP sobre SockJS em {@code /ws/albuns} e sobre WebSocket nativo em {@code /ws/albuns-nativo}.
+ * O endpoint nativo dispensa o enquadramento {@code a["..."]} do SockJS (JSON escapado dentro de
+ * JSON) e os transportes HTTP de fallback; os dois negociam {@code permessage-deflate}
+ * ({@link PerMessageDeflateHandshakeHandler}). Frames vindos do cliente (CONNECT, SUBSCRIBE) são
+ * pequenos, então o limite de mensagem STOMP de entrada é bem menor que o padrão de 64 KB
+ * ({@code websocket.message-size-limit}); o buffer de texto do Tomcat é ajustado em
+ * {@code server.servlet.context-parameters}.
+ * <p>
+ * Por padrão usa o broker em memória, que só entrega para clientes conectados na mesma instância.
+ * Com {@code websocket.broker.relay.enabled} as mensagens de {@code /topic} são repassadas a um
+ * broker STOMP externo (RabbitMQ com plugin STOMP, ActiveMQ, Artemis), que faz o fan-out para
+ * todas as réplicas. Se o broker cair, a sessão de sistema é reconectada a cada 5 s pelo
+ * próprio relay; enquanto isso as publicações são descartadas e as sessões de clientes recebem
+ * ERROR, e o frontend reconecta sozinho. O estado fica em {@code websocket.broker.available}
+ * ({@link BrokerRelayMonitor}).
+ * <p>
+ * Além dos tópicos globais há tópicos por entidade ({@code /topic/albuns.{id}},
+ * {@code /topic/artistas.{id}}, {@code /topic/artistas.{id}.albuns}). Depois de {@code /topic/}
+ * os segmentos são separados por ponto: o plugin STOMP do RabbitMQ aceita um único segmento após
+ * {@code /topic/} (vira a routing key da exchange {@code amq.topic}), e o broker em memória usa o
+ * mesmo separador ({@code AntPathMatcher(".")}). O broker em memória resolve
+ * cada destino percorrendo todas as assinaturas e guarda o resultado num cache LRU; o limite padrão
+ * do Spring (1024 destinos) é pequeno para milhares de artistas assinados e faria quase toda
+ * publicação cair na varredura ({@code websocket.broker.destination-cache-limit}).
+ * <p>
+ * A ordem de publicação é preservada por sessão para que os {@code seq} das notificações cheguem
+ * crescentes e o replay em {@code /app/replay} possa partir do último visto.
+ * <p>
+ * Um cliente lento (rede móvel) não pode fazer o buffer de saída crescer sem limite: a sessão que
+ * passa de {@code websocket.send-time-limit-ms} num envio ou acumula mais de
+ * {@code websocket.send-buffer-size-limit} bytes é encerrada e reconecta. Os executores dos canais
+ * de entrada e saída têm threads e fila limitadas ({@code websocket.channel.*}) em vez do padrão
+ * do Spring (fila sem limite). Sessões, assinaturas e a fila de saída são medidas em
+ * {@link WebSocketSessionRegistry}.
+ */
+@Slf4j
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
@@ -16,10 +59,87 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Value("${cors.allowed-origin:http://localhost:5173,http://localhost:3000}")
     private String allowedOrigin;
 
+    @Value("${websocket.broker.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${websocket.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${websocket.broker.relay.heartbeat-send-interval-ms:10000}")
+    private long heartbeatSendIntervalMs;
+
+    @Value("${websocket.broker.relay.heartbeat-receive-interval-ms:10000}")
+    private long heartbeatReceiveIntervalMs;
+
+    @Value("${websocket.broker.destination-cache-limit:16384}")
+    private int destinationCacheLimit;
+
+    @Value("${websocket.compression.enabled:true}")
+    private boolean compressao;
+
+    @Value("${websocket.message-size-limit:16384}")
+    private int messageSizeLimit;
+
+    @Value("${websocket.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+
+    @Value("${websocket.send-buffer-size-limit:131072}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websocket.channel.inbound.threads:0}")
+    private int inboundThreads;
+
+    @Value("${websocket.channel.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${websocket.channel.outbound.threads:0}")
+    private int outboundThreads;
+
+    @Value("${websocket.channel.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    private final WebSocketSessionRegistry sessionRegistry;
+
+    public WebSocketConfig(WebSocketSessionRegistry sessionRegistry) {
+        this.sessionRegistry = sessionRegistry;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if (relayEnabled) {
+            var relay = config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setSystemHeartbeatSendInterval(heartbeatSendIntervalMs)
+                    .setSystemHeartbeatReceiveInterval(heartbeatReceiveIntervalMs);
+            if (!relayVirtualHost.isBlank()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+            log.info("WebSocket usando relay STOMP em {}:{} (heartbeat {}/{} ms)",
+                    relayHost, relayPort, heartbeatSendIntervalMs, heartbeatReceiveIntervalMs);
+        } else {
+            config.enableSimpleBroker("/topic");
+            config.setCacheLimit(destinationCacheLimit);
+        }
+        config.setPathMatcher(new AntPathMatcher("."));
         config.setApplicationDestinationPrefixes("/app");
+        config.setPreservePublishOrder(true);
     }
 
     @Override
@@ -28,9 +148,47 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .map(String::trim)
                 .filter(s -> !s.isEmpty())
                 .toArray(String[]::new);
+        String[] origens = origins.length > 0 ? origins : new String[]{"*"};
+        PerMessageDeflateHandshakeHandler handshakeHandler = new PerMessageDeflateHandshakeHandler(compressao);
         registry.addEndpoint("/ws/albuns")
-                .setAllowedOriginPatterns(origins.length > 0 ? origins : new String[]{"*"})
+                .setHandshakeHandler(handshakeHandler)
+                .setAllowedOriginPatterns(origens)
                 .withSockJS();
+        registry.addEndpoint("/ws/albuns-nativo")
+                .setHandshakeHandler(handshakeHandler)
+                .setAllowedOriginPatterns(origens);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit(messageSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit);
     }
-}
 
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(executor("ws-inbound-", inboundThreads, inboundQueueCapacity));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(executor("ws-outbound-", outboundThreads, outboundQueueCapacity));
+        registration.interceptors(sessionRegistry);
+    }
+
+    /**
+     * Pool fixo com fila limitada; com a fila cheia o Spring executa a tarefa na thread que enviou,
+     * segurando o produtor em vez de descartar a mensagem. {@code threads} 0 usa o padrão do Spring (2 x núcleos).
+     */
+    static ThreadPoolTaskExecutor executor(String prefixo, int threads, int capacidadeFila) {
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors() * 2;
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefixo);
+        executor.setCorePoolSize(tamanho);
+        executor.setMaxPoolSize(tamanho);
+        executor.setQueueCapacity(Math.max(1, capacidadeFila));
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
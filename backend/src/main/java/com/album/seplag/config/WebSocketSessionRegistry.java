@@ -0,0 +1,226 @@
+package com.album.seplag.config;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sessões STOMP abertas nesta instância e o que cada uma assina, a partir dos eventos de sessão do
+ * Spring. Também intercepta o {@code clientOutboundChannel} para medir a fila de saída e descartar
+ * mensagens endereçadas a sessões que já foram fechadas.
+ * <p>
+ * Quem desconecta um cliente lento é o próprio Spring: quando uma sessão fica mais que
+ * {@code websocket.send-time-limit-ms} num envio ou acumula mais que
+ * {@code websocket.send-buffer-size-limit} bytes, ela é encerrada com
+ * {@link CloseStatus#SESSION_NOT_RELIABLE} e o que estava no buffer é perdido. Aqui esse
+ * encerramento é contado; o cliente reconecta e pede o que perdeu em {@code /app/replay}.
+ * <p>
+ * As assinaturas são agrupadas por padrão de destino ({@code /topic/albuns.{id}}) para que
+ * milhares de tópicos por entidade não virem milhares de séries.
+ * <ul>
+ *   <li>{@code websocket.sessions.active} (gauge): sessões STOMP abertas</li>
+ *   <li>{@code websocket.sessions.evicted} (counter): sessões lentas encerradas pelos limites de envio</li>
+ *   <li>{@code websocket.subscriptions} (gauge): assinaturas ativas, com tag destination (padrão)</li>
+ *   <li>{@code websocket.outbound.queue} (gauge): mensagens aceitas no canal de saída e ainda não
+ *   escritas nas sessões</li>
+ *   <li>{@code websocket.outbound.dropped} (counter): mensagens descartadas, com tag reason
+ *   ({@code session_closed} ou {@code rejected}, envio que falhou antes de chegar ao handler)</li>
+ * </ul>
+ * Com o executor de saída cheio o Spring não descarta a mensagem: a tarefa roda na própria thread
+ * que enviou, o que segura o broker em vez de perder o frame.
+ */
+@Slf4j
+@Component
+public class WebSocketSessionRegistry implements ExecutorChannelInterceptor {
+
+    static final String METRICA_SESSOES = "websocket.sessions.active";
+    static final String METRICA_EVICTED = "websocket.sessions.evicted";
+    static final String METRICA_ASSINATURAS = "websocket.subscriptions";
+    static final String METRICA_FILA_SAIDA = "websocket.outbound.queue";
+    static final String METRICA_DESCARTADAS = "websocket.outbound.dropped";
+
+    /** Acima disso os destinos novos caem em {@link #OUTROS}; o destino vem do cliente. */
+    static final int MAX_PADROES = 100;
+    static final String OUTROS = "outros";
+
+    private static final Pattern SEGMENTO_NUMERICO = Pattern.compile("\\.\\d+(?=\\.|$)");
+
+    private final MeterRegistry meterRegistry;
+    /** sessionId → (id da assinatura → padrão do destino). */
+    private final Map<String, Map<String, String>> sessoes = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> assinaturas = new ConcurrentHashMap<>();
+    /**
+     * Mensagens aceitas no canal de saída e ainda não entregues ao handler, por identidade: as do
+     * broker saem com cabeçalhos mutáveis e sem id.
+     */
+    private final Set<NaFila> filaSaida = ConcurrentHashMap.newKeySet();
+    private final Counter evicted;
+    private final Counter sessaoFechada;
+    private final Counter rejeitadas;
+
+    public WebSocketSessionRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder(METRICA_SESSOES, sessoes, Map::size)
+                .description("Sessões STOMP abertas")
+                .register(meterRegistry);
+        Gauge.builder(METRICA_FILA_SAIDA, filaSaida, Set::size)
+                .description("Mensagens no canal de saída aguardando escrita nas sessões")
+                .register(meterRegistry);
+        this.evicted = Counter.builder(METRICA_EVICTED)
+                .description("Sessões encerradas por exceder o tempo de envio ou o buffer de saída")
+                .register(meterRegistry);
+        this.sessaoFechada = descartadas(meterRegistry, "session_closed");
+        this.rejeitadas = descartadas(meterRegistry, "rejected");
+    }
+
+    /** CONNECT recebido: registra antes do CONNECTED passar pelo canal de saída. */
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            sessoes.putIfAbsent(sessionId, new ConcurrentHashMap<>());
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        var headers = event.getMessage().getHeaders();
+        String destino = SimpMessageHeaderAccessor.getDestination(headers);
+        String assinatura = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+        Map<String, String> daSessao = sessoes.get(SimpMessageHeaderAccessor.getSessionId(headers));
+        if (daSessao == null || destino == null || assinatura == null || !destino.startsWith("/topic/")) {
+            return;
+        }
+        String padrao = padrao(destino);
+        if (daSessao.putIfAbsent(assinatura, padrao) == null) {
+            contador(padrao).incrementAndGet();
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        var headers = event.getMessage().getHeaders();
+        Map<String, String> daSessao = sessoes.get(SimpMessageHeaderAccessor.getSessionId(headers));
+        String assinatura = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+        if (daSessao != null && assinatura != null) {
+            String padrao = daSessao.remove(assinatura);
+            if (padrao != null) {
+                contador(padrao).decrementAndGet();
+            }
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> daSessao = sessoes.remove(event.getSessionId());
+        if (daSessao == null) {
+            return;
+        }
+        daSessao.values().forEach(padrao -> contador(padrao).decrementAndGet());
+        if (CloseStatus.SESSION_NOT_RELIABLE.equals(event.getCloseStatus())) {
+            evicted.increment();
+            log.warn("Sessão WebSocket {} encerrada por lentidão (limite de tempo de envio ou de buffer)",
+                    event.getSessionId());
+        }
+    }
+
+    /** Mensagens para sessões já fechadas não chegam a ocupar o executor de saída. */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        var headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) == SimpMessageType.MESSAGE) {
+            String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+            if (sessionId != null && !sessoes.containsKey(sessionId)) {
+                sessaoFechada.increment();
+                return null;
+            }
+        }
+        filaSaida.add(new NaFila(message));
+        return message;
+    }
+
+    /**
+     * Cada mensagem sai da fila uma única vez: quem remove o id primeiro é quem conta. Um envio que
+     * falha depois de entregue ao handler (executado na thread de quem enviou) já saiu da fila.
+     */
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (ex != null && sairDaFila(message)) {
+            rejeitadas.increment();
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        sairDaFila(message);
+    }
+
+    private boolean sairDaFila(Message<?> message) {
+        return filaSaida.remove(new NaFila(message));
+    }
+
+    int sessoesAtivas() {
+        return sessoes.size();
+    }
+
+    Set<String> padroes() {
+        return assinaturas.keySet();
+    }
+
+    private AtomicInteger contador(String padrao) {
+        return assinaturas.computeIfAbsent(padrao, p -> {
+            AtomicInteger contador = new AtomicInteger();
+            Gauge.builder(METRICA_ASSINATURAS, contador, AtomicInteger::get)
+                    .description("Assinaturas STOMP ativas por padrão de destino")
+                    .tag("destination", p)
+                    .register(meterRegistry);
+            return contador;
+        });
+    }
+
+    private String padrao(String destino) {
+        String padrao = SEGMENTO_NUMERICO.matcher(destino).replaceAll(".{id}");
+        return assinaturas.containsKey(padrao) || assinaturas.size() < MAX_PADROES ? padrao : OUTROS;
+    }
+
+    private record NaFila(Message<?> message) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof NaFila outra && outra.message == message;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(message);
+        }
+    }
+
+    private static Counter descartadas(MeterRegistry meterRegistry, String motivo) {
+        return Counter.builder(METRICA_DESCARTADAS)
+                .description("Mensagens para clientes WebSocket descartadas antes da escrita")
+                .tag("reason", motivo)
+                .register(meterRegistry);
+    }
+}
@@ -1,10 +1,13 @@
 package com.album.seplag.controller;
 
+import java.io.IOException;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,22 +21,29 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.album.seplag.config.RateLimited;
 import com.album.seplag.dto.AlbumCreateDTO;
 import com.album.seplag.dto.AlbumDTO;
 import com.album.seplag.dto.AlbumUpdateDTO;
 import com.album.seplag.dto.CapaAlbumDTO;
 import com.album.seplag.dto.PageResponseDTO;
 import com.album.seplag.dto.PresignedUrlResponse;
+import com.album.seplag.dto.UploadSessaoCreateDTO;
+import com.album.seplag.dto.UploadSessaoDTO;
+import com.album.seplag.enums.RateLimitTier;
 import com.album.seplag.enums.SortDirection;
 import com.album.seplag.service.AlbumService;
 import com.album.seplag.service.MinIOService;
+import com.album.seplag.service.UploadSessaoService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -43,10 +53,17 @@ public class AlbumController {
 
     private final AlbumService albumService;
     private final MinIOService minIOService;
+    private final UploadSessaoService uploadSessaoService;
+    private final long janelaEtagMs;
 
-    public AlbumController(AlbumService albumService, MinIOService minIOService) {
+    /** A ETag muda a cada metade da validade das URLs pré-assinadas contidas na resposta. */
+    public AlbumController(AlbumService albumService, MinIOService minIOService,
+                           UploadSessaoService uploadSessaoService,
+                           @Value("${minio.presigned-url-expiration}") long presignedUrlExpiration) {
         this.albumService = albumService;
         this.minIOService = minIOService;
+        this.uploadSessaoService = uploadSessaoService;
+        this.janelaEtagMs = presignedUrlExpiration / 2;
     }
 
     @GetMapping
@@ -85,10 +102,14 @@ public class AlbumController {
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Buscar álbum por ID", description = "Retorna detalhes de um álbum")
-    public ResponseEntity<AlbumDTO> findById(@PathVariable Long id) {
+    @Operation(summary = "Buscar álbum por ID", description = "Retorna detalhes de um álbum; com If-None-Match responde 304 se não mudou")
+    public ResponseEntity<AlbumDTO> findById(@PathVariable Long id, WebRequest request) {
+        String etag = albumService.versao(id).etag("album-" + id, janelaEtagMs, System.currentTimeMillis());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
         AlbumDTO album = albumService.findById(id);
-        return ResponseEntity.ok(album);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(album);
     }
 
     @PostMapping
@@ -123,6 +144,53 @@ public class AlbumController {
         return ResponseEntity.status(HttpStatus.CREATED).body(capas);
     }
 
+    @PostMapping(value = "/{id}/capa/uploads", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Iniciar upload resumível", description = "Cria uma sessão de upload em partes para capas grandes. "
+            + "Envie as partes com PUT usando offset múltiplo de tamanhoParte e depois conclua a sessão")
+    public ResponseEntity<UploadSessaoDTO> criarUploadSessao(
+            @PathVariable Long id,
+            @Valid @RequestBody UploadSessaoCreateDTO dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(uploadSessaoService.criar(id, dto));
+    }
+
+    @GetMapping("/{id}/capa/uploads/{sessaoId}")
+    @Operation(summary = "Progresso do upload resumível", description = "Retorna as partes já recebidas para retomar o envio")
+    public ResponseEntity<UploadSessaoDTO> progressoUploadSessao(
+            @PathVariable Long id,
+            @PathVariable String sessaoId) {
+        return ResponseEntity.ok(uploadSessaoService.progresso(id, sessaoId));
+    }
+
+    @PutMapping(value = "/{id}/capa/uploads/{sessaoId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @RateLimited(value = RateLimitTier.UPLOAD, porTamanho = false)
+    @Operation(summary = "Enviar parte do upload resumível", description = "Envia os bytes da parte que começa em offset. "
+            + "Reenviar a mesma parte a substitui")
+    public ResponseEntity<UploadSessaoDTO> enviarParteUploadSessao(
+            @PathVariable Long id,
+            @PathVariable String sessaoId,
+            @Parameter(description = "Offset em bytes do início da parte (múltiplo de tamanhoParte)", required = true)
+            @RequestParam long offset,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(uploadSessaoService.enviarParte(id, sessaoId, offset, request.getInputStream()));
+    }
+
+    @PostMapping("/{id}/capa/uploads/{sessaoId}/concluir")
+    @Operation(summary = "Concluir upload resumível", description = "Monta o arquivo a partir das partes e registra a capa")
+    public ResponseEntity<CapaAlbumDTO> concluirUploadSessao(
+            @PathVariable Long id,
+            @PathVariable String sessaoId) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(albumService.concluirUploadCapa(id, sessaoId));
+    }
+
+    @DeleteMapping("/{id}/capa/uploads/{sessaoId}")
+    @Operation(summary = "Cancelar upload resumível", description = "Aborta a sessão e descarta as partes enviadas")
+    public ResponseEntity<Void> abortarUploadSessao(
+            @PathVariable Long id,
+            @PathVariable String sessaoId) {
+        uploadSessaoService.abortar(id, sessaoId);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{albumId}/capa/{capaId}")
     @Operation(summary = "Excluir capa", description = "Remove uma capa do álbum")
     public ResponseEntity<Void> deleteCapa(
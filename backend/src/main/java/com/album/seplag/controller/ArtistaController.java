@@ -1,8 +1,10 @@
 package com.album.seplag.controller;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.album.seplag.dto.ArtistaCreateDTO;
@@ -42,10 +45,14 @@ public class ArtistaController {
 
     private final ArtistaService artistaService;
     private final MinIOService minIOService;
+    private final long janelaEtagMs;
 
-    public ArtistaController(ArtistaService artistaService, MinIOService minIOService) {
+    /** A ETag muda a cada metade da validade das URLs pré-assinadas contidas na resposta. */
+    public ArtistaController(ArtistaService artistaService, MinIOService minIOService,
+                             @Value("${minio.presigned-url-expiration}") long presignedUrlExpiration) {
         this.artistaService = artistaService;
         this.minIOService = minIOService;
+        this.janelaEtagMs = presignedUrlExpiration / 2;
     }
 
     @GetMapping
@@ -70,10 +77,14 @@ public class ArtistaController {
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Buscar artista por ID", description = "Retorna detalhes de um artista")
-    public ResponseEntity<ArtistaDTO> findById(@PathVariable Long id) {
+    @Operation(summary = "Buscar artista por ID", description = "Retorna detalhes de um artista; com If-None-Match responde 304 se não mudou")
+    public ResponseEntity<ArtistaDTO> findById(@PathVariable Long id, WebRequest request) {
+        String etag = artistaService.versao(id).etag("artista-" + id, janelaEtagMs, System.currentTimeMillis());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
         ArtistaDTO artista = artistaService.findById(id);
-        return ResponseEntity.ok(artista);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(artista);
     }
 
     @PostMapping
@@ -3,6 +3,7 @@ package com.album.seplag.controller;
 import com.album.seplag.dto.ErrorResponse;
 import com.album.seplag.dto.LoginRequest;
 import com.album.seplag.dto.LoginResponse;
+import com.album.seplag.dto.LogoutRequest;
 import com.album.seplag.dto.UsuarioRegisterDTO;
 import com.album.seplag.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +13,7 @@ import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
@@ -67,8 +69,20 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    @Operation(summary = "Logout", description = "Invalida o token atual. O cliente deve descartar os tokens localmente.")
-    public ResponseEntity<Map<String, String>> logout() {
+    @Operation(summary = "Logout", description = "Revoga o access token atual e, se enviado no corpo, o refresh token.")
+    public ResponseEntity<Map<String, String>> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                                      @RequestBody(required = false) LogoutRequest request) {
+        // Com Bearer, o filtro JWT já validou o token para a requisição chegar aqui
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            authService.logout(authHeader.substring(7).trim(), request != null ? request.refreshToken() : null);
+        }
         return ResponseEntity.ok(Map.of("message", "Logout realizado com sucesso"));
     }
+
+    @PostMapping("/logout-all")
+    @Operation(summary = "Logout de todas as sessões", description = "Revoga todos os tokens emitidos até agora para o usuário autenticado")
+    public ResponseEntity<Map<String, String>> logoutAll(Authentication authentication) {
+        authService.logoutTodos(authentication.getName());
+        return ResponseEntity.ok(Map.of("message", "Todas as sessões foram encerradas"));
+    }
 }
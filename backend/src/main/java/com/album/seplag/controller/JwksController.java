@@ -0,0 +1,33 @@
+package com.album.seplag.controller;
+
+import com.album.seplag.config.JwtKeys;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@Tag(name = "Autenticação", description = "Endpoints de autenticação (login, registro, refresh, logout)")
+public class JwksController {
+
+    private final JwtKeys jwtKeys;
+
+    public JwksController(JwtKeys jwtKeys) {
+        this.jwtKeys = jwtKeys;
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "JWK Set", description = "Chaves públicas para verificação dos JWT emitidos pela API (escolhidas pelo header kid)")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        // Curto o bastante para que verificadores externos vejam uma chave nova antes de ela assinar tokens
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(jwtKeys.jwks());
+    }
+}
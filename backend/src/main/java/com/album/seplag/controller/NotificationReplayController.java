@@ -0,0 +1,30 @@
+package com.album.seplag.controller;
+
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import com.album.seplag.dto.NotificationReplayDTO;
+import com.album.seplag.service.NotificationReplayBuffer;
+
+/**
+ * Replay de notificações via STOMP. Ao (re)conectar o cliente assina {@code /app/replay} com os
+ * headers {@code destino} (ex.: {@code /topic/albuns}), {@code since} (último seq visto) e
+ * {@code epoch}; a resposta vem uma única vez, só para essa sessão, sem passar pelo broker.
+ */
+@Controller
+public class NotificationReplayController {
+
+    private final NotificationReplayBuffer replayBuffer;
+
+    public NotificationReplayController(NotificationReplayBuffer replayBuffer) {
+        this.replayBuffer = replayBuffer;
+    }
+
+    @SubscribeMapping("/replay")
+    public NotificationReplayDTO replay(@Header("destino") String destino,
+                                        @Header(name = "since", required = false) Long since,
+                                        @Header(name = "epoch", required = false) String epoch) {
+        return replayBuffer.desde(destino, since, epoch);
+    }
+}
@@ -0,0 +1,47 @@
+package com.album.seplag.controller;
+
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.album.seplag.service.NotificationStreamService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("${app.api.base}/notificacoes")
+@Tag(name = "Notificações", description = "Stream de notificações de álbuns e artistas")
+public class NotificationStreamController {
+
+    private static final List<String> DESTINOS_PADRAO = List.of("/topic/albuns", "/topic/artistas");
+
+    private final NotificationStreamService streamService;
+
+    public NotificationStreamController(NotificationStreamService streamService) {
+        this.streamService = streamService;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream de notificações (SSE)",
+            description = "Mesmos eventos do WebSocket em text/event-stream; reconexões com Last-Event-ID recebem o que foi perdido")
+    public SseEmitter stream(
+            @Parameter(description = "Tópicos a acompanhar, ex.: /topic/albuns.10 (padrão: /topic/albuns e /topic/artistas)")
+            @RequestParam(name = "destino", required = false) List<String> destinos,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletResponse response) {
+        // Sem isso o nginx acumula o stream no buffer do proxy e os eventos chegam atrasados
+        response.setHeader("X-Accel-Buffering", "no");
+        List<String> validos = destinos == null ? List.of()
+                : destinos.stream().filter(d -> d.startsWith("/topic/")).distinct().toList();
+        return streamService.abrir(validos.isEmpty() ? DESTINOS_PADRAO : validos, lastEventId);
+    }
+}
@@ -1,6 +1,8 @@
 package com.album.seplag.controller;
 
+import com.album.seplag.config.RateLimited;
 import com.album.seplag.dto.RegionalDTO;
+import com.album.seplag.enums.RateLimitTier;
 import com.album.seplag.service.RegionalService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -29,6 +31,7 @@ public class RegionalController {
     }
 
     @PostMapping("/sincronizar")
+    @RateLimited(RateLimitTier.EXPORT)
     @Operation(summary = "Sincronizar regionais", description = "Força sincronização com API externa")
     public ResponseEntity<String> sincronizar() {
         regionalService.sincronizarRegionais();
@@ -27,6 +27,7 @@ import com.album.seplag.dto.UsuarioCreateDTO;
 import com.album.seplag.dto.UsuarioDTO;
 import com.album.seplag.dto.UsuarioUpdateDTO;
 import com.album.seplag.enums.SortDirection;
+import com.album.seplag.service.TokenRevocationService;
 import com.album.seplag.service.UsuarioService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -40,9 +41,11 @@ import jakarta.validation.Valid;
 public class UsuarioController {
 
     private final UsuarioService usuarioService;
+    private final TokenRevocationService tokenRevocationService;
 
-    public UsuarioController(UsuarioService usuarioService) {
+    public UsuarioController(UsuarioService usuarioService, TokenRevocationService tokenRevocationService) {
         this.usuarioService = usuarioService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @GetMapping("/me")
@@ -139,6 +142,15 @@ public class UsuarioController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/{id}/revogar-tokens")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Operation(summary = "Revogar tokens do usuário", description = "Invalida todos os tokens já emitidos para o usuário (apenas ADMIN)")
+    public ResponseEntity<Void> revogarTokens(@PathVariable Long id) {
+        UsuarioDTO usuario = usuarioService.findById(id);
+        tokenRevocationService.revogarTodos(usuario.username());
+        return ResponseEntity.noContent().build();
+    }
+
     private String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -1,11 +1,12 @@
 package com.album.seplag.controller;
 
 import com.album.seplag.dto.NotificationDTO;
+import com.album.seplag.service.NotificationEvent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -24,10 +25,10 @@ import java.util.Map;
 @Tag(name = "Teste", description = "Endpoints de teste (apenas perfil dev)")
 public class WebSocketTestController {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public WebSocketTestController(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public WebSocketTestController(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
     }
 
     @PostMapping("/websocket")
@@ -39,7 +40,7 @@ public class WebSocketTestController {
                 Instant.now(),
                 Map.of("source", "WebSocketTestController")
         );
-        messagingTemplate.convertAndSend("/topic/albuns", notification);
+        eventPublisher.publishEvent(new NotificationEvent("/topic/albuns", notification));
         return ResponseEntity.ok(Map.of(
                 "message", "Notificação de teste enviada para /topic/albuns",
                 "timestamp", Instant.now().toString()
@@ -13,6 +13,14 @@ public record CapaAlbumDTO(
     String nomeArquivo,
     String contentType,
     Long tamanho,
+    @Schema(description = "Largura da imagem em pixels")
+    Integer largura,
+    @Schema(description = "Altura da imagem em pixels")
+    Integer altura,
+    @Schema(description = "Cor dominante em hexadecimal", example = "#1a2b3c")
+    String corDominante,
+    @Schema(description = "BlurHash para placeholder enquanto a imagem carrega")
+    String blurhash,
     @Schema(description = "Data/hora do upload em ISO-8601 (UTC)", example = "2026-02-04T12:00:00Z")
     Instant dataUpload,
     String presignedUrl
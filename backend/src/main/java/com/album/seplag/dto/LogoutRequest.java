@@ -0,0 +1,8 @@
+package com.album.seplag.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Refresh token a ser revogado junto com o access token do header (opcional)")
+public record LogoutRequest(
+    String refreshToken
+) {}
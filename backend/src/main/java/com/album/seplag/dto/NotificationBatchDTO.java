@@ -0,0 +1,19 @@
+package com.album.seplag.dto;
+
+import java.util.List;
+
+/**
+ * Frame com várias notificações de uma janela de coalescência, enviado em {@code /topic/lote.<destino>}.
+ * Os eventos estão na ordem em que ocorreram e têm o mesmo formato de {@link NotificationDTO}.
+ */
+public record NotificationBatchDTO(
+        String type,
+        String timestamp,
+        List<NotificationDTO> events
+) {
+    public static final String TYPE = "BATCH";
+
+    public NotificationBatchDTO(String timestamp, List<NotificationDTO> events) {
+        this(TYPE, timestamp, events);
+    }
+}
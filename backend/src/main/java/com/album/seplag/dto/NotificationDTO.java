@@ -1,18 +1,42 @@
 package com.album.seplag.dto;
 
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * DTO para mensagens de notificação via WebSocket.
  * Compatível com o formato esperado pelo frontend (NotificationMessage).
+ * <p>
+ * Eventos de domínio usam o formato compacto de {@link #delta}: {@code id} da entidade,
+ * {@code version} ({@code updatedAt}) e em {@code changes} apenas os campos escalares alterados.
+ * Os detalhes completos são buscados pelo cliente na API, com ETag, quando necessário.
+ * {@code data} fica para notificações avulsas (ex.: teste).
+ * <p>
+ * {@code seq} é atribuído no envio pelo {@code NotificationReplayBuffer}: crescente por instância,
+ * permite ao cliente pedir só o que perdeu ao reconectar. {@code epoch} identifica a instância que
+ * numerou; com o relay STOMP chegam frames de várias réplicas e os {@code seq} só são comparáveis
+ * dentro do mesmo epoch. O mesmo evento vai para o tópico global e para os tópicos por entidade com
+ * {@code seq} diferentes; para deduplicar entre tópicos use {@code id} + {@code version}.
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record NotificationDTO(
         String type,
         String message,
         String timestamp,
-        Map<String, Object> data
+        Long id,
+        String version,
+        Map<String, Object> changes,
+        Map<String, Object> data,
+        String epoch,
+        Long seq
 ) {
+    public NotificationDTO(String type, String message, String timestamp, Map<String, Object> data) {
+        this(type, message, timestamp, null, null, null, data, null, null);
+    }
+
     public NotificationDTO(String type, String message, Instant timestamp, Object data) {
         this(
                 type,
@@ -34,4 +58,18 @@ public record NotificationDTO(
                 data
         );
     }
+
+    public static NotificationDTO delta(String type, String message, Long id, LocalDateTime version,
+                                        Map<String, Object> changes) {
+        return new NotificationDTO(type, message, Instant.now().toString(), id,
+                version != null ? version.toString() : null, changes, null, null, null);
+    }
+
+    public NotificationDTO comAlteracoes(String type, Map<String, Object> changes) {
+        return new NotificationDTO(type, message, timestamp, id, version, changes, data, epoch, seq);
+    }
+
+    public NotificationDTO comSeq(String epoch, long seq) {
+        return new NotificationDTO(type, message, timestamp, id, version, changes, data, epoch, seq);
+    }
 }
@@ -0,0 +1,25 @@
+package com.album.seplag.dto;
+
+import java.util.List;
+
+/**
+ * Resposta à assinatura de {@code /app/replay}: as notificações de um destino com {@code seq} maior
+ * que o informado pelo cliente, ou {@code resync = true} quando elas já saíram do buffer (ou o
+ * cliente veio de outra instância/reinício, {@code epoch} diferente) e a lista precisa ser
+ * recarregada pela API.
+ */
+public record NotificationReplayDTO(
+        String type,
+        String destino,
+        String epoch,
+        long ultimaSeq,
+        boolean resync,
+        List<NotificationDTO> events
+) {
+    public static final String TYPE = "REPLAY";
+
+    public NotificationReplayDTO(String destino, String epoch, long ultimaSeq, boolean resync,
+                                 List<NotificationDTO> events) {
+        this(TYPE, destino, epoch, ultimaSeq, resync, events);
+    }
+}
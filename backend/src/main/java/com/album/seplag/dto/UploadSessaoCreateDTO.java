@@ -0,0 +1,22 @@
+package com.album.seplag.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO para abertura de sessão de upload resumível de capa.
+ */
+public record UploadSessaoCreateDTO(
+    @NotBlank(message = "Nome do arquivo é obrigatório")
+    @Size(max = 255, message = "Nome do arquivo deve ter no máximo 255 caracteres")
+    String nomeArquivo,
+
+    @Size(max = 100)
+    String contentType,
+
+    @NotNull(message = "Tamanho é obrigatório")
+    @Positive(message = "Tamanho deve ser maior que zero")
+    Long tamanho
+) {}
@@ -0,0 +1,26 @@
+package com.album.seplag.dto;
+
+import com.album.seplag.enums.StatusUploadSessao;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progresso de uma sessão de upload resumível.
+ * O cliente envia as partes faltantes (offset = (numero - 1) * tamanhoParte) e depois conclui.
+ */
+public record UploadSessaoDTO(
+    String id,
+    Long albumId,
+    StatusUploadSessao status,
+    Long tamanhoTotal,
+    @Schema(description = "Tamanho de cada parte em bytes (a última pode ser menor)")
+    Integer tamanhoParte,
+    Long bytesRecebidos,
+    Integer totalPartes,
+    @Schema(description = "Números das partes já recebidas (1..totalPartes)")
+    List<Integer> partesRecebidas,
+    @Schema(description = "Expiração da sessão em ISO-8601 (UTC); renovada a cada parte recebida")
+    Instant expiraEm
+) {}
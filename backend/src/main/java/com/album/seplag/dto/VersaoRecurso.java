@@ -0,0 +1,37 @@
+package com.album.seplag.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versão de um recurso para ETag, obtida numa única consulta agregada: {@code updatedAt} da
+ * entidade mais a contagem e o maior id dos filhos (capas do álbum, álbuns do artista), que não
+ * alteram o {@code updatedAt} do pai.
+ */
+public record VersaoRecurso(LocalDateTime atualizadoEm, long filhos, Long ultimoFilho) {
+
+    /**
+     * Para recursos cuja representação inclui dados de outras entidades (nome do artista,
+     * metadados das capas): {@code atualizadoEm} é o mais recente entre os informados.
+     */
+    public VersaoRecurso(LocalDateTime atualizadoEm, LocalDateTime relacionadoEm, LocalDateTime filhosEm,
+                         long filhos, Long ultimoFilho) {
+        this(maisRecente(maisRecente(atualizadoEm, relacionadoEm), filhosEm), filhos, ultimoFilho);
+    }
+
+    /**
+     * ETag fraca. {@code janelaMs} divide o tempo em faixas para que a resposta revalidada nunca
+     * carregue URLs pré-assinadas vencidas: com metade da validade das URLs, uma 304 só é dada
+     * enquanto as URLs em cache do cliente ainda valem.
+     */
+    public String etag(String prefixo, long janelaMs, long agoraMs) {
+        long faixa = janelaMs > 0 ? agoraMs / janelaMs : 0;
+        return "W/\"" + prefixo + "-" + atualizadoEm + "-" + filhos + "-" + ultimoFilho + "-" + faixa + "\"";
+    }
+
+    private static LocalDateTime maisRecente(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b != null && b.isAfter(a) ? b : a;
+    }
+}
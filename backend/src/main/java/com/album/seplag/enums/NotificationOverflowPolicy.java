@@ -0,0 +1,14 @@
+package com.album.seplag.enums;
+
+/**
+ * O que fazer quando a fila de envio de notificações WebSocket está cheia
+ * ({@code websocket.notifications.overflow-policy}).
+ */
+public enum NotificationOverflowPolicy {
+    /** Descarta a notificação nova. */
+    DROP_NEWEST,
+    /** Descarta a notificação mais antiga da fila para abrir espaço para a nova. */
+    DROP_OLDEST,
+    /** Segura quem publicou até {@code offer-timeout-ms}; depois disso descarta a nova. */
+    BLOCK
+}
@@ -0,0 +1,16 @@
+package com.album.seplag.enums;
+
+/**
+ * Faixas de rate limit por rota; cada uma tem bucket, capacidade e custo próprios
+ * ({@code rate-limit.tiers.*}).
+ */
+public enum RateLimitTier {
+    /** Consultas (GET/HEAD). */
+    READ,
+    /** Criação, alteração e remoção. */
+    WRITE,
+    /** Envio de arquivos (multipart ou octet-stream); custo proporcional ao tamanho. */
+    UPLOAD,
+    /** Operações em lote/exportação, marcadas com {@code @RateLimited(EXPORT)}. */
+    EXPORT
+}
@@ -0,0 +1,9 @@
+package com.album.seplag.enums;
+
+/**
+ * Status de uma sessão de upload resumível.
+ */
+public enum StatusUploadSessao {
+    EM_ANDAMENTO,
+    CONCLUIDA
+}
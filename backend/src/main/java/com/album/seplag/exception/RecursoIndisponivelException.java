@@ -0,0 +1,9 @@
+package com.album.seplag.exception;
+
+/** Funcionalidade que o modo de implantação atual não oferece; responde 501. */
+public class RecursoIndisponivelException extends RuntimeException {
+
+    public RecursoIndisponivelException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.album.seplag.exception;
+
+public class ServicoSobrecarregadoException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServicoSobrecarregadoException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,38 @@
+package com.album.seplag.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import com.album.seplag.service.MinIOBucketInitializer;
+
+/**
+ * Health do storage (nome "minio"). Incluído no grupo readiness:
+ * o pod só recebe tráfego depois que o bucket é confirmado.
+ * Não consulta o MinIO a cada probe; reflete o estado do MinIOBucketInitializer.
+ */
+@Component("minioHealthIndicator")
+public class MinIOHealthIndicator implements HealthIndicator {
+
+    private final MinIOBucketInitializer bucketInitializer;
+
+    public MinIOHealthIndicator(MinIOBucketInitializer bucketInitializer) {
+        this.bucketInitializer = bucketInitializer;
+    }
+
+    @Override
+    public Health health() {
+        if (bucketInitializer.isReady()) {
+            return Health.up()
+                    .withDetail("bucket", bucketInitializer.getBucketName())
+                    .build();
+        }
+        Health.Builder builder = Health.down()
+                .withDetail("bucket", bucketInitializer.getBucketName())
+                .withDetail("tentativas", bucketInitializer.getTentativas());
+        if (bucketInitializer.getUltimoErro() != null) {
+            builder.withDetail("erro", bucketInitializer.getUltimoErro());
+        }
+        return builder.build();
+    }
+}
@@ -31,12 +31,36 @@ public class CapaAlbum {
     @Column(name = "tamanho")
     private Long tamanho;
 
+    @Column(name = "largura")
+    private Integer largura;
+
+    @Column(name = "altura")
+    private Integer altura;
+
+    @Column(name = "cor_dominante", length = 7)
+    private String corDominante;
+
+    @Column(name = "blurhash", length = 64)
+    private String blurhash;
+
+    @Column(name = "metadados_tentativas", nullable = false)
+    private int metadadosTentativas;
+
     @Column(name = "data_upload", nullable = false, updatable = false)
     private LocalDateTime dataUpload;
 
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     @PrePersist
     protected void onCreate() {
         dataUpload = LocalDateTime.now();
+        updatedAt = dataUpload;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
     }
 }
 
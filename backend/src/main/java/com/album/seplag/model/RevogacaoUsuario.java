@@ -0,0 +1,26 @@
+package com.album.seplag.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revogacoes_usuario")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevogacaoUsuario {
+
+    @Id
+    @Column(length = 50)
+    private String username;
+
+    @Column(name = "revogado_antes", nullable = false)
+    private LocalDateTime revogadoAntes;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+}
@@ -0,0 +1,29 @@
+package com.album.seplag.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "tokens_revogados")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevogado {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    @Column(name = "revogado_em", nullable = false)
+    private LocalDateTime revogadoEm;
+}
@@ -0,0 +1,20 @@
+package com.album.seplag.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadParte {
+
+    @Column(name = "etag", nullable = false, length = 255)
+    private String etag;
+
+    @Column(name = "tamanho", nullable = false)
+    private Long tamanho;
+}
@@ -0,0 +1,78 @@
+package com.album.seplag.model;
+
+import com.album.seplag.enums.StatusUploadSessao;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Entity
+@Table(name = "upload_sessoes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessao {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "album_id", nullable = false)
+    private Long albumId;
+
+    @Column(name = "nome_arquivo", nullable = false, length = 500)
+    private String nomeArquivo;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "tamanho_total", nullable = false)
+    private Long tamanhoTotal;
+
+    @Column(name = "tamanho_parte", nullable = false)
+    private Integer tamanhoParte;
+
+    @Column(name = "upload_id", nullable = false, length = 255)
+    private String uploadId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatusUploadSessao status = StatusUploadSessao.EM_ANDAMENTO;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "upload_sessao_partes", joinColumns = @JoinColumn(name = "sessao_id"))
+    @MapKeyColumn(name = "numero")
+    private Map<Integer, UploadParte> partes = new HashMap<>();
+
+    public long getBytesRecebidos() {
+        return partes.values().stream().mapToLong(UploadParte::getTamanho).sum();
+    }
+
+    public int getTotalPartes() {
+        return (int) ((tamanhoTotal + tamanhoParte - 1) / tamanhoParte);
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
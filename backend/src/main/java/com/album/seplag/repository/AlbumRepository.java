@@ -1,5 +1,6 @@
 package com.album.seplag.repository;
 
+import com.album.seplag.dto.VersaoRecurso;
 import com.album.seplag.model.Album;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface AlbumRepository extends JpaRepository<Album, Long> {
 
@@ -15,5 +18,10 @@ public interface AlbumRepository extends JpaRepository<Album, Long> {
 
     @Query("SELECT a FROM Album a WHERE a.artista.id = :artistaId")
     Page<Album> findAlbunsByArtistaId(@Param("artistaId") Long artistaId, Pageable pageable);
-}
 
+    /** O DTO do álbum traz o nome do artista e os metadados das capas, então ambos entram na versão. */
+    @Query("SELECT new com.album.seplag.dto.VersaoRecurso(a.updatedAt, ar.updatedAt, MAX(c.updatedAt), COUNT(c), MAX(c.id)) " +
+           "FROM Album a JOIN a.artista ar LEFT JOIN a.capas c WHERE a.id = :id " +
+           "GROUP BY a.id, a.updatedAt, ar.updatedAt")
+    Optional<VersaoRecurso> findVersaoById(@Param("id") Long id);
+}
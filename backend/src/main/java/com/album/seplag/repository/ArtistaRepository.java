@@ -1,5 +1,6 @@
 package com.album.seplag.repository;
 
+import com.album.seplag.dto.VersaoRecurso;
 import com.album.seplag.enums.TipoArtista;
 import com.album.seplag.model.Artista;
 import org.springframework.data.domain.Page;
@@ -9,6 +10,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface ArtistaRepository extends JpaRepository<Artista, Long> {
 
@@ -24,5 +27,8 @@ public interface ArtistaRepository extends JpaRepository<Artista, Long> {
             Pageable pageable);
 
     Page<Artista> findAll(Pageable pageable);
-}
 
+    @Query("SELECT new com.album.seplag.dto.VersaoRecurso(a.updatedAt, COUNT(al), MAX(al.id)) " +
+           "FROM Artista a LEFT JOIN a.albuns al WHERE a.id = :id GROUP BY a.id, a.updatedAt")
+    Optional<VersaoRecurso> findVersaoById(@Param("id") Long id);
+}
@@ -1,13 +1,35 @@
 package com.album.seplag.repository;
 
 import com.album.seplag.model.CapaAlbum;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Repository
 public interface CapaAlbumRepository extends JpaRepository<CapaAlbum, Long> {
     List<CapaAlbum> findByAlbumId(Long albumId);
-}
 
+    List<CapaAlbum> findByLarguraIsNullAndMetadadosTentativasLessThanAndIdGreaterThanOrderByIdAsc(
+            int maxTentativas, Long id, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CapaAlbum c SET c.largura = :largura, c.altura = :altura, c.corDominante = :corDominante, " +
+            "c.blurhash = :blurhash, c.updatedAt = CURRENT_TIMESTAMP WHERE c.id = :id")
+    int atualizarMetadados(@Param("id") Long id,
+                           @Param("largura") Integer largura,
+                           @Param("altura") Integer altura,
+                           @Param("corDominante") String corDominante,
+                           @Param("blurhash") String blurhash);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CapaAlbum c SET c.metadadosTentativas = c.metadadosTentativas + 1 WHERE c.id = :id")
+    int registrarFalhaMetadados(@Param("id") Long id);
+}
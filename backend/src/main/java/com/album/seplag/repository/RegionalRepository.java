@@ -2,12 +2,30 @@ package com.album.seplag.repository;
 
 import com.album.seplag.model.Regional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 
 @Repository
 public interface RegionalRepository extends JpaRepository<Regional, Long> {
-    Optional<Regional> findByNome(String nome);
-}
+    /**
+     * Insere as regionais novas em um único comando. Um nome gravado por outra instância
+     * no meio da sincronização é ignorado pelo índice único.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO regionais (nome, ativo, data_sincronizacao) " +
+            "SELECT unnest(CAST(ARRAY[:nomes] AS VARCHAR[])), TRUE, CURRENT_TIMESTAMP " +
+            "ON CONFLICT (nome) DO NOTHING",
+            nativeQuery = true)
+    int inserirNovas(@Param("nomes") Collection<String> nomes);
 
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Regional r SET r.ativo = :ativo, r.dataSincronizacao = :agora WHERE r.id IN :ids")
+    int atualizarAtivo(@Param("ids") Collection<Long> ids,
+                       @Param("ativo") boolean ativo,
+                       @Param("agora") LocalDateTime agora);
+}
@@ -0,0 +1,27 @@
+package com.album.seplag.repository;
+
+import com.album.seplag.model.RevogacaoUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevogacaoUsuarioRepository extends JpaRepository<RevogacaoUsuario, String> {
+
+    @Query("SELECT r FROM RevogacaoUsuario r WHERE r.revogadoAntes >= :desde AND r.expiraEm > :agora")
+    List<RevogacaoUsuario> findRevogadasDesde(@Param("desde") LocalDateTime desde, @Param("agora") LocalDateTime agora);
+
+    @Query("SELECT r FROM RevogacaoUsuario r WHERE r.expiraEm > :agora")
+    List<RevogacaoUsuario> findValidas(@Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevogacaoUsuario r WHERE r.expiraEm <= :agora")
+    int deleteExpirados(@Param("agora") LocalDateTime agora);
+}
@@ -0,0 +1,27 @@
+package com.album.seplag.repository;
+
+import com.album.seplag.model.TokenRevogado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevogadoRepository extends JpaRepository<TokenRevogado, String> {
+
+    @Query("SELECT t.jti FROM TokenRevogado t WHERE t.revogadoEm >= :desde AND t.expiraEm > :agora")
+    List<String> findJtisRevogadosDesde(@Param("desde") LocalDateTime desde, @Param("agora") LocalDateTime agora);
+
+    @Query("SELECT t.jti FROM TokenRevogado t WHERE t.expiraEm > :agora")
+    List<String> findJtisValidos(@Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevogado t WHERE t.expiraEm <= :agora")
+    int deleteExpirados(@Param("agora") LocalDateTime agora);
+}
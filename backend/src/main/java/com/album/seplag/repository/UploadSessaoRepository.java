@@ -0,0 +1,61 @@
+package com.album.seplag.repository;
+
+import com.album.seplag.enums.StatusUploadSessao;
+import com.album.seplag.model.UploadSessao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessaoRepository extends JpaRepository<UploadSessao, String> {
+    Optional<UploadSessao> findByIdAndAlbumId(String id, Long albumId);
+
+    List<UploadSessao> findByStatusAndExpiraEmBefore(StatusUploadSessao status, LocalDateTime limite);
+
+    List<UploadSessao> findByAlbumIdAndStatus(Long albumId, StatusUploadSessao status);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UploadSessao s WHERE s.status = :status AND s.expiraEm < :limite")
+    int deleteByStatusAndExpiraEmBefore(@Param("status") StatusUploadSessao status,
+                                        @Param("limite") LocalDateTime limite);
+
+    /** Só a primeira conclusão de uma sessão em andamento altera a linha; as demais recebem 0. */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE upload_sessoes SET status = 'CONCLUIDA', updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :sessaoId AND status = 'EM_ANDAMENTO'", nativeQuery = true)
+    int marcarConcluida(@Param("sessaoId") String sessaoId);
+
+    /** Devolve para EM_ANDAMENTO uma sessão reivindicada cuja conclusão no MinIO falhou. */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE upload_sessoes SET status = 'EM_ANDAMENTO', updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = :sessaoId AND status = 'CONCLUIDA'", nativeQuery = true)
+    int reabrir(@Param("sessaoId") String sessaoId);
+
+    /**
+     * Grava (ou substitui, em caso de reenvio) uma parte e renova a expiração da sessão
+     * sem carregar/mesclar a coleção inteira, permitindo partes enviadas em paralelo.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "WITH parte AS (" +
+            "INSERT INTO upload_sessao_partes (sessao_id, numero, etag, tamanho) " +
+            "VALUES (:sessaoId, :numero, :etag, :tamanho) " +
+            "ON CONFLICT (sessao_id, numero) DO UPDATE SET etag = EXCLUDED.etag, tamanho = EXCLUDED.tamanho) " +
+            "UPDATE upload_sessoes SET expira_em = :expiraEm, updated_at = CURRENT_TIMESTAMP WHERE id = :sessaoId",
+            nativeQuery = true)
+    int registrarParte(@Param("sessaoId") String sessaoId,
+                       @Param("numero") int numero,
+                       @Param("etag") String etag,
+                       @Param("tamanho") long tamanho,
+                       @Param("expiraEm") LocalDateTime expiraEm);
+}
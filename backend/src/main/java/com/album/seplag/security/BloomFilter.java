@@ -0,0 +1,80 @@
+package com.album.seplag.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter de strings, thread-safe e sem bloqueio: {@link #talvezContenha(String)} nunca dá
+ * falso negativo e erra para positivo com probabilidade próxima de {@code taxaFalsoPositivo}
+ * enquanto o número de elementos não passar de {@code capacidadeEsperada}.
+ * Não suporta remoção; para descartar elementos, construa um novo filtro.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long totalBits;
+    private final int funcoesHash;
+
+    public BloomFilter(long capacidadeEsperada, double taxaFalsoPositivo) {
+        long n = Math.max(1, capacidadeEsperada);
+        long m = (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.totalBits = Math.max(64, (m + 63) / 64 * 64);
+        this.funcoesHash = Math.max(1, (int) Math.round((double) totalBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (totalBits / 64));
+    }
+
+    public void adicionar(String valor) {
+        long h = hash64(valor);
+        long h1 = fmix64(h);
+        long h2 = fmix64(h ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funcoesHash; i++) {
+            long indice = Math.floorMod(h1 + i * h2, totalBits);
+            int palavra = (int) (indice >>> 6);
+            long mascara = 1L << indice;
+            long atual = bits.get(palavra);
+            while ((atual & mascara) == 0 && !bits.compareAndSet(palavra, atual, atual | mascara)) {
+                atual = bits.get(palavra);
+            }
+        }
+    }
+
+    public boolean talvezContenha(String valor) {
+        long h = hash64(valor);
+        long h1 = fmix64(h);
+        long h2 = fmix64(h ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funcoesHash; i++) {
+            long indice = Math.floorMod(h1 + i * h2, totalBits);
+            if ((bits.get((int) (indice >>> 6)) & (1L << indice)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getTotalBits() {
+        return totalBits;
+    }
+
+    public int getFuncoesHash() {
+        return funcoesHash;
+    }
+
+    /** FNV-1a de 64 bits sobre os chars; a dispersão final fica a cargo do {@link #fmix64(long)}. */
+    private static long hash64(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /** Finalizador do MurmurHash3. */
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb93fe1a85ec5L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
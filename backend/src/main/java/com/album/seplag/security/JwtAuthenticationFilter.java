@@ -14,6 +14,7 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.album.seplag.config.JwtConfig;
+import com.album.seplag.service.TokenRevocationService;
 
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
@@ -27,10 +28,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtConfig jwtConfig;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
-    public JwtAuthenticationFilter(JwtConfig jwtConfig, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtConfig jwtConfig, UserDetailsService userDetailsService,
+                                   TokenRevocationService tokenRevocationService) {
         this.jwtConfig = jwtConfig;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
@@ -39,16 +43,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
+        VerifiedToken verifiedToken = null;
 
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
             try {
-                if (jwtConfig.isRefreshToken(jwtToken)) {
-                    jwtToken = null;
-                } else {
-                    username = jwtConfig.getUsernameFromToken(jwtToken);
+                // Um único parse/verificação por requisição (e cache entre requisições)
+                verifiedToken = jwtConfig.verifyToken(requestTokenHeader.substring(7));
+                if (verifiedToken.refresh()) {
+                    verifiedToken = null;
+                } else if (tokenRevocationService.isRevogado(verifiedToken)) {
+                    // Caso comum resolvido pelo Bloom filter em memória; só possíveis acertos vão ao banco
+                    log.info("Token revogado - username: {}", verifiedToken.username());
+                    verifiedToken = null;
                 }
             } catch (ExpiredJwtException e) {
                 // Token expirado é comportamento esperado, não precisa logar
@@ -58,26 +64,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            List<String> rolesFromToken = jwtConfig.getRolesFromToken(jwtToken);
-
-            if (jwtConfig.validateToken(jwtToken, username)) {
-                List<GrantedAuthority> authorities;
-                Object principal;
-
-                if (!rolesFromToken.isEmpty()) {
-                    authorities = rolesFromToken.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
-                    principal = username;
-                } else {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    authorities = userDetails.getAuthorities().stream().collect(Collectors.toList());
-                    principal = userDetails;
+        if (verifiedToken != null && !verifiedToken.isExpired()
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String username = verifiedToken.username();
+            List<String> rolesFromToken = verifiedToken.roles();
+            List<GrantedAuthority> authorities;
+            Long userId = verifiedToken.userId();
+
+            if (!rolesFromToken.isEmpty()) {
+                authorities = rolesFromToken.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+            } else {
+                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                authorities = userDetails.getAuthorities().stream().collect(Collectors.toList());
+                if (userId == null && userDetails instanceof UsuarioDetails detalhes) {
+                    userId = detalhes.getId();
                 }
-
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(principal, null, authorities);
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
+            UsuarioAutenticado principal = new UsuarioAutenticado(userId, username);
+
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         chain.doFilter(request, response);
@@ -0,0 +1,16 @@
+package com.album.seplag.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal das requisições autenticadas por JWT. O {@code id} vem do claim {@code uid} do access
+ * token (ou do cache de principals), permitindo gravar referências ao usuário sem consultá-lo.
+ * Pode ser nulo em tokens emitidos antes do claim existir.
+ */
+public record UsuarioAutenticado(Long id, String username) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
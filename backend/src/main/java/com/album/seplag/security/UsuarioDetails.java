@@ -0,0 +1,23 @@
+package com.album.seplag.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * {@link User} com o id do usuário, para que login e filtro JWT não precisem de outra consulta.
+ */
+public class UsuarioDetails extends User {
+
+    private final Long id;
+
+    public UsuarioDetails(Long id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
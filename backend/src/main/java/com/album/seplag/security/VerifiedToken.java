@@ -0,0 +1,27 @@
+package com.album.seplag.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Resultado imutável de um JWT já parseado e com assinatura verificada.
+ * Evita que o mesmo token seja parseado várias vezes durante uma requisição.
+ * {@code jti}, {@code issuedAt} e {@code userId} podem ser nulos em tokens emitidos antes desses
+ * claims existirem; refresh tokens não levam {@code userId}.
+ */
+public record VerifiedToken(String username, List<String> roles, boolean refresh, Instant expiresAt,
+                            String jti, Instant issuedAt, Long userId) {
+
+    public VerifiedToken {
+        roles = List.copyOf(roles);
+    }
+
+    public VerifiedToken(String username, List<String> roles, boolean refresh, Instant expiresAt,
+                         String jti, Instant issuedAt) {
+        this(username, roles, refresh, expiresAt, jti, issuedAt, null);
+    }
+
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+}
@@ -5,29 +5,33 @@ import com.album.seplag.dto.AlbumDTO;
 import com.album.seplag.dto.AlbumUpdateDTO;
 import com.album.seplag.dto.CapaAlbumDTO;
 import com.album.seplag.dto.NotificationDTO;
+import com.album.seplag.dto.VersaoRecurso;
 import com.album.seplag.exception.ResourceNotFoundException;
 import com.album.seplag.model.Album;
 import com.album.seplag.model.Artista;
 import com.album.seplag.model.CapaAlbum;
-import com.album.seplag.model.Usuario;
 import com.album.seplag.repository.AlbumRepository;
 import com.album.seplag.repository.ArtistaRepository;
 import com.album.seplag.repository.UsuarioRepository;
+import com.album.seplag.security.UsuarioAutenticado;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -38,16 +42,18 @@ public class AlbumService {
     private final ArtistaRepository artistaRepository;
     private final UsuarioRepository usuarioRepository;
     private final MinIOService minIOService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final UploadSessaoService uploadSessaoService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AlbumService(AlbumRepository albumRepository, ArtistaRepository artistaRepository,
                        UsuarioRepository usuarioRepository, MinIOService minIOService, 
-                       SimpMessagingTemplate messagingTemplate) {
+                       UploadSessaoService uploadSessaoService, ApplicationEventPublisher eventPublisher) {
         this.albumRepository = albumRepository;
         this.artistaRepository = artistaRepository;
         this.usuarioRepository = usuarioRepository;
         this.minIOService = minIOService;
-        this.messagingTemplate = messagingTemplate;
+        this.uploadSessaoService = uploadSessaoService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -67,35 +73,45 @@ public class AlbumService {
         return toDTO(album);
     }
 
+    /**
+     * Grava o álbum com um único INSERT: artista e usuário entram como referências
+     * ({@code getReferenceById}) e o id do usuário vem do principal autenticado. Um artista
+     * inexistente é detectado pela FK {@code fk_album_artista}. A resposta não traz
+     * {@code artistaNome}, que exigiria carregar o artista.
+     */
     @Transactional
     public AlbumDTO create(AlbumCreateDTO dto) {
         log.info("Criando novo álbum: {}", dto.titulo());
         try {
-            Artista artista = artistaRepository.findById(dto.artistaId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Artista não encontrado com id: " + dto.artistaId()));
-            
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            Usuario usuario = usuarioRepository.findByUsername(username)
-                    .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado: " + username));
-            
             Album album = new Album();
             album.setTitulo(dto.titulo());
             album.setDataLancamento(dto.dataLancamento());
-            album.setArtista(artista);
-            album.setUsuario(usuario);
-            Album saved = albumRepository.save(album);
+            album.setArtista(artistaRepository.getReferenceById(dto.artistaId()));
+            album.setUsuario(usuarioRepository.getReferenceById(usuarioAutenticadoId()));
+            Album saved;
+            try {
+                saved = albumRepository.saveAndFlush(album);
+            } catch (DataIntegrityViolationException e) {
+                if (violouConstraint(e, "fk_album_usuario")) {
+                    throw new ResourceNotFoundException("Usuário não encontrado: " + usuarioAutenticadoNome());
+                }
+                if (violouConstraint(e, "fk_album_artista")) {
+                    throw new ResourceNotFoundException("Artista não encontrado com id: " + dto.artistaId());
+                }
+                // Demais violações (NOT NULL, CHECK, tamanho) não são "não encontrado"
+                throw e;
+            }
             
             log.info("Álbum criado com sucesso - ID: {}, Título: {}", saved.getId(), saved.getTitulo());
 
-            AlbumDTO savedDTO = toDTO(saved);
-            NotificationDTO notification = new NotificationDTO(
-                    "ALBUM_CREATED",
-                    "Álbum \"" + saved.getTitulo() + "\" criado",
-                    Instant.now(),
-                    savedDTO
-            );
-            messagingTemplate.convertAndSend("/topic/albuns", notification);
+            AlbumDTO savedDTO = new AlbumDTO(saved.getId(), saved.getTitulo(), dto.artistaId(), null,
+                    saved.getDataLancamento(), saved.getCreatedAt(), List.of());
+            CamposAlterados campos = new CamposAlterados()
+                    .campo("titulo", null, saved.getTitulo())
+                    .campo("dataLancamento", null, saved.getDataLancamento())
+                    .campo("artistaId", null, dto.artistaId());
+            publicar("ALBUM_CREATED", "Álbum \"" + saved.getTitulo() + "\" criado",
+                    saved.getId(), saved.getUpdatedAt(), campos.mapa(), dto.artistaId());
 
             return savedDTO;
         } catch (Exception e) {
@@ -104,26 +120,55 @@ public class AlbumService {
         }
     }
 
+    /**
+     * Id do usuário autenticado sem consultar o banco quando o token traz o claim {@code uid};
+     * tokens antigos caem numa consulta só do id.
+     */
+    private Long usuarioAutenticadoId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof UsuarioAutenticado principal && principal.id() != null) {
+            return principal.id();
+        }
+        String username = authentication.getName();
+        return usuarioRepository.findIdByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado: " + username));
+    }
+
+    private static String usuarioAutenticadoNome() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    private static boolean violouConstraint(DataIntegrityViolationException e, String constraint) {
+        Throwable causa = e.getMostSpecificCause();
+        return causa.getMessage() != null && causa.getMessage().toLowerCase().contains(constraint);
+    }
+
+    /**
+     * A notificação leva só os campos alterados e a nova versão; sem alteração nada é publicado.
+     * O flush é feito aqui para que o {@code @PreUpdate} defina o {@code updatedAt} publicado.
+     */
     @Transactional
     public AlbumDTO update(Long id, AlbumUpdateDTO dto) {
         Album album = albumRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Álbum não encontrado com id: " + id));
         
+        Long artistaAnteriorId = album.getArtista().getId();
+        CamposAlterados campos = new CamposAlterados()
+                .campo("titulo", album.getTitulo(), dto.titulo())
+                .campo("dataLancamento", album.getDataLancamento(), dto.dataLancamento())
+                .campo("artistaId", artistaAnteriorId, dto.artistaId());
         album.setTitulo(dto.titulo());
         album.setDataLancamento(dto.dataLancamento());
         
         Artista artista = artistaRepository.findById(dto.artistaId()).orElseThrow(() -> new ResourceNotFoundException("Artista não encontrado com id: " + dto.artistaId()));
         album.setArtista(artista);
 
-        Album saved = albumRepository.save(album);
-        AlbumDTO savedDTO = toDTO(saved);
-        NotificationDTO notification = new NotificationDTO(
-                "ALBUM_UPDATED",
-                "Álbum \"" + saved.getTitulo() + "\" atualizado",
-                Instant.now(),
-                savedDTO
-        );
-        messagingTemplate.convertAndSend("/topic/albuns", notification);
-        return savedDTO;
+        Album saved = albumRepository.saveAndFlush(album);
+        if (!campos.vazio()) {
+            // Ao trocar de artista, o tópico do artista anterior também é avisado
+            publicar("ALBUM_UPDATED", "Álbum \"" + saved.getTitulo() + "\" atualizado",
+                    saved.getId(), saved.getUpdatedAt(), campos.mapa(), artistaAnteriorId, dto.artistaId());
+        }
+        return toDTO(saved);
     }
 
     @Transactional
@@ -132,16 +177,34 @@ public class AlbumService {
         Album album = albumRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Álbum não encontrado com id: " + id));
         String titulo = album.getTitulo();
+        Long artistaId = album.getArtista().getId();
+        uploadSessaoService.abortarSessoesDoAlbum(id);
         albumRepository.delete(album);
         log.info("Álbum deletado com sucesso - ID: {}", id);
 
-        NotificationDTO notification = new NotificationDTO(
-                "ALBUM_DELETED",
-                "Álbum \"" + titulo + "\" removido",
-                Instant.now(),
-                Map.<String, Object>of("id", id)
-        );
-        messagingTemplate.convertAndSend("/topic/albuns", notification);
+        publicar("ALBUM_DELETED", "Álbum \"" + titulo + "\" removido", id, null, null, artistaId);
+    }
+
+    /** Versão do álbum para ETag, sem carregar a entidade nem gerar URLs. */
+    @Transactional(readOnly = true)
+    public VersaoRecurso versao(Long id) {
+        return albumRepository.findVersaoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Álbum não encontrado com id: " + id));
+    }
+
+    /**
+     * Só escalares já em memória: publicar nunca toca o MinIO nem coleções lazy.
+     * Além de {@code /topic/albuns}, vai para {@code /topic/albuns.{id}} e
+     * {@code /topic/artistas.{artistaId}.albuns} de cada artista envolvido.
+     */
+    private void publicar(String tipo, String mensagem, Long id, LocalDateTime versao, Map<String, Object> campos,
+                          Long... artistaIds) {
+        List<String> escopos = new ArrayList<>();
+        escopos.add("/topic/albuns." + id);
+        Arrays.stream(artistaIds).filter(Objects::nonNull).distinct()
+                .forEach(artistaId -> escopos.add("/topic/artistas." + artistaId + ".albuns"));
+        NotificationDTO notification = NotificationDTO.delta(tipo, mensagem, id, versao, campos);
+        eventPublisher.publishEvent(new NotificationEvent("/topic/albuns", escopos, "album:" + id, notification));
     }
 
     @Transactional
@@ -154,6 +217,12 @@ public class AlbumService {
         return result;
     }
 
+    /** Sem transação: {@link UploadSessaoService#concluir} chama o MinIO antes de gravar. */
+    public CapaAlbumDTO concluirUploadCapa(Long albumId, String sessaoId) {
+        CapaAlbum capa = uploadSessaoService.concluir(albumId, sessaoId);
+        return toCapaDTO(capa);
+    }
+
     @Transactional
     public void deleteCapa(Long albumId, Long capaId) {
         minIOService.deleteCapa(albumId, capaId);
@@ -172,6 +241,10 @@ public class AlbumService {
                 capa.getNomeArquivo(),
                 capa.getContentType(),
                 capa.getTamanho(),
+                capa.getLargura(),
+                capa.getAltura(),
+                capa.getCorDominante(),
+                capa.getBlurhash(),
                 dataUpload,
                 url
         );
@@ -4,19 +4,21 @@ import com.album.seplag.dto.ArtistaCreateDTO;
 import com.album.seplag.dto.ArtistaDTO;
 import com.album.seplag.dto.ArtistaUpdateDTO;
 import com.album.seplag.dto.NotificationDTO;
+import com.album.seplag.dto.VersaoRecurso;
 import com.album.seplag.enums.TipoArtista;
 import com.album.seplag.exception.ResourceNotFoundException;
 import com.album.seplag.model.Artista;
 import com.album.seplag.repository.ArtistaRepository;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -25,13 +27,13 @@ public class ArtistaService {
 
     private final ArtistaRepository artistaRepository;
     private final MinIOService minIOService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ArtistaService(ArtistaRepository artistaRepository, MinIOService minIOService,
-                         SimpMessagingTemplate messagingTemplate) {
+                         ApplicationEventPublisher eventPublisher) {
         this.artistaRepository = artistaRepository;
         this.minIOService = minIOService;
-        this.messagingTemplate = messagingTemplate;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -67,36 +69,41 @@ public class ArtistaService {
         artista.setTipoArtista(dto.tipoArtista() != null ? dto.tipoArtista() : TipoArtista.CANTOR);
         artista.setBiografia(dto.biografia());
         Artista saved = artistaRepository.save(artista);
-        ArtistaDTO savedDTO = toDTO(saved);
-        NotificationDTO notification = new NotificationDTO(
-                "ARTISTA_CREATED",
-                "Artista \"" + saved.getNome() + "\" criado",
-                Instant.now(),
-                savedDTO
-        );
-        messagingTemplate.convertAndSend("/topic/artistas", notification);
-        return savedDTO;
+        CamposAlterados campos = new CamposAlterados()
+                .campo("nome", null, saved.getNome())
+                .campo("genero", null, saved.getGenero())
+                .campo("tipoArtista", null, saved.getTipoArtista())
+                .campo("biografia", null, saved.getBiografia());
+        publicar("ARTISTA_CREATED", "Artista \"" + saved.getNome() + "\" criado",
+                saved.getId(), saved.getUpdatedAt(), campos.mapa());
+        return toDTO(saved);
     }
 
+    /**
+     * A notificação leva só os campos alterados e a nova versão; sem alteração nada é publicado.
+     * O flush é feito aqui para que o {@code @PreUpdate} defina o {@code updatedAt} publicado.
+     */
     @Transactional
     public ArtistaDTO update(Long id, ArtistaUpdateDTO dto) {
         Artista artista = artistaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Artista não encontrado com id: " + id));
         
+        TipoArtista tipoArtista = dto.tipoArtista() != null ? dto.tipoArtista() : artista.getTipoArtista();
+        CamposAlterados campos = new CamposAlterados()
+                .campo("nome", artista.getNome(), dto.nome())
+                .campo("genero", artista.getGenero(), dto.genero())
+                .campo("tipoArtista", artista.getTipoArtista(), tipoArtista)
+                .campo("biografia", artista.getBiografia(), dto.biografia());
         artista.setNome(dto.nome());
         artista.setGenero(dto.genero());
-        artista.setTipoArtista(dto.tipoArtista() != null ? dto.tipoArtista() : artista.getTipoArtista());
+        artista.setTipoArtista(tipoArtista);
         artista.setBiografia(dto.biografia());
-        Artista saved = artistaRepository.save(artista);
-        ArtistaDTO savedDTO = toDTO(saved);
-        NotificationDTO notification = new NotificationDTO(
-                "ARTISTA_UPDATED",
-                "Artista \"" + saved.getNome() + "\" atualizado",
-                Instant.now(),
-                savedDTO
-        );
-        messagingTemplate.convertAndSend("/topic/artistas", notification);
-        return savedDTO;
+        Artista saved = artistaRepository.saveAndFlush(artista);
+        if (!campos.vazio()) {
+            publicar("ARTISTA_UPDATED", "Artista \"" + saved.getNome() + "\" atualizado",
+                    saved.getId(), saved.getUpdatedAt(), campos.mapa());
+        }
+        return toDTO(saved);
     }
 
     @Transactional
@@ -108,13 +115,24 @@ public class ArtistaService {
         artistaRepository.delete(artista);
         log.info("Artista deletado com sucesso - ID: {}", id);
 
-        NotificationDTO notification = new NotificationDTO(
-                "ARTISTA_DELETED",
-                "Artista \"" + nome + "\" removido",
-                Instant.now(),
-                Map.<String, Object>of("id", id)
-        );
-        messagingTemplate.convertAndSend("/topic/artistas", notification);
+        publicar("ARTISTA_DELETED", "Artista \"" + nome + "\" removido", id, null, null);
+    }
+
+    /** Versão do artista para ETag, sem carregar a entidade nem gerar URLs. */
+    @Transactional(readOnly = true)
+    public VersaoRecurso versao(Long id) {
+        return artistaRepository.findVersaoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Artista não encontrado com id: " + id));
+    }
+
+    /**
+     * Só escalares já em memória: publicar nunca toca o MinIO nem coleções lazy.
+     * Além de {@code /topic/artistas}, vai para {@code /topic/artistas.{id}}.
+     */
+    private void publicar(String tipo, String mensagem, Long id, LocalDateTime versao, Map<String, Object> campos) {
+        NotificationDTO notification = NotificationDTO.delta(tipo, mensagem, id, versao, campos);
+        eventPublisher.publishEvent(new NotificationEvent("/topic/artistas", List.of("/topic/artistas." + id),
+                "artista:" + id, notification));
     }
 
     private ArtistaDTO toDTO(Artista artista) {
@@ -6,7 +6,6 @@ import java.util.stream.Collectors;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +15,8 @@ import com.album.seplag.dto.LoginResponse;
 import com.album.seplag.dto.UsuarioRegisterDTO;
 import com.album.seplag.exception.InvalidCredentialsException;
 import com.album.seplag.exception.InvalidTokenException;
+import com.album.seplag.security.UsuarioDetails;
+import com.album.seplag.security.VerifiedToken;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -24,33 +25,43 @@ import lombok.extern.slf4j.Slf4j;
 public class AuthService {
 
     private final UserDetailsService userDetailsService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtConfig jwtConfig;
     private final UsuarioService usuarioService;
+    private final TokenRevocationService tokenRevocationService;
 
     public AuthService(UserDetailsService userDetailsService,
-                      PasswordEncoder passwordEncoder,
+                      PasswordHashingService passwordHashingService,
                       JwtConfig jwtConfig,
-                      UsuarioService usuarioService) {
+                      UsuarioService usuarioService,
+                      TokenRevocationService tokenRevocationService) {
         this.userDetailsService = userDetailsService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtConfig = jwtConfig;
         this.usuarioService = usuarioService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Sem transação: o BCrypt roda na faixa limitada do {@link PasswordHashingService} e não deve
+     * segurar conexão com o banco enquanto aguarda na fila.
+     */
     public LoginResponse login(LoginRequest request) {
         log.info("Tentativa de login para usuário: {}", request.username());
         try {
             UserDetails userDetails = userDetailsService.loadUserByUsername(request.username());
 
-            if (!passwordEncoder.matches(request.password(), userDetails.getPassword())) {
+            if (!passwordHashingService.matches(request.password(), userDetails.getPassword())) {
                 log.info("Senha inválida para usuário: {}", request.username());
                 throw new InvalidCredentialsException();
             }
+            if (passwordHashingService.precisaRehash(userDetails.getPassword())) {
+                rehashEmSegundoPlano(request.username(), request.password());
+            }
 
             List<String> roles = userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList());
-            String accessToken = jwtConfig.generateAccessToken(userDetails.getUsername(), roles);
+            Long userId = userDetails instanceof UsuarioDetails detalhes ? detalhes.getId() : null;
+            String accessToken = jwtConfig.generateAccessToken(userId, userDetails.getUsername(), roles);
             String refreshToken = jwtConfig.generateRefreshToken(userDetails.getUsername());
             usuarioService.atualizarLastLogin(request.username());
             log.info("Login bem-sucedido para usuário: {}", request.username());
@@ -61,6 +72,15 @@ public class AuthService {
         }
     }
 
+    private void rehashEmSegundoPlano(String username, String senha) {
+        passwordHashingService.encodeAsync(senha)
+                .thenAccept(novoHash -> usuarioService.atualizarHashSenha(username, novoHash))
+                .exceptionally(e -> {
+                    log.debug("Rehash de senha adiado para usuário {}: {}", username, e.getMessage());
+                    return null;
+                });
+    }
+
     @Transactional(readOnly = true)
     public LoginResponse refreshToken(String token) {
         log.info("Renovando token JWT");
@@ -71,10 +91,14 @@ public class AuthService {
                 log.info("Refresh token inválido ou expirado");
                 throw new InvalidTokenException();
             }
+            if (tokenRevocationService.isRevogado(jwtConfig.verifyToken(token))) {
+                log.info("Refresh token revogado - username: {}", username);
+                throw new InvalidTokenException();
+            }
 
             var usuario = usuarioService.findByUsername(username);
             List<String> roles = usuario.roles() != null ? List.copyOf(usuario.roles()) : List.of();
-            String newAccessToken = jwtConfig.generateAccessToken(username, roles);
+            String newAccessToken = jwtConfig.generateAccessToken(usuario.id(), username, roles);
             String newRefreshToken = jwtConfig.generateRefreshToken(username);
             log.info("Token renovado com sucesso para usuário: {}", username);
             return new LoginResponse(newAccessToken, newRefreshToken, jwtConfig.getExpiration());
@@ -86,12 +110,38 @@ public class AuthService {
         }
     }
 
-    @Transactional
+    /**
+     * Revoga o access token da requisição e, se informado, o refresh token do mesmo usuário.
+     * Um refresh token inválido ou de outro usuário é ignorado.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        VerifiedToken access = jwtConfig.verifyToken(accessToken);
+        tokenRevocationService.revogar(access);
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        try {
+            VerifiedToken refresh = jwtConfig.verifyToken(refreshToken);
+            if (refresh.refresh() && refresh.username().equals(access.username())) {
+                tokenRevocationService.revogar(refresh);
+            } else {
+                log.info("Refresh token ignorado no logout de {}: não pertence ao usuário", access.username());
+            }
+        } catch (Exception e) {
+            log.info("Refresh token inválido ignorado no logout de {}: {}", access.username(), e.getMessage());
+        }
+    }
+
+    public void logoutTodos(String username) {
+        tokenRevocationService.revogarTodos(username);
+    }
+
+    /** Sem transação: o hash da senha em {@link UsuarioService#register} não pode segurar conexão. */
     public LoginResponse register(UsuarioRegisterDTO dto) {
-        usuarioService.register(dto);
+        var usuario = usuarioService.register(dto);
         usuarioService.atualizarLastLogin(dto.username());
         List<String> roles = List.of("ROLE_USER");
-        String accessToken = jwtConfig.generateAccessToken(dto.username(), roles);
+        String accessToken = jwtConfig.generateAccessToken(usuario.id(), dto.username(), roles);
         String refreshToken = jwtConfig.generateRefreshToken(dto.username());
         log.info("Registro e login automático para usuário: {}", dto.username());
         return new LoginResponse(accessToken, refreshToken, jwtConfig.getExpiration());
@@ -0,0 +1,113 @@
+package com.album.seplag.service;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Implementação do encoder BlurHash (https://blurha.sh).
+ * Deve receber uma imagem já reduzida; o custo é O(largura * altura * componentes).
+ */
+final class BlurHashEncoder {
+
+    private static final String BASE83 =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+
+    private BlurHashEncoder() {
+    }
+
+    static String encode(BufferedImage imagem, int componentesX, int componentesY) {
+        if (componentesX < 1 || componentesX > 9 || componentesY < 1 || componentesY > 9) {
+            throw new IllegalArgumentException("Componentes do BlurHash devem estar entre 1 e 9");
+        }
+        int largura = imagem.getWidth();
+        int altura = imagem.getHeight();
+
+        double[][] linear = new double[largura * altura][3];
+        for (int y = 0; y < altura; y++) {
+            for (int x = 0; x < largura; x++) {
+                int rgb = imagem.getRGB(x, y);
+                double[] pixel = linear[y * largura + x];
+                pixel[0] = srgbToLinear((rgb >> 16) & 0xff);
+                pixel[1] = srgbToLinear((rgb >> 8) & 0xff);
+                pixel[2] = srgbToLinear(rgb & 0xff);
+            }
+        }
+
+        double[][] fatores = new double[componentesX * componentesY][3];
+        for (int j = 0; j < componentesY; j++) {
+            for (int i = 0; i < componentesX; i++) {
+                double normalizacao = (i == 0 && j == 0) ? 1 : 2;
+                double r = 0, g = 0, b = 0;
+                for (int y = 0; y < altura; y++) {
+                    double cosY = Math.cos(Math.PI * j * y / altura);
+                    for (int x = 0; x < largura; x++) {
+                        double base = normalizacao * Math.cos(Math.PI * i * x / largura) * cosY;
+                        double[] pixel = linear[y * largura + x];
+                        r += base * pixel[0];
+                        g += base * pixel[1];
+                        b += base * pixel[2];
+                    }
+                }
+                double escala = 1.0 / (largura * altura);
+                fatores[j * componentesX + i] = new double[]{r * escala, g * escala, b * escala};
+            }
+        }
+
+        StringBuilder hash = new StringBuilder();
+        encode83(hash, (componentesX - 1) + (componentesY - 1) * 9, 1);
+
+        double maximo;
+        if (fatores.length > 1) {
+            double atual = 0;
+            for (int k = 1; k < fatores.length; k++) {
+                for (double v : fatores[k]) {
+                    atual = Math.max(atual, Math.abs(v));
+                }
+            }
+            int maxQuantizado = (int) Math.max(0, Math.min(82, Math.floor(atual * 166 - 0.5)));
+            maximo = (maxQuantizado + 1) / 166.0;
+            encode83(hash, maxQuantizado, 1);
+        } else {
+            maximo = 1;
+            encode83(hash, 0, 1);
+        }
+
+        double[] dc = fatores[0];
+        encode83(hash, (linearToSrgb(dc[0]) << 16) + (linearToSrgb(dc[1]) << 8) + linearToSrgb(dc[2]), 4);
+
+        for (int k = 1; k < fatores.length; k++) {
+            double[] ac = fatores[k];
+            int r = quantizarAc(ac[0], maximo);
+            int g = quantizarAc(ac[1], maximo);
+            int b = quantizarAc(ac[2], maximo);
+            encode83(hash, r * 19 * 19 + g * 19 + b, 2);
+        }
+        return hash.toString();
+    }
+
+    private static int quantizarAc(double valor, double maximo) {
+        return (int) Math.max(0, Math.min(18, Math.floor(signPow(valor / maximo, 0.5) * 9 + 9.5)));
+    }
+
+    private static double signPow(double valor, double expoente) {
+        return Math.copySign(Math.pow(Math.abs(valor), expoente), valor);
+    }
+
+    private static double srgbToLinear(int valor) {
+        double v = valor / 255.0;
+        return v <= 0.04045 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4);
+    }
+
+    private static int linearToSrgb(double valor) {
+        double v = Math.max(0, Math.min(1, valor));
+        return v <= 0.0031308
+                ? (int) (v * 12.92 * 255 + 0.5)
+                : (int) ((1.055 * Math.pow(v, 1 / 2.4) - 0.055) * 255 + 0.5);
+    }
+
+    private static void encode83(StringBuilder destino, int valor, int tamanho) {
+        for (int i = 1; i <= tamanho; i++) {
+            int digito = (valor / (int) Math.pow(83, tamanho - i)) % 83;
+            destino.append(BASE83.charAt(digito));
+        }
+    }
+}
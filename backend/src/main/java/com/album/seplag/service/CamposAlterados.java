@@ -0,0 +1,34 @@
+package com.album.seplag.service;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Diff de campos escalares para o {@code changes} das notificações. Guarda só o valor novo dos
+ * campos que mudaram; datas e enums vão como texto para não depender da configuração do Jackson
+ * do broker.
+ */
+final class CamposAlterados {
+
+    private final Map<String, Object> campos = new LinkedHashMap<>();
+
+    CamposAlterados campo(String nome, Object antes, Object depois) {
+        if (!Objects.equals(antes, depois)) {
+            campos.put(nome, depois instanceof TemporalAccessor || depois instanceof Enum<?>
+                    ? depois.toString() : depois);
+        }
+        return this;
+    }
+
+    boolean vazio() {
+        return campos.isEmpty();
+    }
+
+    /** Pode conter valores {@code null} (campo apagado). */
+    Map<String, Object> mapa() {
+        return Collections.unmodifiableMap(campos);
+    }
+}
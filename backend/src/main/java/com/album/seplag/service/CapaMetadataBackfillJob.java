@@ -0,0 +1,131 @@
+package com.album.seplag.service;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.album.seplag.model.CapaAlbum;
+import com.album.seplag.repository.CapaAlbumRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Preenche largura/altura/cor dominante/blurhash das capas enviadas antes da V10.
+ * Processa em lotes (paginação por id) baixando e analisando as imagens em paralelo.
+ * Cada falha incrementa {@code metadados_tentativas}; capas que atingem
+ * {@code capa.metadata.backfill.max-tentativas} saem da varredura em vez de serem baixadas de novo
+ * a cada execução.
+ */
+@Slf4j
+@Component
+public class CapaMetadataBackfillJob {
+
+    private final CapaAlbumRepository capaAlbumRepository;
+    private final MinIOService minIOService;
+    private final MinIOBucketInitializer bucketInitializer;
+    private final ImageMetadataExtractor imageMetadataExtractor;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxTentativas;
+    private final ExecutorService executor;
+
+    public CapaMetadataBackfillJob(CapaAlbumRepository capaAlbumRepository,
+                                   MinIOService minIOService,
+                                   MinIOBucketInitializer bucketInitializer,
+                                   ImageMetadataExtractor imageMetadataExtractor,
+                                   @Value("${capa.metadata.backfill.enabled:true}") boolean enabled,
+                                   @Value("${capa.metadata.backfill.batch-size:50}") int batchSize,
+                                   @Value("${capa.metadata.backfill.threads:4}") int threads,
+                                   @Value("${capa.metadata.backfill.max-tentativas:3}") int maxTentativas) {
+        this.capaAlbumRepository = capaAlbumRepository;
+        this.minIOService = minIOService;
+        this.bucketInitializer = bucketInitializer;
+        this.imageMetadataExtractor = imageMetadataExtractor;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxTentativas = maxTentativas;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "capa-backfill-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Scheduled(initialDelayString = "${capa.metadata.backfill.initial-delay-ms:60000}",
+            fixedDelayString = "${capa.metadata.backfill.interval-ms:3600000}")
+    public void executar() {
+        if (!enabled || !bucketInitializer.isReady()) {
+            return;
+        }
+        int processadas = 0;
+        int atualizadas = 0;
+        long ultimoId = 0L;
+        List<CapaAlbum> lote;
+        do {
+            lote = capaAlbumRepository.findByLarguraIsNullAndMetadadosTentativasLessThanAndIdGreaterThanOrderByIdAsc(
+                    maxTentativas, ultimoId, PageRequest.of(0, batchSize));
+            if (lote.isEmpty()) {
+                break;
+            }
+            atualizadas += processarLote(lote);
+            processadas += lote.size();
+            ultimoId = lote.get(lote.size() - 1).getId();
+        } while (lote.size() == batchSize);
+
+        if (processadas > 0) {
+            log.info("Backfill de metadados de capas concluído - processadas: {}, atualizadas: {}", processadas, atualizadas);
+        }
+    }
+
+    int processarLote(List<CapaAlbum> lote) {
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(lote.size());
+        for (CapaAlbum capa : lote) {
+            Long id = capa.getId();
+            String nomeArquivo = capa.getNomeArquivo();
+            futures.add(CompletableFuture.supplyAsync(() -> processarCapa(id, nomeArquivo), executor));
+        }
+        return (int) futures.stream().map(CompletableFuture::join).filter(Boolean::booleanValue).count();
+    }
+
+    private boolean processarCapa(Long id, String nomeArquivo) {
+        try (InputStream in = minIOService.abrirObjeto(nomeArquivo)) {
+            ImageMetadataExtractor.ImageMetadata metadata = imageMetadataExtractor.extrair(in);
+            if (metadata.largura() == null) {
+                log.warn("Backfill de metadados da capa ID {} ({}): formato não reconhecido", id, nomeArquivo);
+                registrarFalha(id);
+                return false;
+            }
+            capaAlbumRepository.atualizarMetadados(id, metadata.largura(), metadata.altura(),
+                    metadata.corDominante(), metadata.blurhash());
+            return true;
+        } catch (Exception e) {
+            log.warn("Falha no backfill de metadados da capa ID {} ({}): {}", id, nomeArquivo, e.getMessage());
+            registrarFalha(id);
+            return false;
+        }
+    }
+
+    private void registrarFalha(Long id) {
+        try {
+            capaAlbumRepository.registrarFalhaMetadados(id);
+        } catch (Exception e) {
+            log.warn("Não foi possível registrar a falha de backfill da capa ID {}: {}", id, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
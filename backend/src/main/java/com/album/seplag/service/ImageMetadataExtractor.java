@@ -0,0 +1,107 @@
+package com.album.seplag.service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Extrai metadados de imagens de capa sem decodificar a imagem inteira no heap:
+ * as dimensões vêm apenas do cabeçalho e a cor dominante/blurhash são calculadas
+ * sobre uma versão subamostrada (lado maior com ~{@value #LADO_AMOSTRA} px).
+ */
+@Slf4j
+@Component
+public class ImageMetadataExtractor {
+
+    static final int LADO_AMOSTRA = 64;
+    private static final int BLURHASH_COMPONENTES_X = 4;
+    private static final int BLURHASH_COMPONENTES_Y = 3;
+
+    public record ImageMetadata(Integer largura, Integer altura, String corDominante, String blurhash) {
+
+        public static final ImageMetadata VAZIO = new ImageMetadata(null, null, null, null);
+    }
+
+    /**
+     * Lê o stream uma única vez. Nunca lança exceção: falhas retornam {@link ImageMetadata#VAZIO}
+     * para não impedir o upload.
+     */
+    public ImageMetadata extrair(InputStream inputStream) {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(inputStream)) {
+            if (iis == null) {
+                return ImageMetadata.VAZIO;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                log.debug("Formato de imagem não suportado para extração de metadados");
+                return ImageMetadata.VAZIO;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int largura = reader.getWidth(0);
+                int altura = reader.getHeight(0);
+
+                int passo = Math.max(1, Math.max(largura, altura) / LADO_AMOSTRA);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(passo, passo, 0, 0);
+                BufferedImage amostra = reader.read(0, param);
+
+                return new ImageMetadata(
+                        largura,
+                        altura,
+                        calcularCorDominante(amostra),
+                        BlurHashEncoder.encode(amostra, BLURHASH_COMPONENTES_X, BLURHASH_COMPONENTES_Y)
+                );
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Não foi possível extrair metadados da imagem: {}", e.getMessage());
+            return ImageMetadata.VAZIO;
+        }
+    }
+
+    /**
+     * Histograma com 4 bits por canal; retorna a média das cores do balde mais frequente.
+     */
+    static String calcularCorDominante(BufferedImage imagem) {
+        int[] contagem = new int[4096];
+        long[] somaR = new long[4096];
+        long[] somaG = new long[4096];
+        long[] somaB = new long[4096];
+
+        for (int y = 0; y < imagem.getHeight(); y++) {
+            for (int x = 0; x < imagem.getWidth(); x++) {
+                int rgb = imagem.getRGB(x, y);
+                int r = (rgb >> 16) & 0xff;
+                int g = (rgb >> 8) & 0xff;
+                int b = rgb & 0xff;
+                int balde = ((r >> 4) << 8) | ((g >> 4) << 4) | (b >> 4);
+                contagem[balde]++;
+                somaR[balde] += r;
+                somaG[balde] += g;
+                somaB[balde] += b;
+            }
+        }
+
+        int melhor = 0;
+        for (int i = 1; i < contagem.length; i++) {
+            if (contagem[i] > contagem[melhor]) {
+                melhor = i;
+            }
+        }
+        int n = Math.max(1, contagem[melhor]);
+        return String.format("#%02x%02x%02x", somaR[melhor] / n, somaG[melhor] / n, somaB[melhor] / n);
+    }
+}
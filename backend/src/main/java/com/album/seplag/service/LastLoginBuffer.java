@@ -0,0 +1,99 @@
+package com.album.seplag.service;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind do último acesso: o login só registra o instante em memória e um job grava
+ * os pendentes em lote com um único {@code UPDATE ... FROM (VALUES ...)} por bloco de
+ * {@code security.last-login.batch-size} usuários. Os pendentes também são gravados no shutdown.
+ * <p>
+ * {@code last_login} pode ficar até {@code security.last-login.flush-interval-ms} atrasado;
+ * uma queda abrupta do processo perde apenas os acessos ainda não gravados. O trigger de
+ * {@code updated_at} ignora atualizações que só mudam {@code last_login} (V17).
+ */
+@Slf4j
+@Component
+public class LastLoginBuffer {
+
+    static final String METRICA_PENDENTES = "auth.last-login.pending";
+
+    private final Map<String, Instant> pendentes = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public LastLoginBuffer(JdbcTemplate jdbcTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${security.last-login.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        Gauge.builder(METRICA_PENDENTES, pendentes, Map::size)
+                .description("Últimos acessos aguardando gravação em lote")
+                .register(meterRegistry);
+    }
+
+    public void registrar(String username) {
+        pendentes.merge(username, Instant.now(), (atual, novo) -> novo.isAfter(atual) ? novo : atual);
+    }
+
+    /**
+     * Grava os pendentes. Uma entrada só sai do mapa se não houve login mais recente durante a
+     * gravação; em caso de erro tudo permanece para a próxima execução.
+     */
+    @Scheduled(fixedDelayString = "${security.last-login.flush-interval-ms:30000}")
+    public synchronized void flush() {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, Instant>> snapshot = new ArrayList<>(new HashMap<>(pendentes).entrySet());
+        int gravados = 0;
+        try {
+            for (int inicio = 0; inicio < snapshot.size(); inicio += batchSize) {
+                List<Map.Entry<String, Instant>> lote = snapshot.subList(inicio, Math.min(inicio + batchSize, snapshot.size()));
+                gravados += gravarLote(lote);
+                lote.forEach(e -> pendentes.remove(e.getKey(), e.getValue()));
+            }
+            log.debug("Último acesso gravado em lote - usuários: {}, linhas: {}", snapshot.size(), gravados);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar último acesso em lote ({} pendentes): {}", pendentes.size(), e.getMessage());
+        }
+    }
+
+    private int gravarLote(List<Map.Entry<String, Instant>> lote) {
+        StringBuilder sql = new StringBuilder("UPDATE usuarios u SET last_login = v.last_login FROM (VALUES ");
+        Object[] args = new Object[lote.size() * 2];
+        for (int i = 0; i < lote.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(CAST(? AS VARCHAR), CAST(? AS TIMESTAMP WITH TIME ZONE))");
+            args[i * 2] = lote.get(i).getKey();
+            args[i * 2 + 1] = OffsetDateTime.ofInstant(lote.get(i).getValue(), ZoneOffset.UTC);
+        }
+        sql.append(") AS v(username, last_login) WHERE u.username = v.username")
+                .append(" AND (u.last_login IS NULL OR u.last_login < v.last_login)");
+        return jdbcTemplate.update(sql.toString(), args);
+    }
+
+    int pendentes() {
+        return pendentes.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
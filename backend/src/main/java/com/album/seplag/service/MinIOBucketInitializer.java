@@ -0,0 +1,114 @@
+package com.album.seplag.service;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.album.seplag.config.MinIOConfig;
+
+import io.minio.BucketExistsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verifica/cria o bucket do MinIO em segundo plano após o startup.
+ * A aplicação sobe sem depender do storage; o readiness só fica UP
+ * quando o bucket é confirmado (ver MinIOHealthIndicator).
+ */
+@Slf4j
+@Component
+public class MinIOBucketInitializer {
+
+    private final MinioClient minioClient;
+    private final String bucketName;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final ScheduledExecutorService executor;
+    private final AtomicInteger tentativas = new AtomicInteger();
+
+    private volatile boolean ready;
+    private volatile String ultimoErro;
+
+    public MinIOBucketInitializer(MinIOConfig minIOConfig,
+                                  @Value("${minio.bucket-name}") String bucketName,
+                                  @Value("${minio.bucket-init.initial-backoff-ms:1000}") long initialBackoffMs,
+                                  @Value("${minio.bucket-init.max-backoff-ms:30000}") long maxBackoffMs) {
+        this.minioClient = minIOConfig.minioClient();
+        this.bucketName = bucketName;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "minio-bucket-init");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        executor.execute(this::tentarInicializar);
+    }
+
+    void tentarInicializar() {
+        int tentativa = tentativas.incrementAndGet();
+        try {
+            log.info("Inicializando bucket MinIO: {} (tentativa {})", bucketName, tentativa);
+            boolean found = minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
+            if (!found) {
+                log.info("Bucket não encontrado, criando bucket: {}", bucketName);
+                minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
+                log.info("Bucket criado com sucesso: {}", bucketName);
+            } else {
+                log.info("Bucket já existe: {}", bucketName);
+            }
+            ultimoErro = null;
+            ready = true;
+            executor.shutdown();
+        } catch (Exception e) {
+            ultimoErro = e.getMessage();
+            long backoff = calcularBackoff(tentativa);
+            log.warn("Erro ao inicializar bucket MinIO (tentativa {}), nova tentativa em {} ms: {}",
+                    tentativa, backoff, e.getMessage());
+            try {
+                executor.schedule(this::tentarInicializar, backoff, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignored) {
+                // contexto em shutdown
+            }
+        }
+    }
+
+    long calcularBackoff(int tentativa) {
+        int shift = Math.min(tentativa - 1, 20);
+        return Math.min(initialBackoffMs << shift, maxBackoffMs);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getTentativas() {
+        return tentativas.get();
+    }
+
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,134 @@
+package com.album.seplag.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Instrumentação das chamadas ao MinIO feitas pelo MinIOService.
+ * <ul>
+ *   <li>{@code minio.client.requests} (timer/histograma): tags operation e outcome (success/error)</li>
+ *   <li>{@code minio.client.in.flight} (gauge): chamadas em andamento por operation</li>
+ *   <li>{@code minio.client.bytes} (counter): bytes transferidos por operation e direction (upload/download)</li>
+ * </ul>
+ * Chamadas acima de {@code minio.metrics.slow-call-threshold-ms} são logadas com a chave do objeto.
+ */
+@Slf4j
+@Component
+public class MinIOClientMetrics {
+
+    static final String METRICA_REQUESTS = "minio.client.requests";
+    static final String METRICA_IN_FLIGHT = "minio.client.in.flight";
+    static final String METRICA_BYTES = "minio.client.bytes";
+
+    @FunctionalInterface
+    public interface ChamadaStorage<T> {
+        T executar() throws Exception;
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final long slowCallThresholdNanos;
+    private final Map<String, AtomicInteger> emAndamento = new ConcurrentHashMap<>();
+
+    public MinIOClientMetrics(MeterRegistry meterRegistry,
+                              @Value("${minio.metrics.slow-call-threshold-ms:1000}") long slowCallThresholdMs) {
+        this.meterRegistry = meterRegistry;
+        this.slowCallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowCallThresholdMs);
+    }
+
+    public <T> T medir(String operacao, String objectName, ChamadaStorage<T> chamada) throws Exception {
+        AtomicInteger inFlight = emAndamento.computeIfAbsent(operacao, this::registrarGaugeInFlight);
+        inFlight.incrementAndGet();
+        long inicio = System.nanoTime();
+        String outcome = "error";
+        try {
+            T resultado = chamada.executar();
+            outcome = "success";
+            return resultado;
+        } finally {
+            long duracao = System.nanoTime() - inicio;
+            inFlight.decrementAndGet();
+            timer(operacao, outcome).record(duracao, TimeUnit.NANOSECONDS);
+            if (duracao >= slowCallThresholdNanos) {
+                log.warn("Chamada lenta ao MinIO - operação: {}, objeto: {}, resultado: {}, duração: {} ms",
+                        operacao, objectName, outcome, TimeUnit.NANOSECONDS.toMillis(duracao));
+            }
+        }
+    }
+
+    public void registrarBytes(String operacao, String direcao, long bytes) {
+        if (bytes > 0) {
+            bytesCounter(operacao, direcao).increment(bytes);
+        }
+    }
+
+    /**
+     * Conta os bytes efetivamente lidos de um download em streaming.
+     */
+    public InputStream contarDownload(String operacao, InputStream in) {
+        Counter counter = bytesCounter(operacao, "download");
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    counter.increment();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int lidos = super.read(buffer, offset, length);
+                if (lidos > 0) {
+                    counter.increment(lidos);
+                }
+                return lidos;
+            }
+        };
+    }
+
+    private Timer timer(String operacao, String outcome) {
+        return Timer.builder(METRICA_REQUESTS)
+                .description("Latência das chamadas ao MinIO")
+                .tag("operation", operacao)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(60))
+                .register(meterRegistry);
+    }
+
+    private Counter bytesCounter(String operacao, String direcao) {
+        return Counter.builder(METRICA_BYTES)
+                .description("Bytes transferidos de/para o MinIO")
+                .baseUnit("bytes")
+                .tag("operation", operacao)
+                .tag("direction", direcao)
+                .register(meterRegistry);
+    }
+
+    private AtomicInteger registrarGaugeInFlight(String operacao) {
+        AtomicInteger valor = new AtomicInteger();
+        Gauge.builder(METRICA_IN_FLIGHT, valor, AtomicInteger::get)
+                .description("Chamadas ao MinIO em andamento")
+                .tag("operation", operacao)
+                .register(meterRegistry);
+        return valor;
+    }
+}
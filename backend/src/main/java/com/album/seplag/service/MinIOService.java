@@ -17,14 +17,17 @@ import com.album.seplag.model.CapaAlbum;
 import com.album.seplag.repository.AlbumRepository;
 import com.album.seplag.repository.ArtistaRepository;
 import com.album.seplag.repository.CapaAlbumRepository;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
 
-import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
 import io.minio.GetPresignedObjectUrlArgs;
-import io.minio.MakeBucketArgs;
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
 import io.minio.http.Method;
+import io.minio.messages.Part;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -32,42 +35,32 @@ import lombok.extern.slf4j.Slf4j;
 public class MinIOService {
 
     private final MinioClient minioClient;
+    private final MinioAsyncClient minioAsyncClient;
     private final String bucketName;
     private final Long presignedUrlExpiration;
     private final AlbumRepository albumRepository;
     private final ArtistaRepository artistaRepository;
     private final CapaAlbumRepository capaAlbumRepository;
+    private final ImageMetadataExtractor imageMetadataExtractor;
+    private final MinIOClientMetrics metrics;
 
     public MinIOService(MinIOConfig minIOConfig,
                        @Value("${minio.bucket-name}") String bucketName,
                        @Value("${minio.presigned-url-expiration}") Long presignedUrlExpiration,
                        AlbumRepository albumRepository,
                        ArtistaRepository artistaRepository,
-                       CapaAlbumRepository capaAlbumRepository) {
+                       CapaAlbumRepository capaAlbumRepository,
+                       ImageMetadataExtractor imageMetadataExtractor,
+                       MinIOClientMetrics metrics) {
         this.minioClient = minIOConfig.minioClient();
+        this.minioAsyncClient = minIOConfig.minioAsyncClient();
         this.bucketName = bucketName;
         this.presignedUrlExpiration = presignedUrlExpiration;
         this.albumRepository = albumRepository;
         this.artistaRepository = artistaRepository;
         this.capaAlbumRepository = capaAlbumRepository;
-        initializeBucket();
-    }
-
-    private void initializeBucket() {
-        try {
-            log.info("Inicializando bucket MinIO: {}", bucketName);
-            boolean found = minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
-            if (!found) {
-                log.info("Bucket não encontrado, criando bucket: {}", bucketName);
-                minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
-                log.info("Bucket criado com sucesso: {}", bucketName);
-            } else {
-                log.info("Bucket já existe: {}", bucketName);
-            }
-        } catch (Exception e) {
-            log.error("Erro ao inicializar bucket MinIO: {}", e.getMessage(), e);
-            throw new RuntimeException("Erro ao inicializar bucket MinIO", e);
-        }
+        this.imageMetadataExtractor = imageMetadataExtractor;
+        this.metrics = metrics;
     }
 
     @Transactional
@@ -80,15 +73,21 @@ public class MinIOService {
             String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
             String objectName = "albuns/" + albumId + "/" + fileName;
 
+            ImageMetadataExtractor.ImageMetadata metadata;
+            try (InputStream metadataStream = file.getInputStream()) {
+                metadata = imageMetadataExtractor.extrair(metadataStream);
+            }
+
             InputStream inputStream = file.getInputStream();
-            minioClient.putObject(
+            metrics.medir("putObject", objectName, () -> minioClient.putObject(
                     PutObjectArgs.builder()
                             .bucket(bucketName)
                             .object(objectName)
                             .stream(inputStream, file.getSize(), -1)
                             .contentType(file.getContentType())
                             .build()
-            );
+            ));
+            metrics.registrarBytes("putObject", "upload", file.getSize());
 
             log.debug("Arquivo enviado para MinIO com sucesso: {}", objectName);
 
@@ -97,6 +96,10 @@ public class MinIOService {
             capa.setNomeArquivo(objectName);
             capa.setContentType(file.getContentType());
             capa.setTamanho(file.getSize());
+            capa.setLargura(metadata.largura());
+            capa.setAltura(metadata.altura());
+            capa.setCorDominante(metadata.corDominante());
+            capa.setBlurhash(metadata.blurhash());
 
             CapaAlbum saved = capaAlbumRepository.save(capa);
             log.info("Capa salva com sucesso - ID: {}, Álbum ID: {}", saved.getId(), albumId);
@@ -107,6 +110,51 @@ public class MinIOService {
         }
     }
 
+    /**
+     * Abre o objeto para leitura em streaming. O chamador deve fechar o stream.
+     */
+    public InputStream abrirObjeto(String objectName) throws Exception {
+        InputStream in = metrics.medir("getObject", objectName, () -> minioClient.getObject(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .build()));
+        return metrics.contarDownload("getObject", in);
+    }
+
+    public String iniciarUploadMultipart(String objectName, String contentType) throws Exception {
+        Multimap<String, String> headers = HashMultimap.create();
+        if (contentType != null && !contentType.isBlank()) {
+            headers.put("Content-Type", contentType);
+        }
+        return metrics.medir("createMultipartUpload", objectName, () ->
+                minioAsyncClient.createMultipartUploadAsync(bucketName, null, objectName, headers, null)
+                        .get()
+                        .result()
+                        .uploadId());
+    }
+
+    /**
+     * Envia uma parte do multipart upload e retorna o ETag.
+     */
+    public String enviarParte(String objectName, String uploadId, int numeroParte, byte[] dados, int tamanho) throws Exception {
+        String etag = metrics.medir("uploadPart", objectName, () ->
+                minioAsyncClient.uploadPartAsync(bucketName, null, objectName, dados, tamanho, uploadId, numeroParte, null, null)
+                        .get()
+                        .etag());
+        metrics.registrarBytes("uploadPart", "upload", tamanho);
+        return etag;
+    }
+
+    public void concluirUploadMultipart(String objectName, String uploadId, Part[] partes) throws Exception {
+        metrics.medir("completeMultipartUpload", objectName, () ->
+                minioAsyncClient.completeMultipartUploadAsync(bucketName, null, objectName, uploadId, partes, null, null).get());
+    }
+
+    public void abortarUploadMultipart(String objectName, String uploadId) throws Exception {
+        metrics.medir("abortMultipartUpload", objectName, () ->
+                minioAsyncClient.abortMultipartUploadAsync(bucketName, null, objectName, uploadId, null, null).get());
+    }
+
     public PresignedUrlResponse getPresignedUrl(Long albumId, Long capaId) {
         log.debug("Gerando URL pré-assinada para capa ID: {}, álbum ID: {}", capaId, albumId);
         try {
@@ -118,14 +166,14 @@ public class MinIOService {
                 throw new ResourceNotFoundException("Capa não pertence ao álbum especificado");
             }
 
-            String url = minioClient.getPresignedObjectUrl(
+            String url = metrics.medir("getPresignedObjectUrl", capa.getNomeArquivo(), () -> minioClient.getPresignedObjectUrl(
                     GetPresignedObjectUrlArgs.builder()
                             .method(Method.GET)
                             .bucket(bucketName)
                             .object(capa.getNomeArquivo())
                             .expiry((int) (presignedUrlExpiration / 1000))
                             .build()
-            );
+            ));
 
             log.debug("URL pré-assinada gerada com sucesso para capa ID: {}", capaId);
             return new PresignedUrlResponse(url, presignedUrlExpiration);
@@ -148,14 +196,15 @@ public class MinIOService {
             String objectName = "artistas/" + artistaId + "/" + fileName;
 
             InputStream inputStream = file.getInputStream();
-            minioClient.putObject(
+            metrics.medir("putObject", objectName, () -> minioClient.putObject(
                     PutObjectArgs.builder()
                             .bucket(bucketName)
                             .object(objectName)
                             .stream(inputStream, file.getSize(), -1)
                             .contentType(file.getContentType())
                             .build()
-            );
+            ));
+            metrics.registrarBytes("putObject", "upload", file.getSize());
 
             log.debug("Foto enviada para MinIO com sucesso: {}", objectName);
 
@@ -179,14 +228,14 @@ public class MinIOService {
         }
 
         try {
-            String url = minioClient.getPresignedObjectUrl(
+            String url = metrics.medir("getPresignedObjectUrl", artista.getFotoNomeArquivo(), () -> minioClient.getPresignedObjectUrl(
                     GetPresignedObjectUrlArgs.builder()
                             .method(Method.GET)
                             .bucket(bucketName)
                             .object(artista.getFotoNomeArquivo())
                             .expiry((int) (presignedUrlExpiration / 1000))
                             .build()
-            );
+            ));
 
             log.debug("URL pré-assinada gerada com sucesso para foto do artista ID: {}", artistaId);
             return new PresignedUrlResponse(url, presignedUrlExpiration);
@@ -204,10 +253,14 @@ public class MinIOService {
             throw new ResourceNotFoundException("Artista não possui foto cadastrada");
         }
         try {
-            minioClient.removeObject(RemoveObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(artista.getFotoNomeArquivo())
-                    .build());
+            String objectName = artista.getFotoNomeArquivo();
+            metrics.medir("removeObject", objectName, () -> {
+                minioClient.removeObject(RemoveObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectName)
+                        .build());
+                return null;
+            });
             artista.setFotoNomeArquivo(null);
             artistaRepository.save(artista);
             log.info("Foto do artista removida - Artista ID: {}", artistaId);
@@ -225,10 +278,13 @@ public class MinIOService {
             throw new ResourceNotFoundException("Capa não pertence ao álbum especificado");
         }
         try {
-            minioClient.removeObject(RemoveObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(capa.getNomeArquivo())
-                    .build());
+            metrics.medir("removeObject", capa.getNomeArquivo(), () -> {
+                minioClient.removeObject(RemoveObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(capa.getNomeArquivo())
+                        .build());
+                return null;
+            });
             capaAlbumRepository.delete(capa);
             log.info("Capa removida - Álbum ID: {}, Capa ID: {}", albumId, capaId);
         } catch (Exception e) {
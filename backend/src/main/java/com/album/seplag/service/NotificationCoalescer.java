@@ -0,0 +1,88 @@
+package com.album.seplag.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.album.seplag.dto.NotificationDTO;
+
+/**
+ * Acumula as notificações de uma janela, por destino, mantendo uma por entidade ({@code chave}).
+ * Regras ao combinar com a pendente da mesma entidade:
+ * <ul>
+ *   <li>CREATED seguida de UPDATED continua CREATED, com os {@code changes} somados;</li>
+ *   <li>CREATED seguida de DELETED se anulam (os clientes nunca viram a entidade);</li>
+ *   <li>UPDATED seguidas somam os {@code changes} (vale o valor mais recente de cada campo);</li>
+ *   <li>nos demais casos vale a mais recente.</li>
+ * </ul>
+ * A posição na janela é a da primeira ocorrência. Não é thread-safe; o {@link NotificationPublisher}
+ * sincroniza o acesso.
+ */
+class NotificationCoalescer {
+
+    private static final String SUFIXO_CRIADO = "_CREATED";
+    private static final String SUFIXO_ATUALIZADO = "_UPDATED";
+    private static final String SUFIXO_REMOVIDO = "_DELETED";
+
+    private final Map<String, LinkedHashMap<String, NotificationEvent>> pendentes = new LinkedHashMap<>();
+    private long semChave;
+    private int combinadas;
+
+    void adicionar(NotificationEvent event) {
+        Map<String, NotificationEvent> doDestino = pendentes.computeIfAbsent(event.destino(), d -> new LinkedHashMap<>());
+        String chave = event.chave() != null ? event.chave() : "#" + semChave++;
+        NotificationEvent anterior = doDestino.get(chave);
+        if (anterior == null) {
+            doDestino.put(chave, event);
+            return;
+        }
+        combinadas++;
+        String tipoAnterior = anterior.notificacao().type();
+        String tipoNovo = event.notificacao().type();
+        if (tipoAnterior.endsWith(SUFIXO_CRIADO) && tipoNovo.endsWith(SUFIXO_REMOVIDO)) {
+            doDestino.remove(chave);
+            combinadas++;
+        } else if (tipoNovo.endsWith(SUFIXO_ATUALIZADO)) {
+            NotificationDTO somada = somar(anterior.notificacao(), event.notificacao(),
+                    tipoAnterior.endsWith(SUFIXO_CRIADO) ? tipoAnterior : tipoNovo);
+            doDestino.put(chave, new NotificationEvent(event.destino(), event.chave(), somada,
+                    anterior.criadoEmNanos()));
+        } else {
+            doDestino.put(chave, new NotificationEvent(event.destino(), event.chave(), event.notificacao(),
+                    anterior.criadoEmNanos()));
+        }
+    }
+
+    private static NotificationDTO somar(NotificationDTO anterior, NotificationDTO nova, String tipo) {
+        if (anterior.changes() == null || nova.changes() == null) {
+            return nova.comAlteracoes(tipo, nova.changes());
+        }
+        Map<String, Object> changes = new LinkedHashMap<>(anterior.changes());
+        changes.putAll(nova.changes());
+        return nova.comAlteracoes(tipo, changes);
+    }
+
+    /** Retira tudo o que foi acumulado, por destino, na ordem de chegada. */
+    Map<String, List<NotificationEvent>> drenar() {
+        Map<String, List<NotificationEvent>> lotes = new LinkedHashMap<>();
+        pendentes.forEach((destino, eventos) -> {
+            if (!eventos.isEmpty()) {
+                lotes.put(destino, new ArrayList<>(eventos.values()));
+            }
+        });
+        pendentes.clear();
+        return lotes;
+    }
+
+    /** Notificações absorvidas por outra da mesma entidade desde a última chamada. */
+    int combinadas() {
+        int total = combinadas;
+        combinadas = 0;
+        return total;
+    }
+
+    int pendentes() {
+        return pendentes.values().stream().mapToInt(Map::size).sum();
+    }
+}
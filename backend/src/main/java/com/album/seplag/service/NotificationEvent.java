@@ -0,0 +1,43 @@
+package com.album.seplag.service;
+
+import java.util.List;
+
+import com.album.seplag.dto.NotificationDTO;
+
+/**
+ * Notificação WebSocket publicada como evento da aplicação; o {@link NotificationPublisher} a
+ * envia para {@code destino} somente após o commit da transação que a gerou.
+ * {@code escopos} são tópicos mais específicos que recebem a mesma notificação
+ * (ex.: {@code /topic/albuns.10}, {@code /topic/artistas.3.albuns}), para que um cliente interessado
+ * numa só entidade não receba o tráfego do tópico global.
+ * {@code chave} identifica a entidade (ex.: {@code album:10}) para a coalescência; sem chave a
+ * notificação nunca é combinada com outra.
+ */
+public record NotificationEvent(String destino, List<String> escopos, String chave,
+                                NotificationDTO notificacao, long criadoEmNanos) {
+
+    public NotificationEvent {
+        escopos = escopos != null ? List.copyOf(escopos) : List.of();
+    }
+
+    public NotificationEvent(String destino, String chave, NotificationDTO notificacao, long criadoEmNanos) {
+        this(destino, List.of(), chave, notificacao, criadoEmNanos);
+    }
+
+    public NotificationEvent(String destino, List<String> escopos, String chave, NotificationDTO notificacao) {
+        this(destino, escopos, chave, notificacao, System.nanoTime());
+    }
+
+    public NotificationEvent(String destino, String chave, NotificationDTO notificacao) {
+        this(destino, List.of(), chave, notificacao);
+    }
+
+    public NotificationEvent(String destino, NotificationDTO notificacao) {
+        this(destino, null, notificacao);
+    }
+
+    /** A mesma notificação endereçada só a {@code outroDestino}, mantendo chave e instante de criação. */
+    NotificationEvent para(String outroDestino) {
+        return new NotificationEvent(outroDestino, chave, notificacao, criadoEmNanos);
+    }
+}
@@ -0,0 +1,333 @@
+package com.album.seplag.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.album.seplag.dto.NotificationBatchDTO;
+import com.album.seplag.dto.NotificationDTO;
+import com.album.seplag.enums.NotificationOverflowPolicy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Envia as {@link NotificationEvent} ao broker STOMP depois do commit, fora da thread da
+ * requisição. Transações revertidas não geram notificação e a serialização/entrega não soma
+ * latência à requisição nem segura a conexão com o banco.
+ * <p>
+ * A fila é limitada ({@code websocket.notifications.queue-capacity}) e a política de estouro é
+ * configurável ({@link NotificationOverflowPolicy}). Com uma única thread (padrão) a ordem de
+ * publicação é preservada.
+ * <p>
+ * Com {@code websocket.notifications.coalescing.enabled} as notificações são acumuladas por
+ * {@code window-ms} e combinadas por entidade ({@link NotificationCoalescer}); cada janela vira um
+ * único frame {@link NotificationBatchDTO} por destino em {@code /topic/lote.<destino>}. Clientes que
+ * não entendem lotes continuam recebendo frames individuais no destino original enquanto
+ * {@code legacy-frames} estiver ativo. A janela é fechada por um agendador próprio: no agendador
+ * compartilhado do Spring ela ficaria parada atrás da sincronização de regionais ou do backfill
+ * de capas.
+ * <p>
+ * Cada notificação vai para o tópico global ({@code /topic/albuns}) e para os escopos do evento
+ * ({@code /topic/albuns.{id}}, {@code /topic/artistas.{id}.albuns}); com
+ * {@code websocket.notifications.global-topic} desligado só os escopos são usados.
+ * <p>
+ * Cada envio é numerado e guardado no {@link NotificationReplayBuffer}; com uma única thread os
+ * {@code seq} chegam ao cliente em ordem crescente.
+ * <ul>
+ *   <li>{@code websocket.notifications.queue.depth} (gauge): envios aguardando na fila</li>
+ *   <li>{@code websocket.notifications.publish} (timer): do evento ao envio ao broker, com tag outcome</li>
+ *   <li>{@code websocket.notifications.dropped} (counter): descartadas, com tag reason</li>
+ *   <li>{@code websocket.notifications.batch.size} (histograma): notificações por lote, com tag destination</li>
+ *   <li>{@code websocket.notifications.coalesced} (counter): notificações absorvidas por outra da mesma entidade</li>
+ *   <li>{@code websocket.notifications.fanout} (histograma): destinos por notificação</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class NotificationPublisher {
+
+    static final String METRICA_FILA = "websocket.notifications.queue.depth";
+    static final String METRICA_PUBLICACAO = "websocket.notifications.publish";
+    static final String METRICA_DESCARTADAS = "websocket.notifications.dropped";
+    static final String METRICA_LOTE = "websocket.notifications.batch.size";
+    static final String METRICA_COMBINADAS = "websocket.notifications.coalesced";
+    static final String METRICA_FANOUT = "websocket.notifications.fanout";
+
+    private static final String PREFIXO_TOPICO = "/topic/";
+    private static final String PREFIXO_LOTE = "/topic/lote.";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+    private final NotificationReplayBuffer replayBuffer;
+    private final NotificationOverflowPolicy politica;
+    private final long offerTimeoutMs;
+    private final boolean coalescer;
+    private final boolean framesLegados;
+    private final boolean topicoGlobal;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService agendador;
+    private final NotificationCoalescer janela = new NotificationCoalescer();
+    private final Timer enviadas;
+    private final Timer falhas;
+    private final Counter descartadasFilaCheia;
+    private final Counter descartadasMaisAntigas;
+    private final Counter combinadas;
+    private final DistributionSummary fanout;
+
+    public NotificationPublisher(SimpMessagingTemplate messagingTemplate,
+                                 MeterRegistry meterRegistry,
+                                 NotificationReplayBuffer replayBuffer,
+                                 @Value("${websocket.notifications.threads:1}") int threads,
+                                 @Value("${websocket.notifications.queue-capacity:1000}") int queueCapacity,
+                                 @Value("${websocket.notifications.overflow-policy:DROP_OLDEST}") NotificationOverflowPolicy politica,
+                                 @Value("${websocket.notifications.offer-timeout-ms:50}") long offerTimeoutMs,
+                                 @Value("${websocket.notifications.coalescing.enabled:true}") boolean coalescer,
+                                 @Value("${websocket.notifications.coalescing.window-ms:200}") long janelaMs,
+                                 @Value("${websocket.notifications.coalescing.legacy-frames:true}") boolean framesLegados,
+                                 @Value("${websocket.notifications.global-topic:true}") boolean topicoGlobal) {
+        this.messagingTemplate = messagingTemplate;
+        this.meterRegistry = meterRegistry;
+        this.replayBuffer = replayBuffer;
+        this.politica = politica;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.coalescer = coalescer;
+        this.framesLegados = framesLegados;
+        this.topicoGlobal = topicoGlobal;
+
+        int nucleos = Math.max(1, threads);
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(nucleos, nucleos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+                    Thread t = new Thread(r, "ws-notifications-" + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        // Com BLOCK as tarefas entram direto na fila; as threads precisam existir para consumi-la
+        this.executor.prestartAllCoreThreads();
+
+        if (coalescer) {
+            this.agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "ws-notifications-window");
+                t.setDaemon(true);
+                return t;
+            });
+            long intervalo = Math.max(1L, janelaMs);
+            agendador.scheduleWithFixedDelay(this::fecharJanelaAgendada, intervalo, intervalo, TimeUnit.MILLISECONDS);
+        } else {
+            this.agendador = null;
+        }
+
+        Gauge.builder(METRICA_FILA, executor, e -> e.getQueue().size())
+                .description("Notificações WebSocket aguardando envio")
+                .register(meterRegistry);
+        this.enviadas = publicacaoTimer(meterRegistry, "success");
+        this.falhas = publicacaoTimer(meterRegistry, "error");
+        this.descartadasFilaCheia = descartadas(meterRegistry, "queue_full");
+        this.descartadasMaisAntigas = descartadas(meterRegistry, "evicted");
+        this.combinadas = Counter.builder(METRICA_COMBINADAS)
+                .description("Notificações absorvidas por outra da mesma entidade na janela")
+                .register(meterRegistry);
+        this.fanout = DistributionSummary.builder(METRICA_FANOUT)
+                .description("Destinos (tópico global e escopos) por notificação")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Chamado após o commit; sem transação ativa (ex.: endpoint de teste) é chamado na hora.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotification(NotificationEvent event) {
+        List<String> destinos = destinos(event);
+        fanout.record(destinos.size());
+        if (coalescer) {
+            synchronized (janela) {
+                destinos.forEach(destino -> janela.adicionar(event.para(destino)));
+            }
+            return;
+        }
+        enfileirar(() -> enviar(event, destinos), event.destino(), 1);
+    }
+
+    /** Sem escopos a notificação sempre vai para o destino do evento, mesmo sem o tópico global. */
+    private List<String> destinos(NotificationEvent event) {
+        if (event.escopos().isEmpty()) {
+            return List.of(event.destino());
+        }
+        if (!topicoGlobal) {
+            return event.escopos();
+        }
+        List<String> destinos = new ArrayList<>(event.escopos().size() + 1);
+        destinos.add(event.destino());
+        destinos.addAll(event.escopos());
+        return destinos;
+    }
+
+    /**
+     * Fecha a janela de coalescência: um lote por destino vai para a fila de envio.
+     */
+    public void fecharJanela() {
+        Map<String, List<NotificationEvent>> lotes;
+        synchronized (janela) {
+            combinadas.increment(janela.combinadas());
+            lotes = janela.drenar();
+        }
+        lotes.forEach((destino, eventos) -> {
+            tamanhoLote(destino).record(eventos.size());
+            enfileirar(() -> enviarLote(destino, eventos), destino, eventos.size());
+        });
+    }
+
+    /** Uma exceção no agendador cancelaria as próximas execuções; a janela seguinte tenta de novo. */
+    private void fecharJanelaAgendada() {
+        try {
+            fecharJanela();
+        } catch (RuntimeException e) {
+            log.error("Erro ao fechar a janela de notificações: {}", e.getMessage(), e);
+        }
+    }
+
+    private void enfileirar(Runnable tarefa, String destino, int quantidade) {
+        switch (politica) {
+            case DROP_NEWEST -> {
+                try {
+                    executor.execute(tarefa);
+                } catch (RejectedExecutionException e) {
+                    descartar(destino, quantidade);
+                }
+            }
+            case DROP_OLDEST -> {
+                while (true) {
+                    try {
+                        executor.execute(tarefa);
+                        return;
+                    } catch (RejectedExecutionException e) {
+                        if (executor.isShutdown()) {
+                            descartar(destino, quantidade);
+                            return;
+                        }
+                        if (executor.getQueue().poll() != null) {
+                            descartadasMaisAntigas.increment();
+                        }
+                    }
+                }
+            }
+            case BLOCK -> {
+                try {
+                    if (executor.isShutdown() || !executor.getQueue().offer(tarefa, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        descartar(destino, quantidade);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    descartar(destino, quantidade);
+                }
+            }
+        }
+    }
+
+    private void enviar(NotificationEvent event, List<String> destinos) {
+        try {
+            destinos.forEach(destino -> messagingTemplate.convertAndSend(destino,
+                    replayBuffer.registrar(destino, event.notificacao())));
+            enviadas.record(System.nanoTime() - event.criadoEmNanos(), TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            falhas.record(System.nanoTime() - event.criadoEmNanos(), TimeUnit.NANOSECONDS);
+            log.warn("Falha ao enviar notificação {} para {}: {}",
+                    event.notificacao().type(), event.destino(), e.getMessage());
+        }
+    }
+
+    private void enviarLote(String destino, List<NotificationEvent> eventos) {
+        try {
+            List<NotificationDTO> notificacoes = eventos.stream()
+                    .map(e -> replayBuffer.registrar(destino, e.notificacao()))
+                    .toList();
+            messagingTemplate.convertAndSend(destinoLote(destino),
+                    new NotificationBatchDTO(Instant.now().toString(), notificacoes));
+            if (framesLegados) {
+                notificacoes.forEach(n -> messagingTemplate.convertAndSend(destino, n));
+            }
+            long agora = System.nanoTime();
+            eventos.forEach(e -> enviadas.record(agora - e.criadoEmNanos(), TimeUnit.NANOSECONDS));
+        } catch (RuntimeException e) {
+            long agora = System.nanoTime();
+            eventos.forEach(ev -> falhas.record(agora - ev.criadoEmNanos(), TimeUnit.NANOSECONDS));
+            log.warn("Falha ao enviar lote de {} notificações para {}: {}", eventos.size(), destino, e.getMessage());
+        }
+    }
+
+    private void descartar(String destino, int quantidade) {
+        descartadasFilaCheia.increment(quantidade);
+        log.warn("Fila de notificações cheia ({} pendentes); {} notificação(ões) para {} descartada(s)",
+                executor.getQueue().size(), quantidade, destino);
+    }
+
+    /**
+     * {@code /topic/albuns} → {@code /topic/lote.albuns}, {@code /topic/albuns.10} →
+     * {@code /topic/lote.albuns.10}: um único segmento após {@code /topic/}, como no relay STOMP.
+     */
+    static String destinoLote(String destino) {
+        return destino.startsWith(PREFIXO_TOPICO) ? PREFIXO_LOTE + destino.substring(PREFIXO_TOPICO.length()) : destino;
+    }
+
+    int pendentes() {
+        return executor.getQueue().size();
+    }
+
+    /** Fecha a última janela e envia o que ainda está na fila antes de encerrar, por no máximo 5 s. */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+        fecharJanela();
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Notificações pendentes descartadas no encerramento: {}", executor.shutdownNow().size());
+        }
+    }
+
+    private DistributionSummary tamanhoLote(String destino) {
+        return DistributionSummary.builder(METRICA_LOTE)
+                .description("Notificações por lote (janela de coalescência)")
+                .tag("destination", destino)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1000.0)
+                .register(meterRegistry);
+    }
+
+    private static Timer publicacaoTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(METRICA_PUBLICACAO)
+                .description("Latência entre o evento e o envio da notificação ao broker")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static Counter descartadas(MeterRegistry meterRegistry, String motivo) {
+        return Counter.builder(METRICA_DESCARTADAS)
+                .description("Notificações WebSocket descartadas")
+                .tag("reason", motivo)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,128 @@
+package com.album.seplag.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.album.seplag.dto.NotificationDTO;
+import com.album.seplag.dto.NotificationReplayDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Buffer circular das últimas notificações enviadas por esta instância
+ * ({@code websocket.notifications.replay.capacity}). Cada envio recebe um {@code seq} crescente;
+ * ao reconectar o cliente pede o que veio depois do último {@code seq} que viu e só recarrega a
+ * lista pela API se o intervalo já saiu do buffer.
+ * <p>
+ * {@code epoch} identifica a vida desta instância: depois de um reinício, ou vindo de outra réplica,
+ * os números não são comparáveis e a resposta é sempre resync. Cada notificação leva o epoch de
+ * quem a numerou.
+ * <p>
+ * Com o relay STOMP ({@code websocket.broker.relay.enabled}) o cliente recebe frames de todas as
+ * réplicas, mas esta só guarda o que ela mesma publicou: o replay não cobriria os eventos das
+ * outras. Nesse modo todo pedido com {@code since} responde resync e o cliente recarrega pela API.
+ * <p>
+ * Outros transportes (SSE) recebem cada notificação numerada como ouvintes, na ordem dos
+ * {@code seq}; ouvintes não podem bloquear. Como só veem o que esta instância publicou, ficam
+ * desligados no modo relay.
+ * <ul>
+ *   <li>{@code websocket.notifications.replay} (counter): pedidos de replay, com tag outcome
+ *   ({@code replayed} ou {@code resync})</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class NotificationReplayBuffer {
+
+    static final String METRICA_REPLAY = "websocket.notifications.replay";
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final int capacidade;
+    private final String[] destinos;
+    private final NotificationDTO[] notificacoes;
+    private final Counter reenviados;
+    private final Counter resyncs;
+    private final List<BiConsumer<String, NotificationDTO>> ouvintes = new CopyOnWriteArrayList<>();
+    private final boolean relay;
+    private long ultimaSeq;
+
+    public NotificationReplayBuffer(MeterRegistry meterRegistry,
+                                    @Value("${websocket.notifications.replay.capacity:10000}") int capacidade,
+                                    @Value("${websocket.broker.relay.enabled:false}") boolean relay) {
+        this.capacidade = Math.max(1, capacidade);
+        this.relay = relay;
+        this.destinos = new String[this.capacidade];
+        this.notificacoes = new NotificationDTO[this.capacidade];
+        this.reenviados = replay(meterRegistry, "replayed");
+        this.resyncs = replay(meterRegistry, "resync");
+    }
+
+    /** Numera a notificação e a guarda para replay; o retorno é o que deve ser enviado. */
+    public synchronized NotificationDTO registrar(String destino, NotificationDTO notificacao) {
+        long seq = ++ultimaSeq;
+        NotificationDTO numerada = notificacao.comSeq(epoch, seq);
+        int posicao = (int) ((seq - 1) % capacidade);
+        destinos[posicao] = destino;
+        notificacoes[posicao] = numerada;
+        ouvintes.forEach(ouvinte -> ouvinte.accept(destino, numerada));
+        return numerada;
+    }
+
+    public void adicionarOuvinte(BiConsumer<String, NotificationDTO> ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    /**
+     * Notificações de {@code destino} com {@code seq} maior que {@code desde}. Sem {@code desde} é o
+     * primeiro contato: devolve só o epoch e o último seq para o cliente começar a contar.
+     */
+    public NotificationReplayDTO desde(String destino, Long desde, String epochCliente) {
+        List<NotificationDTO> eventos = new ArrayList<>();
+        long ultima;
+        synchronized (this) {
+            ultima = ultimaSeq;
+            if (desde == null) {
+                return new NotificationReplayDTO(destino, epoch, ultima, false, List.of());
+            }
+            long maisAntiga = Math.max(1, ultima - capacidade + 1);
+            boolean outraVida = epochCliente != null && !epoch.equals(epochCliente);
+            if (relay || outraVida || desde > ultima || desde < maisAntiga - 1) {
+                resyncs.increment();
+                log.debug("Replay de {} desde {} indisponível (último {}, mais antigo {}); cliente deve recarregar",
+                        destino, desde, ultima, maisAntiga);
+                return new NotificationReplayDTO(destino, epoch, ultima, true, List.of());
+            }
+            for (long seq = desde + 1; seq <= ultima; seq++) {
+                int posicao = (int) ((seq - 1) % capacidade);
+                if (destino.equals(destinos[posicao])) {
+                    eventos.add(notificacoes[posicao]);
+                }
+            }
+        }
+        reenviados.increment();
+        return new NotificationReplayDTO(destino, epoch, ultima, false, eventos);
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public boolean isRelay() {
+        return relay;
+    }
+
+    private static Counter replay(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(METRICA_REPLAY)
+                .description("Pedidos de replay de notificações após reconexão")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,399 @@
+package com.album.seplag.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.album.seplag.dto.NotificationDTO;
+import com.album.seplag.dto.NotificationReplayDTO;
+import com.album.seplag.exception.RecursoIndisponivelException;
+import com.album.seplag.exception.ServicoSobrecarregadoException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stream SSE ({@code text/event-stream}) das mesmas notificações enviadas pelo WebSocket, para
+ * consumidores que só recebem (dashboards, serviços). Cada conexão é um {@link SseEmitter}
+ * assíncrono: ociosa, não ocupa thread do Tomcat, só o buffer do socket e uma fila própria.
+ * <p>
+ * As notificações chegam do {@link NotificationReplayBuffer} já numeradas; o {@code id} de cada
+ * evento é {@code epoch:seq}, então o {@code Last-Event-ID} enviado pelo EventSource ao reconectar
+ * retoma exatamente de onde parou, ou gera um evento {@code resync} se o intervalo já saiu do buffer.
+ * <p>
+ * A escrita é feita por {@code sse.threads} threads, fora da thread de publicação. Um leitor lento
+ * é desconectado quando enche a sua fila ({@code sse.queue-capacity}) ou quando uma escrita fica
+ * presa por mais de {@code sse.write-timeout-ms} (janela TCP cheia); ao reconectar recebe o que
+ * perdeu. A escrita bloqueada só termina quando o Tomcat desiste do socket, então a thread presa é
+ * compensada com uma thread extra no pool (até {@code sse.max-blocked-writers}) para os demais
+ * clientes não pararem. Heartbeat e verificação de prazo rodam num agendador próprio, fora do
+ * agendador compartilhado do Spring.
+ * <p>
+ * Com o relay STOMP ({@code websocket.broker.relay.enabled}) o stream não é oferecido: o buffer só
+ * vê o que esta réplica publicou, então o cliente perderia os eventos das outras e todo
+ * {@code Last-Event-ID} viraria resync. Nesse modo {@link #abrir} responde 501 e o consumidor usa
+ * o WebSocket, que recebe do broker os frames de todas as réplicas.
+ * <ul>
+ *   <li>{@code sse.connections.active} (gauge): conexões abertas</li>
+ *   <li>{@code sse.dropped} (counter): conexões encerradas pelo servidor, com tag reason
+ *   ({@code slow_reader} ou {@code error})</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class NotificationStreamService {
+
+    static final String METRICA_CONEXOES = "sse.connections.active";
+    static final String METRICA_DESCARTADAS = "sse.dropped";
+    static final String EVENTO_RESYNC = "resync";
+
+    /** Marcador de heartbeat na fila do cliente; vira um comentário SSE. */
+    private static final NotificationDTO HEARTBEAT = new NotificationDTO("HEARTBEAT", null, (String) null, null);
+
+    private final NotificationReplayBuffer replayBuffer;
+    private final Set<Cliente> clientes = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService agendador;
+    private final int threads;
+    private final int maxPresos;
+    private final int capacidadeFila;
+    private final long timeoutMs;
+    private final long prazoEscritaNanos;
+    private final int maxConexoes;
+    private int presos;
+    private final Counter lentos;
+    private final Counter erros;
+
+    public NotificationStreamService(NotificationReplayBuffer replayBuffer,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${sse.threads:2}") int threads,
+                                     @Value("${sse.queue-capacity:256}") int capacidadeFila,
+                                     @Value("${sse.timeout-ms:1800000}") long timeoutMs,
+                                     @Value("${sse.max-connections:10000}") int maxConexoes,
+                                     @Value("${sse.write-timeout-ms:5000}") long prazoEscritaMs,
+                                     @Value("${sse.max-blocked-writers:32}") int maxPresos,
+                                     @Value("${sse.heartbeat-ms:15000}") long heartbeatMs) {
+        this.replayBuffer = replayBuffer;
+        this.threads = Math.max(1, threads);
+        this.maxPresos = Math.max(0, maxPresos);
+        this.capacidadeFila = Math.max(1, capacidadeFila);
+        this.timeoutMs = timeoutMs;
+        this.prazoEscritaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, prazoEscritaMs));
+        this.maxConexoes = maxConexoes;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "sse-writer-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sse-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        long verificacaoMs = Math.max(10, prazoEscritaMs / 4);
+        agendador.scheduleWithFixedDelay(this::verificarEscritas, verificacaoMs, verificacaoMs, TimeUnit.MILLISECONDS);
+        agendador.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        Gauge.builder(METRICA_CONEXOES, clientes, Set::size)
+                .description("Conexões SSE abertas")
+                .register(meterRegistry);
+        this.lentos = descartadas(meterRegistry, "slow_reader");
+        this.erros = descartadas(meterRegistry, "error");
+        if (!replayBuffer.isRelay()) {
+            replayBuffer.adicionarOuvinte(this::publicar);
+        }
+    }
+
+    /**
+     * Abre um stream para {@code destinos}. Com {@code lastEventId} os eventos perdidos são
+     * enviados antes dos novos, sem repetir nem pular nenhum.
+     */
+    public SseEmitter abrir(List<String> destinos, String lastEventId) {
+        if (replayBuffer.isRelay()) {
+            throw new RecursoIndisponivelException(
+                    "Stream SSE indisponível com o relay STOMP; use o WebSocket em /ws/albuns");
+        }
+        if (clientes.size() >= maxConexoes) {
+            throw new ServicoSobrecarregadoException("Limite de conexões SSE atingido", 5);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Cliente cliente = new Cliente(emitter, Set.copyOf(destinos), new ArrayBlockingQueue<>(capacidadeFila));
+        emitter.onCompletion(() -> clientes.remove(cliente));
+        emitter.onTimeout(() -> clientes.remove(cliente));
+        emitter.onError(e -> clientes.remove(cliente));
+
+        // Registra antes de ler o buffer: o que chegar no meio fica na fila e os repetidos são pulados pelo seq
+        clientes.add(cliente);
+        cliente.iniciar(retomar(destinos, lastEventId));
+        agendar(cliente);
+        return emitter;
+    }
+
+    private Deque<NotificationDTO> retomar(List<String> destinos, String lastEventId) {
+        Deque<NotificationDTO> inicio = new ArrayDeque<>();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return inicio;
+        }
+        String epoch = null;
+        Long desde = null;
+        int separador = lastEventId.lastIndexOf(':');
+        try {
+            epoch = separador > 0 ? lastEventId.substring(0, separador) : null;
+            desde = Long.parseLong(lastEventId.substring(separador + 1));
+        } catch (NumberFormatException e) {
+            log.debug("Last-Event-ID inválido: {}", lastEventId);
+        }
+        List<NotificationDTO> perdidas = new ArrayList<>();
+        Long limite = null;
+        for (String destino : destinos) {
+            NotificationReplayDTO replay = replayBuffer.desde(destino, desde != null ? desde : -1L, epoch);
+            if (replay.resync()) {
+                inicio.add(resync(replay.ultimaSeq()));
+                return inicio;
+            }
+            // Tudo acima do primeiro snapshot já está na fila ao vivo; passar dele faria o filtro por seq pular eventos
+            limite = limite != null ? limite : replay.ultimaSeq();
+            perdidas.addAll(replay.events());
+        }
+        if (limite == null) {
+            return inicio;
+        }
+        long ate = limite;
+        perdidas.removeIf(n -> n.seq() > ate);
+        perdidas.sort(Comparator.comparing(NotificationDTO::seq));
+        inicio.addAll(perdidas);
+        return inicio;
+    }
+
+    private void publicar(String destino, NotificationDTO notificacao) {
+        for (Cliente cliente : clientes) {
+            if (!cliente.destinos().contains(destino)) {
+                continue;
+            }
+            if (!cliente.fila().offer(notificacao)) {
+                log.debug("Cliente SSE lento desconectado ({} eventos pendentes)", cliente.fila().size());
+                descartar(cliente);
+                continue;
+            }
+            agendar(cliente);
+        }
+    }
+
+    /** Comentário periódico para que proxies e load balancers não derrubem conexões ociosas. */
+    void heartbeat() {
+        for (Cliente cliente : clientes) {
+            if (cliente.fila().isEmpty() && cliente.fila().offer(HEARTBEAT)) {
+                agendar(cliente);
+            }
+        }
+    }
+
+    private void agendar(Cliente cliente) {
+        if (cliente.iniciado() && cliente.agendado().compareAndSet(false, true)) {
+            executor.execute(() -> escrever(cliente));
+        }
+    }
+
+    private void escrever(Cliente cliente) {
+        try {
+            NotificationDTO notificacao;
+            while (!cliente.descartado && (notificacao = cliente.proxima()) != null) {
+                cliente.escrevendoDesde = System.nanoTime();
+                enviar(cliente, notificacao);
+                cliente.escrevendoDesde = 0;
+            }
+        } catch (IOException | IllegalStateException e) {
+            if (!cliente.descartado) {
+                erros.increment();
+                log.debug("Falha ao escrever no stream SSE: {}", e.getMessage());
+            }
+            encerrar(cliente);
+        } finally {
+            cliente.escrevendoDesde = 0;
+            cliente.agendado().set(false);
+        }
+        if (cliente.descartado) {
+            fecharDescartado(cliente);
+        } else if (!cliente.fila().isEmpty() && clientes.contains(cliente)) {
+            agendar(cliente);
+        }
+    }
+
+    private void enviar(Cliente cliente, NotificationDTO notificacao) throws IOException {
+        if (notificacao == HEARTBEAT) {
+            cliente.emitter().send(SseEmitter.event().comment(""));
+        } else if (EVENTO_RESYNC.equals(notificacao.type())) {
+            cliente.ultimaSeq = Math.max(cliente.ultimaSeq, notificacao.seq());
+            cliente.emitter().send(SseEmitter.event().name(EVENTO_RESYNC)
+                    .id(replayBuffer.getEpoch() + ":" + cliente.ultimaSeq).data(""));
+        } else if (notificacao.seq() > cliente.ultimaSeq) {
+            cliente.ultimaSeq = notificacao.seq();
+            cliente.emitter().send(SseEmitter.event()
+                    .id(replayBuffer.getEpoch() + ":" + notificacao.seq())
+                    .data(notificacao, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /** Descarta clientes cuja escrita passou do prazo. */
+    void verificarEscritas() {
+        long agora = System.nanoTime();
+        for (Cliente cliente : clientes) {
+            long desde = cliente.escrevendoDesde;
+            if (desde != 0 && agora - desde > prazoEscritaNanos) {
+                log.debug("Cliente SSE lento desconectado: escrita bloqueada há {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(agora - desde));
+                descartar(cliente);
+            }
+        }
+    }
+
+    /**
+     * Tira um leitor lento do fan-out. O emitter não é fechado aqui: o fechamento disputaria o lock
+     * da escrita presa (e bloquearia quem publica); quem fecha é a thread de escrita quando sair.
+     */
+    private void descartar(Cliente cliente) {
+        if (!clientes.remove(cliente)) {
+            return;
+        }
+        cliente.compensado = cliente.escrevendoDesde != 0 && compensar();
+        cliente.descartado = true;
+        cliente.fila().clear();
+        lentos.increment();
+        // Se a escrita terminou entre a verificação e o descarte, ninguém mais fecharia
+        agendar(cliente);
+    }
+
+    /** Fecha a conexão de um cliente descartado por prazo e devolve a thread extra, uma única vez. */
+    private void fecharDescartado(Cliente cliente) {
+        if (cliente.fechado.compareAndSet(false, true)) {
+            cliente.emitter().complete();
+            if (cliente.compensado) {
+                liberarCompensacao();
+            }
+        }
+    }
+
+    /** Uma thread a mais enquanto a escrita do cliente descartado não termina. */
+    private synchronized boolean compensar() {
+        if (presos >= maxPresos) {
+            return false;
+        }
+        presos++;
+        executor.setMaximumPoolSize(threads + presos);
+        executor.setCorePoolSize(threads + presos);
+        return true;
+    }
+
+    private synchronized void liberarCompensacao() {
+        if (presos > 0) {
+            presos--;
+            executor.setCorePoolSize(threads + presos);
+            executor.setMaximumPoolSize(threads + presos);
+        }
+    }
+
+    private void encerrar(Cliente cliente) {
+        if (clientes.remove(cliente)) {
+            cliente.fila().clear();
+            cliente.emitter().complete();
+        }
+    }
+
+    /** Marcador do evento {@code resync}: o cliente recarrega pela API e passa a contar deste id. */
+    private NotificationDTO resync(long ultimaSeq) {
+        return new NotificationDTO(EVENTO_RESYNC, null, (String) null, Map.of()).comSeq(replayBuffer.getEpoch(), ultimaSeq);
+    }
+
+    int conexoes() {
+        return clientes.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        agendador.shutdownNow();
+        clientes.forEach(this::encerrar);
+        executor.shutdownNow();
+    }
+
+    private static Counter descartadas(MeterRegistry meterRegistry, String motivo) {
+        return Counter.builder(METRICA_DESCARTADAS)
+                .description("Conexões SSE encerradas pelo servidor")
+                .tag("reason", motivo)
+                .register(meterRegistry);
+    }
+
+    private static final class Cliente {
+
+        private final SseEmitter emitter;
+        private final Set<String> destinos;
+        private final BlockingQueue<NotificationDTO> fila;
+        private final AtomicBoolean agendado = new AtomicBoolean();
+        /** {@link System#nanoTime()} do início da escrita em andamento; 0 sem escrita. */
+        private volatile long escrevendoDesde;
+        private volatile boolean descartado;
+        private volatile boolean compensado;
+        private final AtomicBoolean fechado = new AtomicBoolean();
+        private volatile Deque<NotificationDTO> inicio;
+        private long ultimaSeq;
+
+        Cliente(SseEmitter emitter, Set<String> destinos, BlockingQueue<NotificationDTO> fila) {
+            this.emitter = emitter;
+            this.destinos = destinos;
+            this.fila = fila;
+        }
+
+        void iniciar(Deque<NotificationDTO> eventosIniciais) {
+            this.inicio = eventosIniciais;
+        }
+
+        boolean iniciado() {
+            return inicio != null;
+        }
+
+        /** Primeiro o replay, depois a fila ao vivo. Só chamado pela thread que detém {@code agendado}. */
+        NotificationDTO proxima() {
+            NotificationDTO n = inicio.poll();
+            return n != null ? n : fila.poll();
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        Set<String> destinos() {
+            return destinos;
+        }
+
+        BlockingQueue<NotificationDTO> fila() {
+            return fila;
+        }
+
+        AtomicBoolean agendado() {
+            return agendado;
+        }
+    }
+}
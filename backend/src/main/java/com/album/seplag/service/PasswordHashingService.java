@@ -0,0 +1,166 @@
+package com.album.seplag.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.album.seplag.exception.ServicoSobrecarregadoException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Faixa dedicada e limitada para BCrypt (hash e verificação de senha).
+ * Rajadas de login/registro ficam restritas a {@code security.password-lane.threads} núcleos;
+ * com a fila cheia a requisição falha rápido com 503 + Retry-After em vez de ocupar uma thread do Tomcat.
+ * A espera pelo resultado é limitada por {@code security.password-lane.timeout-ms}; ao vencer, a
+ * requisição recebe o mesmo 503 e a operação, se ainda estiver na fila, não chega a ser executada.
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final int cost;
+    private final long retryAfterSeconds;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejeitadas;
+    private final Counter expiradas;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.bcrypt.cost:10}") int cost,
+                                  @Value("${security.password-lane.threads:0}") int threads,
+                                  @Value("${security.password-lane.queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.password-lane.retry-after-seconds:2}") long retryAfterSeconds,
+                                  @Value("${security.password-lane.timeout-ms:5000}") long timeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.cost = cost;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.timeoutMs = timeoutMs;
+
+        int nucleos = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(nucleos, nucleos, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "password-lane-" + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Operações de senha aguardando na fila")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operações de senha em execução")
+                .register(meterRegistry);
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.rejeitadas = Counter.builder("auth.password.rejected")
+                .description("Operações de senha rejeitadas por fila cheia")
+                .register(meterRegistry);
+        this.expiradas = Counter.builder("auth.password.timeouts")
+                .description("Operações de senha abandonadas após security.password-lane.timeout-ms")
+                .register(meterRegistry);
+    }
+
+    public String encode(String senha) {
+        return aguardar(submeter(() -> encodeTimer.record(() -> passwordEncoder.encode(senha))));
+    }
+
+    public boolean matches(String senha, String hash) {
+        return aguardar(submeter(() -> matchesTimer.record(() -> passwordEncoder.matches(senha, hash))));
+    }
+
+    /**
+     * Hash em segundo plano para o rehash oportunista; com a fila cheia retorna um future falho
+     * em vez de lançar, já que o login não depende do resultado.
+     */
+    public CompletableFuture<String> encodeAsync(String senha) {
+        try {
+            return submeter(() -> encodeTimer.record(() -> passwordEncoder.encode(senha)));
+        } catch (ServicoSobrecarregadoException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Indica se o hash foi gerado com um custo diferente do configurado em {@code security.bcrypt.cost}.
+     */
+    public boolean precisaRehash(String hash) {
+        if (hash == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(hash);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != cost;
+    }
+
+    private <T> CompletableFuture<T> submeter(Supplier<T> tarefa) {
+        try {
+            return CompletableFuture.supplyAsync(tarefa, executor);
+        } catch (RejectedExecutionException e) {
+            rejeitadas.increment();
+            log.warn("Fila de verificação de senha cheia ({} pendentes)", executor.getQueue().size());
+            throw sobrecarregado();
+        }
+    }
+
+    private <T> T aguardar(CompletableFuture<T> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Ainda na fila: o cancelamento impede a execução; em andamento, o resultado é descartado
+            future.cancel(false);
+            expiradas.increment();
+            log.warn("Operação de senha excedeu {} ms ({} pendentes)", timeoutMs, executor.getQueue().size());
+            throw sobrecarregado();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Operação de senha interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Erro na operação de senha", e.getCause());
+        }
+    }
+
+    private ServicoSobrecarregadoException sobrecarregado() {
+        return new ServicoSobrecarregadoException(
+                "Serviço de autenticação sobrecarregado, tente novamente em instantes", retryAfterSeconds);
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operacao) {
+        return Timer.builder("auth.password.hash")
+                .description("Latência do BCrypt na faixa dedicada")
+                .tag("operation", operacao)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -11,9 +11,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +35,10 @@ public class RegionalService {
         this.restTemplate = restTemplate;
     }
 
+    /**
+     * Diferença entre o endpoint externo e o mapa local, aplicada com no máximo três comandos
+     * (inserção das novas, reativação e inativação em lote), qualquer que seja o número de regionais.
+     */
     @Scheduled(fixedRate = 3600000) // A cada 1 hora
     @Transactional
     public void sincronizarRegionais() {
@@ -39,38 +46,47 @@ public class RegionalService {
             logger.info("Iniciando sincronização de regionais...");
 
             List<Map<String, Object>> regionaisExternas = buscarRegionaisExternas();
+            if (regionaisExternas.isEmpty()) {
+                // Falha ou resposta vazia do endpoint: sem essa guarda todas as regionais seriam inativadas
+                logger.warn("Endpoint de regionais não retornou dados; sincronização ignorada");
+                return;
+            }
             List<Regional> regionaisLocais = regionalRepository.findAll();
 
             Map<String, Regional> regionaisLocaisPorNome = regionaisLocais.stream()
                     .collect(Collectors.toMap(Regional::getNome, r -> r, (r1, r2) -> r1));
 
+            Set<String> novas = new LinkedHashSet<>();
+            List<Long> reativar = new ArrayList<>();
             for (Map<String, Object> regionalExterna : regionaisExternas) {
                 String nome = extrairNome(regionalExterna);
-                if (nome == null) continue;
-
-                Optional<Regional> regionalLocalOpt = regionalRepository.findByNome(nome);
-                if (regionalLocalOpt.isPresent()) {
-                    Regional regionalLocal = regionalLocalOpt.get();
-                    if (!regionalLocal.getAtivo()) {
-                        regionalLocal.setAtivo(true);
-                        regionalRepository.save(regionalLocal);
-                    }
-                } else {
-                    Regional novaRegional = new Regional();
-                    novaRegional.setNome(nome);
-                    novaRegional.setAtivo(true);
-                    regionalRepository.save(novaRegional);
-                    logger.info("Nova regional inserida: {}", nome);
+                if (nome == null || nome.isEmpty()) continue;
+
+                Regional regionalLocal = regionaisLocaisPorNome.remove(nome);
+                if (regionalLocal == null) {
+                    novas.add(nome);
+                } else if (!regionalLocal.getAtivo()) {
+                    reativar.add(regionalLocal.getId());
                 }
-                regionaisLocaisPorNome.remove(nome);
             }
 
-            for (Regional regional : regionaisLocaisPorNome.values()) {
-                if (regional.getAtivo()) {
-                    regional.setAtivo(false);
-                    regionalRepository.save(regional);
-                    logger.info("Regional inativada (não disponível no endpoint): {}", regional.getNome());
-                }
+            List<Regional> inativar = regionaisLocaisPorNome.values().stream()
+                    .filter(Regional::getAtivo)
+                    .toList();
+
+            LocalDateTime agora = LocalDateTime.now();
+            if (!novas.isEmpty()) {
+                int inseridas = regionalRepository.inserirNovas(novas);
+                logger.info("Novas regionais inseridas: {} ({})", inseridas, novas);
+            }
+            if (!reativar.isEmpty()) {
+                regionalRepository.atualizarAtivo(reativar, true, agora);
+                logger.info("Regionais reativadas: {}", reativar.size());
+            }
+            if (!inativar.isEmpty()) {
+                regionalRepository.atualizarAtivo(inativar.stream().map(Regional::getId).toList(), false, agora);
+                logger.info("Regionais inativadas (não disponíveis no endpoint): {}",
+                        inativar.stream().map(Regional::getNome).toList());
             }
 
             logger.info("Sincronização de regionais concluída");
@@ -0,0 +1,248 @@
+package com.album.seplag.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.album.seplag.model.RevogacaoUsuario;
+import com.album.seplag.model.TokenRevogado;
+import com.album.seplag.repository.RevogacaoUsuarioRepository;
+import com.album.seplag.repository.TokenRevogadoRepository;
+import com.album.seplag.security.BloomFilter;
+import com.album.seplag.security.VerifiedToken;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revogação de tokens (logout, revogação pelo admin e revogação de todos os tokens de um usuário).
+ * <p>
+ * O estado fica no Postgres (V13); cada nó mantém um {@link BloomFilter} com os jti revogados,
+ * então a verificação por requisição é uma consulta em memória e só um possível acerto vai ao banco
+ * para confirmação. As revogações totais são poucas e ficam inteiras em memória
+ * (username → {@code revogadoAntes}), comparadas com o {@code iat} sem ir ao banco; assim um
+ * "sair de todos" não faz cada requisição seguinte do usuário consultar o banco. Revogações feitas
+ * neste nó valem assim que a transação é confirmada; as de outros nós entram na sincronização incremental
+ * ({@code sync-interval-ms}). Filtro e mapa são reconstruídos periodicamente para descartar
+ * registros expirados. Até a primeira construção, toda verificação vai ao banco.
+ * <p>
+ * O {@code iat} do JWT tem precisão de segundos; {@code revogadoAntes} é truncado para segundos e só
+ * tokens com {@code iat} estritamente anterior são rejeitados, para que um login no mesmo segundo
+ * de um "sair de todos" não nasça revogado.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    static final String METRICA_VERIFICACOES = "auth.revocation.checks";
+
+    /** Folga na sincronização para revogações gravadas em transações que terminaram fora de ordem. */
+    private static final long FOLGA_SINCRONIZACAO_MS = 2000;
+
+    private final TokenRevogadoRepository tokenRevogadoRepository;
+    private final RevogacaoUsuarioRepository revogacaoUsuarioRepository;
+    private final long capacidadeEsperada;
+    private final double taxaFalsoPositivo;
+    private final long refreshExpirationMs;
+    private final Counter negativos;
+    private final Counter falsosPositivos;
+    private final Counter revogados;
+
+    private volatile BloomFilter filtro;
+    private volatile Map<String, LocalDateTime> revogacoesUsuario;
+    private volatile LocalDateTime ultimaSincronizacao;
+
+    public TokenRevocationService(TokenRevogadoRepository tokenRevogadoRepository,
+                                  RevogacaoUsuarioRepository revogacaoUsuarioRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.revocation.expected-entries:100000}") long capacidadeEsperada,
+                                  @Value("${security.revocation.false-positive-rate:0.001}") double taxaFalsoPositivo,
+                                  @Value("${jwt.refresh-expiration:604800000}") long refreshExpirationMs) {
+        this.tokenRevogadoRepository = tokenRevogadoRepository;
+        this.revogacaoUsuarioRepository = revogacaoUsuarioRepository;
+        this.capacidadeEsperada = capacidadeEsperada;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+        this.refreshExpirationMs = refreshExpirationMs;
+        this.negativos = contador(meterRegistry, "negative");
+        this.falsosPositivos = contador(meterRegistry, "false_positive");
+        this.revogados = contador(meterRegistry, "revoked");
+    }
+
+    public boolean isRevogado(VerifiedToken token) {
+        BloomFilter atual = filtro;
+        Map<String, LocalDateTime> usuarios = revogacoesUsuario;
+        if (atual == null || usuarios == null) {
+            boolean revogado = verificarNoBanco(token);
+            if (revogado) {
+                revogados.increment();
+            }
+            return revogado;
+        }
+        if (emitidoAntes(token, usuarios.get(token.username()))) {
+            revogados.increment();
+            return true;
+        }
+        if (token.jti() == null || !atual.talvezContenha(chaveJti(token.jti()))) {
+            negativos.increment();
+            return false;
+        }
+        boolean revogado = tokenRevogadoRepository.existsById(token.jti());
+        (revogado ? revogados : falsosPositivos).increment();
+        return revogado;
+    }
+
+    @Transactional
+    public void revogar(VerifiedToken token) {
+        if (token.jti() == null) {
+            // Tokens sem jti só podem ser invalidados pela revogação total do usuário
+            revogarTodos(token.username());
+            return;
+        }
+        tokenRevogadoRepository.save(new TokenRevogado(token.jti(), token.username(),
+                paraLocal(token.expiresAt()), LocalDateTime.now()));
+        adicionar(chaveJti(token.jti()));
+        log.info("Token revogado - username: {}, jti: {}", token.username(), token.jti());
+    }
+
+    /**
+     * Invalida todos os tokens do usuário emitidos até agora. O registro dura o tempo de vida de um
+     * refresh token, depois disso nenhum token afetado ainda seria aceito.
+     */
+    @Transactional
+    public void revogarTodos(String username) {
+        LocalDateTime agora = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        revogacaoUsuarioRepository.save(new RevogacaoUsuario(username, agora,
+                agora.plusNanos(refreshExpirationMs * 1_000_000)));
+        // Só depois do commit: o mapa não tem confirmação no banco, um rollback deixaria o usuário bloqueado
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    registrarUsuario(revogacoesUsuario, username, agora);
+                }
+            });
+        } else {
+            registrarUsuario(revogacoesUsuario, username, agora);
+        }
+        log.info("Todos os tokens do usuário revogados - username: {}", username);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        reconstruir();
+    }
+
+    /**
+     * Remove registros expirados e constrói um filtro novo com os restantes. Revogações feitas
+     * durante a reconstrução são recuperadas pela sincronização a partir do início dela.
+     */
+    @Scheduled(initialDelayString = "${security.revocation.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${security.revocation.rebuild-interval-ms:3600000}")
+    public synchronized void reconstruir() {
+        try {
+            LocalDateTime inicio = LocalDateTime.now();
+            tokenRevogadoRepository.deleteExpirados(inicio);
+            revogacaoUsuarioRepository.deleteExpirados(inicio);
+
+            List<String> jtis = tokenRevogadoRepository.findJtisValidos(inicio);
+            List<RevogacaoUsuario> usuarios = revogacaoUsuarioRepository.findValidas(inicio);
+            BloomFilter novo = new BloomFilter(Math.max(capacidadeEsperada, 2L * jtis.size()), taxaFalsoPositivo);
+            jtis.forEach(jti -> novo.adicionar(chaveJti(jti)));
+            Map<String, LocalDateTime> novasRevogacoes = new ConcurrentHashMap<>();
+            usuarios.forEach(r -> registrarUsuario(novasRevogacoes, r.getUsername(), r.getRevogadoAntes()));
+
+            filtro = novo;
+            revogacoesUsuario = novasRevogacoes;
+            ultimaSincronizacao = inicio;
+            log.info("Filtro de revogação reconstruído - tokens: {}, usuários: {}, bits: {}",
+                    jtis.size(), usuarios.size(), novo.getTotalBits());
+        } catch (RuntimeException e) {
+            log.warn("Falha ao reconstruir filtro de revogação: {}", e.getMessage());
+        }
+        sincronizar();
+    }
+
+    /**
+     * Adiciona ao filtro e ao mapa as revogações gravadas por outros nós desde a última sincronização.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:5000}")
+    public synchronized void sincronizar() {
+        BloomFilter atual = filtro;
+        Map<String, LocalDateTime> usuarios = revogacoesUsuario;
+        LocalDateTime desde = ultimaSincronizacao;
+        if (atual == null || usuarios == null || desde == null) {
+            return;
+        }
+        try {
+            LocalDateTime agora = LocalDateTime.now();
+            LocalDateTime limite = desde.minusNanos(FOLGA_SINCRONIZACAO_MS * 1_000_000);
+            tokenRevogadoRepository.findJtisRevogadosDesde(limite, agora)
+                    .forEach(jti -> atual.adicionar(chaveJti(jti)));
+            revogacaoUsuarioRepository.findRevogadasDesde(limite, agora)
+                    .forEach(r -> registrarUsuario(usuarios, r.getUsername(), r.getRevogadoAntes()));
+            ultimaSincronizacao = agora;
+        } catch (RuntimeException e) {
+            log.warn("Falha ao sincronizar filtro de revogação: {}", e.getMessage());
+        }
+    }
+
+    private boolean verificarNoBanco(VerifiedToken token) {
+        if (token.jti() != null && tokenRevogadoRepository.existsById(token.jti())) {
+            return true;
+        }
+        return revogacaoUsuarioRepository.findById(token.username())
+                .map(r -> emitidoAntes(token, r.getRevogadoAntes()))
+                .orElse(false);
+    }
+
+    /** Tokens sem {@code iat} não têm como provar que são posteriores à revogação. */
+    private static boolean emitidoAntes(VerifiedToken token, LocalDateTime revogadoAntes) {
+        if (revogadoAntes == null) {
+            return false;
+        }
+        return token.issuedAt() == null
+                || paraLocal(token.issuedAt()).isBefore(revogadoAntes.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    private static void registrarUsuario(Map<String, LocalDateTime> usuarios, String username, LocalDateTime revogadoAntes) {
+        if (usuarios != null) {
+            usuarios.merge(username, revogadoAntes, (atual, novo) -> novo.isAfter(atual) ? novo : atual);
+        }
+    }
+
+    private void adicionar(String chave) {
+        BloomFilter atual = filtro;
+        if (atual != null) {
+            atual.adicionar(chave);
+        }
+    }
+
+    private static String chaveJti(String jti) {
+        return "j:" + jti;
+    }
+
+    private static LocalDateTime paraLocal(Instant instante) {
+        return LocalDateTime.ofInstant(instante, ZoneId.systemDefault());
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder(METRICA_VERIFICACOES)
+                .description("Verificações de revogação de token por resultado")
+                .tag("result", resultado)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,296 @@
+package com.album.seplag.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.album.seplag.dto.UploadSessaoCreateDTO;
+import com.album.seplag.dto.UploadSessaoDTO;
+import com.album.seplag.enums.StatusUploadSessao;
+import com.album.seplag.exception.ResourceNotFoundException;
+import com.album.seplag.model.CapaAlbum;
+import com.album.seplag.model.UploadSessao;
+import com.album.seplag.repository.AlbumRepository;
+import com.album.seplag.repository.CapaAlbumRepository;
+import com.album.seplag.repository.UploadSessaoRepository;
+
+import io.minio.messages.Part;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Upload resumível de capas: sessão -> partes (PUT com offset) -> conclusão.
+ * Cada parte corresponde a uma parte do multipart upload do MinIO; o estado fica no Postgres,
+ * então o cliente pode retomar em qualquer nó após uma queda de conexão.
+ * <p>
+ * Nenhuma chamada ao MinIO acontece com transação aberta: um MinIO lento não pode segurar
+ * conexões do pool do banco. Só a gravação final de cada operação é transacional.
+ */
+@Slf4j
+@Service
+public class UploadSessaoService {
+
+    /** Mínimo do S3/MinIO para partes que não são a última. */
+    static final int TAMANHO_MINIMO_PARTE = 5 * 1024 * 1024;
+
+    private final UploadSessaoRepository uploadSessaoRepository;
+    private final AlbumRepository albumRepository;
+    private final CapaAlbumRepository capaAlbumRepository;
+    private final MinIOService minIOService;
+    private final ImageMetadataExtractor imageMetadataExtractor;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoParte;
+    private final long tamanhoMaximo;
+    private final long ttlMs;
+
+    public UploadSessaoService(UploadSessaoRepository uploadSessaoRepository,
+                               AlbumRepository albumRepository,
+                               CapaAlbumRepository capaAlbumRepository,
+                               MinIOService minIOService,
+                               ImageMetadataExtractor imageMetadataExtractor,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${upload.resumivel.tamanho-parte:8388608}") int tamanhoParte,
+                               @Value("${upload.resumivel.tamanho-maximo:104857600}") long tamanhoMaximo,
+                               @Value("${upload.resumivel.ttl-ms:86400000}") long ttlMs) {
+        this.uploadSessaoRepository = uploadSessaoRepository;
+        this.albumRepository = albumRepository;
+        this.capaAlbumRepository = capaAlbumRepository;
+        this.minIOService = minIOService;
+        this.imageMetadataExtractor = imageMetadataExtractor;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoParte = Math.max(tamanhoParte, TAMANHO_MINIMO_PARTE);
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.ttlMs = ttlMs;
+    }
+
+    public UploadSessaoDTO criar(Long albumId, UploadSessaoCreateDTO dto) {
+        if (!albumRepository.existsById(albumId)) {
+            throw new ResourceNotFoundException("Álbum não encontrado com id: " + albumId);
+        }
+        if (dto.tamanho() > tamanhoMaximo) {
+            throw new IllegalArgumentException("Arquivo excede o tamanho máximo de " + tamanhoMaximo + " bytes");
+        }
+
+        String objectName = "albuns/" + albumId + "/" + UUID.randomUUID() + "_" + dto.nomeArquivo();
+        String uploadId;
+        try {
+            uploadId = minIOService.iniciarUploadMultipart(objectName, dto.contentType());
+        } catch (Exception e) {
+            log.error("Erro ao iniciar multipart upload para álbum ID {}: {}", albumId, e.getMessage(), e);
+            throw new RuntimeException("Erro ao iniciar upload da capa", e);
+        }
+
+        UploadSessao sessao = new UploadSessao();
+        sessao.setId(UUID.randomUUID().toString());
+        sessao.setAlbumId(albumId);
+        sessao.setNomeArquivo(objectName);
+        sessao.setContentType(dto.contentType());
+        sessao.setTamanhoTotal(dto.tamanho());
+        sessao.setTamanhoParte(tamanhoParte);
+        sessao.setUploadId(uploadId);
+        sessao.setExpiraEm(LocalDateTime.now().plus(Duration.ofMillis(ttlMs)));
+
+        UploadSessao saved;
+        try {
+            saved = uploadSessaoRepository.save(sessao);
+        } catch (RuntimeException e) {
+            abortarMultipart(sessao);
+            throw e;
+        }
+        log.info("Sessão de upload criada - ID: {}, Álbum ID: {}, tamanho: {}", saved.getId(), albumId, dto.tamanho());
+        return toDTO(saved);
+    }
+
+    /** As partes são carregadas junto com a sessão, então não há transação a manter aberta. */
+    public UploadSessaoDTO progresso(Long albumId, String sessaoId) {
+        return toDTO(buscarSessaoAtiva(albumId, sessaoId));
+    }
+
+    /**
+     * Recebe a parte que começa em {@code offset}. Reenviar uma parte já recebida a substitui,
+     * então o cliente pode repetir o PUT com segurança após uma falha.
+     * Não é transacional de propósito: a leitura do corpo e o envio ao MinIO não seguram conexão
+     * com o banco; apenas o registro da parte é gravado ao final.
+     */
+    public UploadSessaoDTO enviarParte(Long albumId, String sessaoId, long offset, InputStream body) {
+        UploadSessao sessao = buscarSessaoAtiva(albumId, sessaoId);
+
+        if (offset < 0 || offset >= sessao.getTamanhoTotal() || offset % sessao.getTamanhoParte() != 0) {
+            throw new IllegalArgumentException("Offset inválido: deve ser múltiplo de " + sessao.getTamanhoParte()
+                    + " e menor que " + sessao.getTamanhoTotal());
+        }
+        int numeroParte = (int) (offset / sessao.getTamanhoParte()) + 1;
+        int esperado = (int) Math.min(sessao.getTamanhoParte(), sessao.getTamanhoTotal() - offset);
+
+        byte[] dados;
+        try {
+            dados = body.readNBytes(esperado + 1);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler parte do upload", e);
+        }
+        if (dados.length != esperado) {
+            throw new IllegalArgumentException("Parte " + numeroParte + " deve ter exatamente " + esperado
+                    + " bytes (recebido: " + (dados.length > esperado ? "mais" : String.valueOf(dados.length)) + ")");
+        }
+
+        String etag;
+        try {
+            etag = minIOService.enviarParte(sessao.getNomeArquivo(), sessao.getUploadId(), numeroParte, dados, esperado);
+        } catch (Exception e) {
+            log.error("Erro ao enviar parte {} da sessão {}: {}", numeroParte, sessaoId, e.getMessage(), e);
+            throw new RuntimeException("Erro ao enviar parte do upload", e);
+        }
+
+        uploadSessaoRepository.registrarParte(sessaoId, numeroParte, etag, esperado,
+                LocalDateTime.now().plus(Duration.ofMillis(ttlMs)));
+        log.debug("Parte {} recebida - sessão: {}, bytes: {}", numeroParte, sessaoId, esperado);
+        return progresso(albumId, sessaoId);
+    }
+
+    /**
+     * Reivindica a sessão (UPDATE condicional para CONCLUIDA) antes de tocar no MinIO: uma segunda
+     * conclusão concorrente recebe 404 sem chamar o complete de novo sobre um uploadId já
+     * encerrado. Se o MinIO falhar, a sessão volta para EM_ANDAMENTO e o cliente pode repetir.
+     * Metadados e multipart ficam fora de transação; só a gravação da capa é transacional.
+     */
+    public CapaAlbum concluir(Long albumId, String sessaoId) {
+        UploadSessao sessao = buscarSessaoAtiva(albumId, sessaoId);
+        if (sessao.getPartes().size() != sessao.getTotalPartes()) {
+            throw new IllegalArgumentException("Upload incompleto: " + sessao.getPartes().size() + " de "
+                    + sessao.getTotalPartes() + " partes recebidas");
+        }
+
+        if (uploadSessaoRepository.marcarConcluida(sessaoId) == 0) {
+            throw new ResourceNotFoundException("Sessão de upload não encontrada ou expirada: " + sessaoId);
+        }
+
+        Part[] partes = sessao.getPartes().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> new Part(e.getKey(), e.getValue().getEtag()))
+                .toArray(Part[]::new);
+        try {
+            minIOService.concluirUploadMultipart(sessao.getNomeArquivo(), sessao.getUploadId(), partes);
+        } catch (Exception e) {
+            uploadSessaoRepository.reabrir(sessaoId);
+            log.error("Erro ao concluir sessão de upload {}: {}", sessaoId, e.getMessage(), e);
+            throw new RuntimeException("Erro ao concluir upload da capa", e);
+        }
+
+        ImageMetadataExtractor.ImageMetadata metadata = ImageMetadataExtractor.ImageMetadata.VAZIO;
+        try (InputStream in = minIOService.abrirObjeto(sessao.getNomeArquivo())) {
+            metadata = imageMetadataExtractor.extrair(in);
+        } catch (Exception e) {
+            log.warn("Não foi possível ler a capa concluída para extrair metadados: {}", e.getMessage());
+        }
+
+        CapaAlbum capa = new CapaAlbum();
+        capa.setNomeArquivo(sessao.getNomeArquivo());
+        capa.setContentType(sessao.getContentType());
+        capa.setTamanho(sessao.getTamanhoTotal());
+        capa.setLargura(metadata.largura());
+        capa.setAltura(metadata.altura());
+        capa.setCorDominante(metadata.corDominante());
+        capa.setBlurhash(metadata.blurhash());
+
+        CapaAlbum saved = transactionTemplate.execute(status -> {
+            capa.setAlbum(albumRepository.getReferenceById(albumId));
+            return capaAlbumRepository.save(capa);
+        });
+        log.info("Sessão de upload concluída - sessão: {}, Capa ID: {}, Álbum ID: {}", sessaoId, saved.getId(), albumId);
+        return saved;
+    }
+
+    public void abortar(Long albumId, String sessaoId) {
+        UploadSessao sessao = buscarSessaoAtiva(albumId, sessaoId);
+        abortarSessao(sessao);
+        log.info("Sessão de upload abortada pelo cliente - sessão: {}", sessaoId);
+    }
+
+    /**
+     * Aborta no MinIO os multipart uploads de sessões abandonadas (sem partes novas até expirar)
+     * para liberar o armazenamento das partes órfãs, e apaga as sessões concluídas que já
+     * passaram da expiração (só serviam para recusar uma segunda conclusão).
+     */
+    @Scheduled(fixedDelayString = "${upload.resumivel.limpeza-interval-ms:900000}")
+    public void limparSessoesExpiradas() {
+        LocalDateTime agora = LocalDateTime.now();
+        List<UploadSessao> expiradas = uploadSessaoRepository
+                .findByStatusAndExpiraEmBefore(StatusUploadSessao.EM_ANDAMENTO, agora);
+        for (UploadSessao sessao : expiradas) {
+            abortarSessao(sessao);
+        }
+        int concluidas = uploadSessaoRepository.deleteByStatusAndExpiraEmBefore(StatusUploadSessao.CONCLUIDA, agora);
+        if (!expiradas.isEmpty() || concluidas > 0) {
+            log.info("Sessões de upload removidas - expiradas: {}, concluídas: {}", expiradas.size(), concluidas);
+        }
+    }
+
+    /**
+     * Chamado antes de remover o álbum: o ON DELETE CASCADE apaga as sessões no banco, mas não os
+     * multipart uploads no MinIO. Eles são abortados após o commit, fora da transação; se a
+     * remoção for desfeita, as sessões continuam válidas.
+     */
+    public void abortarSessoesDoAlbum(Long albumId) {
+        List<UploadSessao> sessoes = uploadSessaoRepository
+                .findByAlbumIdAndStatus(albumId, StatusUploadSessao.EM_ANDAMENTO);
+        if (sessoes.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sessoes.forEach(UploadSessaoService.this::abortarMultipart);
+                }
+            });
+        } else {
+            sessoes.forEach(this::abortarMultipart);
+        }
+    }
+
+    private void abortarSessao(UploadSessao sessao) {
+        abortarMultipart(sessao);
+        uploadSessaoRepository.delete(sessao);
+    }
+
+    private void abortarMultipart(UploadSessao sessao) {
+        try {
+            minIOService.abortarUploadMultipart(sessao.getNomeArquivo(), sessao.getUploadId());
+        } catch (Exception e) {
+            // O multipart pode já ter sido removido pelo lifecycle do bucket; a sessão é descartada mesmo assim
+            log.warn("Erro ao abortar multipart upload da sessão {}: {}", sessao.getId(), e.getMessage());
+        }
+    }
+
+    private UploadSessao buscarSessaoAtiva(Long albumId, String sessaoId) {
+        return uploadSessaoRepository.findByIdAndAlbumId(sessaoId, albumId)
+                .filter(s -> s.getStatus() == StatusUploadSessao.EM_ANDAMENTO)
+                .filter(s -> s.getExpiraEm().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new ResourceNotFoundException("Sessão de upload não encontrada ou expirada: " + sessaoId));
+    }
+
+    private UploadSessaoDTO toDTO(UploadSessao sessao) {
+        return new UploadSessaoDTO(
+                sessao.getId(),
+                sessao.getAlbumId(),
+                sessao.getStatus(),
+                sessao.getTamanhoTotal(),
+                sessao.getTamanhoParte(),
+                sessao.getBytesRecebidos(),
+                sessao.getTotalPartes(),
+                sessao.getPartes().keySet().stream().sorted().toList(),
+                sessao.getExpiraEm().atZone(ZoneId.systemDefault()).toInstant()
+        );
+    }
+}
@@ -0,0 +1,71 @@
+package com.album.seplag.service;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.album.seplag.security.UsuarioDetails;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Cache curto dos principals carregados por {@link UsuarioService#loadUserByUsername(String)},
+ * evitando a consulta a usuarios + usuario_roles a cada requisição autenticada.
+ * Guarda um snapshot imutável e devolve um {@link UserDetails} novo a cada chamada, já que o
+ * Spring Security apaga a senha do principal após a autenticação.
+ */
+@Component
+public class UsuarioPrincipalCache {
+
+    record Principal(Long id, String username, String password, Set<String> roles) {
+
+        UserDetails toUserDetails() {
+            return new UsuarioDetails(id, username, password,
+                    roles.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toSet()));
+        }
+    }
+
+    private final Cache<String, Principal> cache;
+
+    public UsuarioPrincipalCache(@Value("${security.principal-cache.max-size:10000}") long maxSize,
+                                 @Value("${security.principal-cache.ttl-ms:60000}") long ttlMs) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    /**
+     * Exceções do loader (usuário inexistente ou inativo) não são cacheadas.
+     */
+    public UserDetails obter(String username, Function<String, Principal> loader) {
+        return cache.get(username, loader).toUserDetails();
+    }
+
+    /**
+     * Remove imediatamente e, se houver transação ativa, novamente após o commit, para que uma
+     * leitura concorrente antes do commit não deixe o valor antigo no cache.
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+}
@@ -2,16 +2,12 @@ package com.album.seplag.service;
 
 import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,17 +32,29 @@ public class UsuarioService implements UserDetailsService {
     private static final String ROLE_ADMIN = "ROLE_ADMIN";
 
     private final UsuarioRepository usuarioRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final UsuarioPrincipalCache principalCache;
+    private final LastLoginBuffer lastLoginBuffer;
 
-    public UsuarioService(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder) {
+    public UsuarioService(UsuarioRepository usuarioRepository, PasswordHashingService passwordHashingService,
+                          UsuarioPrincipalCache principalCache, LastLoginBuffer lastLoginBuffer) {
         this.usuarioRepository = usuarioRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.principalCache = principalCache;
+        this.lastLoginBuffer = lastLoginBuffer;
     }
 
+    /**
+     * Atendido pelo {@link UsuarioPrincipalCache}; sem transação para que um acerto no cache
+     * não adquira conexão com o banco (roles são EAGER, a consulta roda na transação do repositório).
+     */
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        log.info("Carregando usuário: {}", username);
+        return principalCache.obter(username, this::carregarPrincipal);
+    }
+
+    private UsuarioPrincipalCache.Principal carregarPrincipal(String username) {
+        log.debug("Carregando usuário: {}", username);
         Usuario usuario = usuarioRepository.findByUsername(username)
                 .orElseThrow(() -> {
                     log.info("Usuário não encontrado: {}", username);
@@ -58,13 +66,8 @@ public class UsuarioService implements UserDetailsService {
             throw new UsernameNotFoundException("Usuário inativo: " + username);
         }
 
-        return User.builder()
-                .username(usuario.getUsername())
-                .password(usuario.getPassword())
-                .authorities(usuario.getRoles().stream()
-                        .map(SimpleGrantedAuthority::new)
-                        .collect(Collectors.toSet()))
-                .build();
+        return new UsuarioPrincipalCache.Principal(usuario.getId(), usuario.getUsername(), usuario.getPassword(),
+                Set.copyOf(usuario.getRoles()));
     }
 
     @Transactional(readOnly = true)
@@ -86,13 +89,16 @@ public class UsuarioService implements UserDetailsService {
         return toDTO(usuario);
     }
 
-    @Transactional
+    /**
+     * Sem transação: o BCrypt leva dezenas de ms e não deve segurar uma conexão do pool.
+     * A unicidade verificada antes do hash é garantida no save pelas constraints únicas.
+     */
     public UsuarioDTO create(UsuarioCreateDTO dto) {
         validarUnicidade(dto.username(), dto.email(), null);
 
         Usuario usuario = new Usuario();
         usuario.setUsername(dto.username());
-        usuario.setPassword(passwordEncoder.encode(dto.password()));
+        usuario.setPassword(passwordHashingService.encode(dto.password()));
         usuario.setEmail(dto.email());
         usuario.setAtivo(true);
         usuario.setRoles(new HashSet<>(normalizarRoles(dto.roles())));
@@ -102,13 +108,13 @@ public class UsuarioService implements UserDetailsService {
         return toDTO(saved);
     }
 
-    @Transactional
+    /** Sem transação, como {@link #create}. */
     public UsuarioDTO register(UsuarioRegisterDTO dto) {
         validarUnicidade(dto.username(), dto.email(), null);
 
         Usuario usuario = new Usuario();
         usuario.setUsername(dto.username());
-        usuario.setPassword(passwordEncoder.encode(dto.password()));
+        usuario.setPassword(passwordHashingService.encode(dto.password()));
         usuario.setEmail(dto.email());
         usuario.setAtivo(true);
         usuario.setRoles(new HashSet<>(Set.of(ROLE_USER)));
@@ -123,6 +129,8 @@ public class UsuarioService implements UserDetailsService {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com id: " + id));
         validarUnicidade(dto.username(), dto.email(), id);
+        principalCache.evict(usuario.getUsername());
+        principalCache.evict(dto.username());
 
         usuario.setUsername(dto.username());
         usuario.setEmail(dto.email());
@@ -137,6 +145,8 @@ public class UsuarioService implements UserDetailsService {
         Usuario usuario = usuarioRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado: " + username));
         validarUnicidade(dto.username(), dto.email(), usuario.getId());
+        principalCache.evict(username);
+        principalCache.evict(dto.username());
 
         usuario.setUsername(dto.username());
         usuario.setEmail(dto.email());
@@ -152,30 +162,33 @@ public class UsuarioService implements UserDetailsService {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com id: " + id));
         usuarioRepository.delete(usuario);
+        principalCache.evict(usuario.getUsername());
         log.info("Usuário deletado com sucesso - ID: {}", id);
     }
 
-    @Transactional
+    /** Sem transação: a verificação e o hash rodam entre a leitura e o save, cada um com a sua. */
     public void alterarSenha(String username, AlterarSenhaDTO dto) {
         Usuario usuario = usuarioRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado: " + username));
 
-        if (!passwordEncoder.matches(dto.senhaAtual(), usuario.getPassword())) {
+        if (!passwordHashingService.matches(dto.senhaAtual(), usuario.getPassword())) {
             throw new com.album.seplag.exception.InvalidCredentialsException("Senha atual incorreta");
         }
 
-        usuario.setPassword(passwordEncoder.encode(dto.novaSenha()));
+        usuario.setPassword(passwordHashingService.encode(dto.novaSenha()));
         usuarioRepository.save(usuario);
+        principalCache.evict(username);
         log.info("Senha alterada com sucesso - username: {}", username);
     }
 
-    @Transactional
+    /** Sem transação, como {@link #alterarSenha}. */
     public void alterarSenhaAdmin(Long id, AlterarSenhaAdminDTO dto) {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado com id: " + id));
 
-        usuario.setPassword(passwordEncoder.encode(dto.novaSenha()));
+        usuario.setPassword(passwordHashingService.encode(dto.novaSenha()));
         usuarioRepository.save(usuario);
+        principalCache.evict(usuario.getUsername());
         log.info("Senha alterada por admin - usuário ID: {}", id);
     }
 
@@ -186,18 +199,31 @@ public class UsuarioService implements UserDetailsService {
 
         usuario.setAtivo(!usuario.getAtivo());
         Usuario saved = usuarioRepository.save(usuario);
+        principalCache.evict(usuario.getUsername());
         log.info("Usuário {} - ID: {}", usuario.getAtivo() ? "ativado" : "desativado", id);
         return toDTO(saved);
     }
 
+    /**
+     * Grava o hash recalculado no login quando o custo do BCrypt mudou.
+     */
     @Transactional
-    public void atualizarLastLogin(String username) {
+    public void atualizarHashSenha(String username, String novoHash) {
         usuarioRepository.findByUsername(username).ifPresent(usuario -> {
-            usuario.setLastLogin(java.time.LocalDateTime.now());
+            usuario.setPassword(novoHash);
             usuarioRepository.save(usuario);
+            principalCache.evict(username);
+            log.info("Hash de senha atualizado para o custo configurado - username: {}", username);
         });
     }
 
+    /**
+     * Não grava no banco: o {@link LastLoginBuffer} acumula os acessos e os grava em lote.
+     */
+    public void atualizarLastLogin(String username) {
+        lastLoginBuffer.registrar(username);
+    }
+
     private void validarUnicidade(String username, String email, Long excludeId) {
         usuarioRepository.findByUsername(username).ifPresent(u -> {
             if (excludeId == null || !u.getId().equals(excludeId)) {
@@ -0,0 +1,18 @@
+-- =====================================================
+-- Migration: V10 - Metadados de imagem das capas
+-- Descrição: Dimensões, cor dominante e blurhash extraídos no upload,
+--            permitindo placeholders no front-end sem baixar a imagem
+-- =====================================================
+
+ALTER TABLE capas_album ADD COLUMN IF NOT EXISTS largura INTEGER NULL;
+ALTER TABLE capas_album ADD COLUMN IF NOT EXISTS altura INTEGER NULL;
+ALTER TABLE capas_album ADD COLUMN IF NOT EXISTS cor_dominante VARCHAR(7) NULL;
+ALTER TABLE capas_album ADD COLUMN IF NOT EXISTS blurhash VARCHAR(64) NULL;
+
+-- Índice parcial para o job de backfill localizar capas sem metadados
+CREATE INDEX IF NOT EXISTS idx_capas_album_sem_metadados ON capas_album(id) WHERE largura IS NULL;
+
+COMMENT ON COLUMN capas_album.largura IS 'Largura da imagem em pixels';
+COMMENT ON COLUMN capas_album.altura IS 'Altura da imagem em pixels';
+COMMENT ON COLUMN capas_album.cor_dominante IS 'Cor dominante em hexadecimal (ex: #1a2b3c)';
+COMMENT ON COLUMN capas_album.blurhash IS 'BlurHash (4x3 componentes) para placeholder';
@@ -0,0 +1,44 @@
+-- =====================================================
+-- Migration: V11 - Sessões de upload resumível de capas
+-- Descrição: Estado do upload em partes (mapeado para multipart upload do MinIO)
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS upload_sessoes (
+    id VARCHAR(36) PRIMARY KEY,
+    album_id BIGINT NOT NULL,
+    nome_arquivo VARCHAR(500) NOT NULL,
+    content_type VARCHAR(100),
+    tamanho_total BIGINT NOT NULL,
+    tamanho_parte INTEGER NOT NULL,
+    upload_id VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'EM_ANDAMENTO',
+    expira_em TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_upload_sessao_album FOREIGN KEY (album_id) REFERENCES albuns(id) ON DELETE CASCADE,
+    CONSTRAINT ck_upload_sessao_status CHECK (status IN ('EM_ANDAMENTO', 'CONCLUIDA'))
+);
+
+CREATE TABLE IF NOT EXISTS upload_sessao_partes (
+    sessao_id VARCHAR(36) NOT NULL,
+    numero INTEGER NOT NULL,
+    etag VARCHAR(255) NOT NULL,
+    tamanho BIGINT NOT NULL,
+    PRIMARY KEY (sessao_id, numero),
+    CONSTRAINT fk_upload_parte_sessao FOREIGN KEY (sessao_id) REFERENCES upload_sessoes(id) ON DELETE CASCADE
+);
+
+-- Índice para o job de limpeza de sessões abandonadas
+CREATE INDEX IF NOT EXISTS idx_upload_sessoes_expira_em ON upload_sessoes(expira_em) WHERE status = 'EM_ANDAMENTO';
+
+COMMENT ON TABLE upload_sessoes IS 'Sessões de upload resumível de capas (multipart upload no MinIO)';
+COMMENT ON COLUMN upload_sessoes.id IS 'Identificador (UUID) da sessão, usado pelo cliente';
+COMMENT ON COLUMN upload_sessoes.nome_arquivo IS 'Chave do objeto de destino no MinIO';
+COMMENT ON COLUMN upload_sessoes.tamanho_total IS 'Tamanho total declarado do arquivo em bytes';
+COMMENT ON COLUMN upload_sessoes.tamanho_parte IS 'Tamanho fixo de cada parte (exceto a última) em bytes';
+COMMENT ON COLUMN upload_sessoes.upload_id IS 'uploadId do multipart upload no MinIO';
+COMMENT ON COLUMN upload_sessoes.status IS 'EM_ANDAMENTO ou CONCLUIDA';
+COMMENT ON COLUMN upload_sessoes.expira_em IS 'Sessão abandonada após esta data é abortada pelo job de limpeza';
+COMMENT ON TABLE upload_sessao_partes IS 'Partes já recebidas de uma sessão de upload';
+COMMENT ON COLUMN upload_sessao_partes.numero IS 'Número da parte (1..N), derivado do offset';
+COMMENT ON COLUMN upload_sessao_partes.etag IS 'ETag retornado pelo MinIO para a parte';
@@ -0,0 +1,24 @@
+-- =====================================================
+-- Migration: V12 - Buckets de rate limit distribuído
+-- Descrição: Estado dos buckets do bucket4j compartilhado entre réplicas (rate-limit.distributed.enabled)
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    id VARCHAR(255) PRIMARY KEY,
+    state BYTEA,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Limpeza de buckets ociosos
+CREATE INDEX IF NOT EXISTS idx_rate_limit_buckets_updated_at ON rate_limit_buckets(updated_at);
+
+-- O bucket4j só grava id/state; o trigger mantém updated_at para a limpeza
+CREATE TRIGGER trg_rate_limit_buckets_updated_at
+    BEFORE UPDATE ON rate_limit_buckets
+    FOR EACH ROW
+    EXECUTE FUNCTION update_timestamp_column();
+
+COMMENT ON TABLE rate_limit_buckets IS 'Estado serializado dos buckets de rate limit (bucket4j), por usuário ou IP.';
+COMMENT ON COLUMN rate_limit_buckets.id IS 'Chave do bucket (username ou auth-ip:<ip>).';
+COMMENT ON COLUMN rate_limit_buckets.state IS 'Estado do bucket serializado pelo bucket4j.';
+COMMENT ON COLUMN rate_limit_buckets.updated_at IS 'Último consumo sincronizado; usado para remover buckets ociosos.';
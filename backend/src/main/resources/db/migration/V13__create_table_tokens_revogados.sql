@@ -0,0 +1,31 @@
+-- =====================================================
+-- Migration: V13 - Revogação de tokens JWT
+-- Descrição: jti revogados (logout / revogação pelo admin) e revogação de todos os tokens de um usuário
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS tokens_revogados (
+    jti VARCHAR(36) PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    expira_em TIMESTAMP WITH TIME ZONE NOT NULL,
+    revogado_em TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Sincronização incremental entre nós e limpeza de tokens já expirados
+CREATE INDEX IF NOT EXISTS idx_tokens_revogados_revogado_em ON tokens_revogados(revogado_em);
+CREATE INDEX IF NOT EXISTS idx_tokens_revogados_expira_em ON tokens_revogados(expira_em);
+
+CREATE TABLE IF NOT EXISTS revogacoes_usuario (
+    username VARCHAR(50) PRIMARY KEY,
+    revogado_antes TIMESTAMP WITH TIME ZONE NOT NULL,
+    expira_em TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revogacoes_usuario_revogado_antes ON revogacoes_usuario(revogado_antes);
+
+COMMENT ON TABLE tokens_revogados IS 'Tokens (access ou refresh) revogados antes da expiração, pelo claim jti.';
+COMMENT ON COLUMN tokens_revogados.jti IS 'Identificador único do token (claim jti).';
+COMMENT ON COLUMN tokens_revogados.expira_em IS 'Expiração do token; depois dela o registro pode ser removido.';
+COMMENT ON COLUMN tokens_revogados.revogado_em IS 'Momento da revogação; usado na sincronização incremental dos nós.';
+COMMENT ON TABLE revogacoes_usuario IS 'Revogação de todos os tokens de um usuário emitidos até revogado_antes.';
+COMMENT ON COLUMN revogacoes_usuario.revogado_antes IS 'Tokens com iat até este instante são rejeitados.';
+COMMENT ON COLUMN revogacoes_usuario.expira_em IS 'Após este instante nenhum token afetado continua válido; o registro pode ser removido.';
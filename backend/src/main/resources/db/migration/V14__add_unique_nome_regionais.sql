@@ -0,0 +1,15 @@
+-- =====================================================
+-- Migration: V14 - Nome único em regionais
+-- Descrição: a sincronização grava por nome com INSERT ... ON CONFLICT (nome)
+-- =====================================================
+
+-- Duplicatas antigas: mantém a de menor id, ativa se alguma delas estiver ativa
+UPDATE regionais r SET ativo = TRUE
+FROM (SELECT nome, MIN(id) AS id FROM regionais GROUP BY nome HAVING COUNT(*) > 1 AND BOOL_OR(ativo)) d
+WHERE r.id = d.id;
+
+DELETE FROM regionais r
+USING regionais mantida
+WHERE r.nome = mantida.nome AND r.id > mantida.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_regionais_nome ON regionais(nome);
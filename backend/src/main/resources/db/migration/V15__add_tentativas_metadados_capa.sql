@@ -0,0 +1,9 @@
+-- =====================================================
+-- Migration: V15 - Tentativas de backfill de metadados das capas
+-- Descrição: capas cuja extração falha (arquivo ausente, formato não suportado)
+--            deixam de ser reprocessadas a cada execução do job
+-- =====================================================
+
+ALTER TABLE capas_album ADD COLUMN IF NOT EXISTS metadados_tentativas INTEGER NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN capas_album.metadados_tentativas IS 'Falhas do backfill de metadados; o job desiste ao atingir o limite';
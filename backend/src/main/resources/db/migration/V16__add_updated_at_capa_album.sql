@@ -0,0 +1,9 @@
+-- =====================================================
+-- Migration: V16 - Data de atualização das capas
+-- Descrição: o backfill de metadados altera a capa sem tocar no álbum; a ETag do
+--            álbum passa a considerar a capa alterada mais recentemente
+-- =====================================================
+
+ALTER TABLE capas_album ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+COMMENT ON COLUMN capas_album.updated_at IS 'Data da última alteração da capa (upload ou metadados)';
@@ -0,0 +1,23 @@
+-- =====================================================
+-- Migration: V17 - updated_at de usuários ignora o último acesso
+-- Descrição: a gravação em lote do last_login não é alteração de perfil; o trigger
+--            só atualiza updated_at quando muda alguma outra coluna
+-- =====================================================
+
+-- Função específica de usuários: compara as linhas sem last_login e updated_at
+CREATE OR REPLACE FUNCTION update_timestamp_usuarios()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF (to_jsonb(NEW) - 'last_login' - 'updated_at') IS DISTINCT FROM (to_jsonb(OLD) - 'last_login' - 'updated_at') THEN
+        NEW.updated_at = CURRENT_TIMESTAMP;
+    END IF;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+DROP TRIGGER IF EXISTS trg_usuarios_updated_at ON usuarios;
+
+CREATE TRIGGER trg_usuarios_updated_at
+    BEFORE UPDATE ON usuarios
+    FOR EACH ROW
+    EXECUTE FUNCTION update_timestamp_usuarios();
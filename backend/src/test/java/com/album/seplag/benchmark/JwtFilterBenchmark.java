@@ -0,0 +1,113 @@
+package com.album.seplag.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.album.seplag.config.JwtConfig;
+import com.album.seplag.config.JwtKeys;
+import com.album.seplag.security.JwtAuthenticationFilter;
+import com.album.seplag.service.TokenRevocationService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Custo do JwtAuthenticationFilter por requisição.
+ * <ul>
+ *   <li>{@code legado}: caminho anterior (5 parses, chave e parser recriados a cada chamada)</li>
+ *   <li>{@code filtroSemCache}: parse único com chave/parser reaproveitados</li>
+ *   <li>{@code filtroComCache}: parse único + cache de tokens verificados (caso comum: mesmo token em várias requisições)</li>
+ * </ul>
+ * Executar: {@code mvn test-compile} e depois a classe {@link #main(String[])} com o classpath de teste.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-32-bytes";
+
+    private String token;
+    private JwtAuthenticationFilter filtroComCache;
+    private JwtAuthenticationFilter filtroSemCache;
+
+    @Setup
+    public void setup() {
+        JwtConfig comCache = new JwtConfig(JwtKeys.hmac(SECRET), 300000L, 604800000L, 10000L);
+        JwtConfig semCache = new JwtConfig(JwtKeys.hmac(SECRET), 300000L, 604800000L, 0L);
+        token = comCache.generateAccessToken("admin", List.of("ROLE_USER", "ROLE_ADMIN"));
+        TokenRevocationService revocation = TokenRevocationBenchmark.criarServico(List.of());
+        filtroComCache = new JwtAuthenticationFilter(comCache, username -> {
+            throw new UsernameNotFoundException(username);
+        }, revocation);
+        filtroSemCache = new JwtAuthenticationFilter(semCache, username -> {
+            throw new UsernameNotFoundException(username);
+        }, revocation);
+    }
+
+    @Benchmark
+    public Object legado() {
+        // Reproduz as chamadas feitas pelo filtro antes: isRefreshToken, getUsernameFromToken,
+        // getRolesFromToken e validateToken (username + expiração)
+        boolean refresh = "refresh".equals(parseLegado(token).get("type"));
+        String username = parseLegado(token).getSubject();
+        Object roles = parseLegado(token).get("roles_access");
+        boolean valido = parseLegado(token).getSubject().equals(username)
+                && !parseLegado(token).getExpiration().before(new java.util.Date());
+        return refresh || !valido ? null : roles;
+    }
+
+    @Benchmark
+    public Object filtroSemCache() throws Exception {
+        return executar(filtroSemCache);
+    }
+
+    @Benchmark
+    public Object filtroComCache() throws Exception {
+        return executar(filtroComCache);
+    }
+
+    private Object executar(JwtAuthenticationFilter filtro) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/albuns");
+        request.addHeader("Authorization", "Bearer " + token);
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return autenticacao;
+    }
+
+    private static Claims parseLegado(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
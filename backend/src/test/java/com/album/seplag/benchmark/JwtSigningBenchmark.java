@@ -0,0 +1,70 @@
+package com.album.seplag.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.album.seplag.config.JwtConfig;
+import com.album.seplag.config.JwtKeys;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Custo de assinar e verificar (sem o cache de tokens verificados) por algoritmo:
+ * HS256 (formato anterior, segredo compartilhado) contra ES256 e EdDSA (chave assimétrica com kid).
+ * Executar: {@code mvn test-compile} e depois a classe {@link #main(String[])} com o classpath de teste.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-32-bytes";
+
+    @Param({"HS256", "ES256", "EdDSA"})
+    public String algoritmo;
+
+    private JwtConfig jwtConfig;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtKeys keys = "HS256".equals(algoritmo)
+                ? JwtKeys.hmac(SECRET)
+                : new JwtKeys(algoritmo, "", "", "", false, true);
+        jwtConfig = new JwtConfig(keys, 300000L, 604800000L, 0L);
+        token = jwtConfig.generateAccessToken("admin", List.of("ROLE_USER", "ROLE_ADMIN"));
+    }
+
+    @Benchmark
+    public String assinar() {
+        return jwtConfig.generateAccessToken("admin", List.of("ROLE_USER", "ROLE_ADMIN"));
+    }
+
+    @Benchmark
+    public Object verificar() {
+        // getClaimFromToken não passa pelo cache: mede o parse + verificação da assinatura
+        return jwtConfig.getClaimFromToken(token, Claims::getSubject);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtSigningBenchmark.class.getSimpleName()).build()).run();
+    }
+}
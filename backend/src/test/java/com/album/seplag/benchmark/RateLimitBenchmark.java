@@ -0,0 +1,89 @@
+package com.album.seplag.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.album.seplag.config.PostgresBucketProxyFactory;
+import com.album.seplag.config.RateLimitBucketStore;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Overhead do rate limit por requisição: bucket local x bucket no Postgres, com e sem o lote local
+ * de tokens ({@code max-unsynced-tokens}).
+ * Os modos distribuídos precisam de um Postgres com a migration V12 aplicada; por padrão usa o mesmo
+ * banco do docker-compose ({@code -Dbenchmark.jdbc.url}, {@code .user}, {@code .password}).
+ * Capacidade alta para medir apenas o custo da verificação, não a rejeição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimitBenchmark {
+
+    private static final RateLimitBucketStore.BucketSpec SPEC =
+            new RateLimitBucketStore.BucketSpec(1_000_000_000L, Duration.ofMinutes(1), true);
+
+    /** local | distribuido (sincroniza toda requisição) | distribuidoComLote (até 20 tokens locais) */
+    @Param({"local", "distribuido", "distribuidoComLote"})
+    public String modo;
+
+    private HikariDataSource dataSource;
+    private RateLimitBucketStore store;
+
+    @Setup
+    public void setup() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        if (!"local".equals(modo)) {
+            dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/seplag_db"));
+            dataSource.setUsername(System.getProperty("benchmark.jdbc.user", "seplag_user"));
+            dataSource.setPassword(System.getProperty("benchmark.jdbc.password", "seplag_pass"));
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE id LIKE 'benchmark-%'");
+            long lote = "distribuidoComLote".equals(modo) ? 20 : 0;
+            beans.addBean("distribuido", new PostgresBucketProxyFactory(dataSource, jdbcTemplate, lote, 500, 3600000));
+        }
+        store = new RateLimitBucketStore(new SimpleMeterRegistry(), 10_000,
+                beans.getBeanProvider(PostgresBucketProxyFactory.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Benchmark
+    public boolean consumir() {
+        return store.obter("benchmark-user", SPEC).tryConsume(1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RateLimitBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.album.seplag.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.album.seplag.repository.RevogacaoUsuarioRepository;
+import com.album.seplag.repository.TokenRevogadoRepository;
+import com.album.seplag.security.VerifiedToken;
+import com.album.seplag.service.TokenRevocationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Custo da verificação de revogação no caminho comum (token não revogado), com o filtro
+ * carregado com {@code revogados} jti. O acesso ao banco só ocorre em falsos positivos (~0,1%),
+ * que aqui são atendidos pelos mocks dos repositórios.
+ * Executar: {@code mvn test-compile} e depois a classe {@link #main(String[])} com o classpath de teste.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenRevocationBenchmark {
+
+    @Param({"0", "100000"})
+    public int revogados;
+
+    private TokenRevocationService servico;
+    private VerifiedToken[] tokens;
+    private int proximo;
+
+    @Setup
+    public void setup() {
+        List<String> jtis = new ArrayList<>(revogados);
+        for (int i = 0; i < revogados; i++) {
+            jtis.add(UUID.randomUUID().toString());
+        }
+        servico = criarServico(jtis);
+        tokens = new VerifiedToken[1024];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = new VerifiedToken("usuario" + (i % 50), List.of("ROLE_USER"), false,
+                    Instant.now().plusSeconds(3600), UUID.randomUUID().toString(), Instant.now());
+        }
+    }
+
+    @Benchmark
+    public boolean verificacaoNegativa() {
+        VerifiedToken token = tokens[proximo++ & (tokens.length - 1)];
+        return servico.isRevogado(token);
+    }
+
+    static TokenRevocationService criarServico(List<String> jtisRevogados) {
+        TokenRevogadoRepository tokenRepository = mock(TokenRevogadoRepository.class);
+        RevogacaoUsuarioRepository usuarioRepository = mock(RevogacaoUsuarioRepository.class);
+        when(tokenRepository.findJtisValidos(any())).thenReturn(jtisRevogados);
+        when(tokenRepository.findJtisRevogadosDesde(any(), any())).thenReturn(List.of());
+        when(usuarioRepository.findValidas(any())).thenReturn(List.of());
+        when(usuarioRepository.findRevogadasDesde(any(), any())).thenReturn(List.of());
+        TokenRevocationService servico = new TokenRevocationService(tokenRepository, usuarioRepository,
+                new SimpleMeterRegistry(), 100_000, 0.001, 604800000L);
+        servico.reconstruir();
+        return servico;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenRevocationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,109 @@
+package com.album.seplag.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Custo de uma publicação no broker em memória com {@code clientes} sessões, cada uma assinando o
+ * tópico de um de {@code artistas} artistas e o tópico global.
+ * <ul>
+ *   <li>{@code porArtista}: publica em {@code /topic/artistas.{id}.albuns} de um artista aleatório;</li>
+ *   <li>{@code global}: publica em {@code /topic/albuns}, entregue a todas as sessões.</li>
+ * </ul>
+ * {@code cacheLimit} 1024 é o padrão do Spring: com mais artistas do que isso, a resolução do
+ * destino cai com frequência na varredura de todas as assinaturas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopicFanOutBenchmark {
+
+    @Param({"porArtista", "global"})
+    public String topologia;
+
+    @Param({"1024", "16384"})
+    public int cacheLimit;
+
+    @Param({"10000"})
+    public int clientes;
+
+    @Param({"5000"})
+    public int artistas;
+
+    private SimpleBrokerMessageHandler broker;
+    private Message<byte[]>[] publicacoes;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup(Blackhole blackhole) {
+        ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+        clientOutbound.subscribe(blackhole::consume);
+        broker = new SimpleBrokerMessageHandler(new ExecutorSubscribableChannel(), clientOutbound,
+                new ExecutorSubscribableChannel(), List.of("/topic"));
+        broker.setCacheLimit(cacheLimit);
+        broker.setPathMatcher(new AntPathMatcher("."));
+        broker.start();
+
+        for (int i = 0; i < clientes; i++) {
+            String sessao = "s-" + i;
+            broker.handleMessage(mensagem(SimpMessageType.CONNECT, sessao, null, null));
+            broker.handleMessage(mensagem(SimpMessageType.SUBSCRIBE, sessao, "a", "/topic/artistas." + (i % artistas) + ".albuns"));
+            broker.handleMessage(mensagem(SimpMessageType.SUBSCRIBE, sessao, "g", "/topic/albuns"));
+        }
+        publicacoes = new Message[artistas];
+        for (int i = 0; i < artistas; i++) {
+            publicacoes[i] = mensagem(SimpMessageType.MESSAGE, null, null,
+                    "global".equals(topologia) ? "/topic/albuns" : "/topic/artistas." + i + ".albuns");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        broker.stop();
+    }
+
+    @Benchmark
+    public void publicar() {
+        broker.handleMessage(publicacoes[ThreadLocalRandom.current().nextInt(publicacoes.length)]);
+    }
+
+    private static Message<byte[]> mensagem(SimpMessageType tipo, String sessao, String assinatura, String destino) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(tipo);
+        headers.setSessionId(sessao);
+        headers.setSubscriptionId(assinatura);
+        headers.setDestination(destino);
+        return MessageBuilder.createMessage("{\"type\":\"ALBUM_UPDATED\"}".getBytes(), headers.getMessageHeaders());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TopicFanOutBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,133 @@
+package com.album.seplag.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.sockjs.frame.Jackson2SockJsMessageCodec;
+import org.springframework.web.socket.sockjs.frame.SockJsFrame;
+import org.springframework.web.socket.sockjs.frame.SockJsMessageCodec;
+
+import com.album.seplag.dto.NotificationDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Custo no servidor e bytes no fio para entregar 1000 notificações a um cliente, por transporte:
+ * JSON → frame STOMP MESSAGE → ({@code sockjs}) frame {@code a["..."]} → ({@code compressao})
+ * permessage-deflate como o Tomcat faz (deflate raw com contexto mantido entre mensagens e
+ * SYNC_FLUSH, sem os 4 bytes finais) → cabeçalho do frame WebSocket.
+ * <p>
+ * O tempo por operação é a CPU de 1000 envios; os bytes por 1000 notificações de cada combinação
+ * são impressos no setup e devolvidos pelo benchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebSocketTransportBenchmark {
+
+    private static final int NOTIFICACOES = 1000;
+
+    @Param({"sockjs", "nativo"})
+    public String transporte;
+
+    @Param({"false", "true"})
+    public boolean compressao;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final StompEncoder stompEncoder = new StompEncoder();
+    private final SockJsMessageCodec sockJsCodec = new Jackson2SockJsMessageCodec();
+    private final byte[] saida = new byte[64 * 1024];
+    private NotificationDTO[] notificacoes;
+    private Deflater deflater;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        notificacoes = new NotificationDTO[NOTIFICACOES];
+        LocalDateTime versao = LocalDateTime.of(2026, 1, 1, 12, 0);
+        for (int i = 0; i < NOTIFICACOES; i++) {
+            long id = 1000 + i;
+            notificacoes[i] = NotificationDTO.delta("ALBUM_UPDATED", "Álbum \"Título " + id + "\" atualizado",
+                    id, versao.plusSeconds(i), Map.of("titulo", "Título " + id)).comSeq("epoch", i + 1);
+        }
+        deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        long bytes = enviarMil();
+        System.out.printf("%n[%s, compressao=%s] %d bytes por %d notificações (%.1f por notificação)%n",
+                transporte, compressao, bytes, NOTIFICACOES, (double) bytes / NOTIFICACOES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        deflater.end();
+    }
+
+    @Benchmark
+    public long enviarMil() throws Exception {
+        long bytes = 0;
+        for (int i = 0; i < NOTIFICACOES; i++) {
+            bytes += enviar(notificacoes[i], i);
+        }
+        return bytes;
+    }
+
+    private int enviar(NotificationDTO notificacao, int i) throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(notificacao);
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        headers.setDestination("/topic/albuns");
+        headers.setSubscriptionId("sub-0");
+        headers.setMessageId("m-" + i);
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        byte[] frame = stompEncoder.encode(MessageBuilder.createMessage(json, headers.getMessageHeaders()));
+        if ("sockjs".equals(transporte)) {
+            String conteudo = SockJsFrame.messageFrame(sockJsCodec, new String(frame, StandardCharsets.UTF_8)).getContent();
+            frame = conteudo.getBytes(StandardCharsets.UTF_8);
+        }
+        int payload = compressao ? comprimir(frame) : frame.length;
+        return payload + cabecalhoWebSocket(payload);
+    }
+
+    private int comprimir(byte[] frame) {
+        deflater.setInput(frame);
+        int total = 0;
+        int n;
+        do {
+            n = deflater.deflate(saida, 0, saida.length, Deflater.SYNC_FLUSH);
+            total += n;
+        } while (n == saida.length);
+        return total - 4;
+    }
+
+    private static int cabecalhoWebSocket(int payload) {
+        return payload < 126 ? 2 : payload < 65536 ? 4 : 10;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(WebSocketTransportBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,59 @@
+package com.album.seplag.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthRateLimitInterceptorTest {
+
+    private AuthRateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitConfig config = new RateLimitConfig();
+        ReflectionTestUtils.setField(config, "authRequestsPerMinute", 10);
+        ReflectionTestUtils.setField(config, "authFailureCost", 5);
+        RateLimitBucketStore store = new RateLimitBucketStore(new SimpleMeterRegistry(), 1000);
+        interceptor = new AuthRateLimitInterceptor(store, config, new ClientIpResolver("127.0.0.1/32"));
+    }
+
+    @Test
+    void preHandle_ShouldReturn429_WhenIpExceedsLimit() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(interceptor.preHandle(request("203.0.113.1"), new MockHttpServletResponse(), null));
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("203.0.113.1"), response, null));
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+
+        // Outro IP não é afetado
+        assertTrue(interceptor.preHandle(request("203.0.113.2"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void afterCompletion_ShouldChargeFailureCost_WhenUnauthorized() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = request("203.0.113.3");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            assertTrue(interceptor.preHandle(request, response, null));
+            response.setStatus(401);
+            interceptor.afterCompletion(request, response, null, null);
+        }
+
+        // 2 falhas x 5 tokens esgotam a capacidade de 10
+        assertFalse(interceptor.preHandle(request("203.0.113.3"), new MockHttpServletResponse(), null));
+    }
+
+    private static MockHttpServletRequest request(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setRemoteAddr(ip);
+        return request;
+    }
+}
@@ -0,0 +1,34 @@
+package com.album.seplag.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.broker.BrokerAvailabilityEvent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BrokerRelayMonitorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BrokerRelayMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new BrokerRelayMonitor(meterRegistry);
+    }
+
+    @Test
+    void onBrokerAvailability_ShouldTrackStateAndCountDisconnects() {
+        monitor.onBrokerAvailability(new BrokerAvailabilityEvent(true, this));
+        assertTrue(monitor.isDisponivel());
+        assertEquals(1.0, meterRegistry.get(BrokerRelayMonitor.METRICA_DISPONIVEL).gauge().value());
+
+        monitor.onBrokerAvailability(new BrokerAvailabilityEvent(false, this));
+        monitor.onBrokerAvailability(new BrokerAvailabilityEvent(false, this));
+
+        assertFalse(monitor.isDisponivel());
+        assertEquals(0.0, meterRegistry.get(BrokerRelayMonitor.METRICA_DISPONIVEL).gauge().value());
+        assertEquals(1.0, meterRegistry.get(BrokerRelayMonitor.METRICA_DESCONEXOES).counter().count());
+    }
+}
@@ -0,0 +1,48 @@
+package com.album.seplag.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = new ClientIpResolver("127.0.0.1/32,10.0.0.0/8");
+
+    @Test
+    void resolver_ShouldIgnoreForwardedFor_WhenRemoteIsNotTrusted() {
+        MockHttpServletRequest request = request("203.0.113.7", "1.2.3.4");
+
+        assertEquals("203.0.113.7", resolver.resolver(request));
+    }
+
+    @Test
+    void resolver_ShouldReturnRightmostUntrustedHop_WhenBehindTrustedProxies() {
+        MockHttpServletRequest request = request("10.0.0.5", "6.6.6.6, 198.51.100.20, 10.0.0.9");
+
+        assertEquals("198.51.100.20", resolver.resolver(request));
+    }
+
+    @Test
+    void resolver_ShouldReturnRemoteAddr_WhenForwardedForMissing() {
+        MockHttpServletRequest request = request("127.0.0.1", null);
+
+        assertEquals("127.0.0.1", resolver.resolver(request));
+    }
+
+    @Test
+    void resolver_ShouldTreatGarbageHopAsClient() {
+        MockHttpServletRequest request = request("127.0.0.1", "not-an-ip");
+
+        assertEquals("not-an-ip", resolver.resolver(request));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader(ClientIpResolver.X_FORWARDED_FOR, forwardedFor);
+        }
+        return request;
+    }
+}
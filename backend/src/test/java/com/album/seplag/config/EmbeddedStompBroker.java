@@ -0,0 +1,169 @@
+package com.album.seplag.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.BufferingStompDecoder;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompDecoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+/**
+ * Broker STOMP 1.2 mínimo, em processo, para testes do relay: CONNECT, SUBSCRIBE, UNSUBSCRIBE,
+ * SEND (fan-out por destino exato), DISCONNECT e receipts. Responde {@code heart-beat:0,0}.
+ * Faz o papel do RabbitMQ/ActiveMQ sem depender de container. Como o plugin STOMP do RabbitMQ,
+ * recusa {@code /topic/} seguido de mais de um segmento com ERROR e fecha a conexão.
+ */
+class EmbeddedStompBroker implements AutoCloseable {
+
+    private record Assinatura(Conexao conexao, String id, String destino) {}
+
+    private final List<Assinatura> assinaturas = new CopyOnWriteArrayList<>();
+    private final Map<Socket, Conexao> conexoes = new ConcurrentHashMap<>();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "embedded-stomp-broker");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ServerSocket servidor;
+
+    EmbeddedStompBroker(int porta) throws IOException {
+        servidor = new ServerSocket();
+        servidor.setReuseAddress(true);
+        servidor.bind(new InetSocketAddress("127.0.0.1", porta));
+        executor.execute(this::aceitar);
+    }
+
+    int getPorta() {
+        return servidor.getLocalPort();
+    }
+
+    int totalAssinaturas(String destino) {
+        return (int) assinaturas.stream().filter(a -> a.destino().equals(destino)).count();
+    }
+
+    @Override
+    public void close() throws IOException {
+        servidor.close();
+        for (Socket socket : conexoes.keySet()) {
+            socket.close();
+        }
+        executor.shutdownNow();
+    }
+
+    private void aceitar() {
+        while (!servidor.isClosed()) {
+            try {
+                Socket socket = servidor.accept();
+                socket.setTcpNoDelay(true);
+                Conexao conexao = new Conexao(socket);
+                conexoes.put(socket, conexao);
+                executor.execute(conexao::ler);
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private final class Conexao {
+
+        private final Socket socket;
+        private final OutputStream out;
+
+        Conexao(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = socket.getOutputStream();
+        }
+
+        void ler() {
+            BufferingStompDecoder decoder = new BufferingStompDecoder(new StompDecoder(), 1024 * 1024);
+            byte[] buffer = new byte[8192];
+            try (InputStream in = socket.getInputStream()) {
+                int lidos;
+                while ((lidos = in.read(buffer)) != -1) {
+                    for (Message<byte[]> frame : decoder.decode(ByteBuffer.wrap(buffer, 0, lidos))) {
+                        tratar(frame);
+                    }
+                }
+            } catch (IOException e) {
+                // conexão encerrada
+            } finally {
+                assinaturas.removeIf(a -> a.conexao() == this);
+                conexoes.remove(socket);
+            }
+        }
+
+        private void tratar(Message<byte[]> frame) throws IOException {
+            StompHeaderAccessor headers = MessageHeaderAccessor.getAccessor(frame, StompHeaderAccessor.class);
+            StompCommand comando = headers != null ? headers.getCommand() : null;
+            if (comando == null) {
+                return; // heartbeat
+            }
+            String destino = headers.getDestination();
+            if (destino != null && destino.startsWith("/topic/") && destino.indexOf('/', "/topic/".length()) >= 0) {
+                escrever("ERROR", Map.of("message", "Invalid destination"), new byte[0]);
+                socket.close();
+                return;
+            }
+            switch (comando) {
+                case CONNECT, STOMP -> escrever("CONNECTED", Map.of("version", "1.2", "heart-beat", "0,0"), new byte[0]);
+                case SUBSCRIBE -> assinaturas.add(new Assinatura(this, headers.getSubscriptionId(), headers.getDestination()));
+                case UNSUBSCRIBE -> assinaturas.removeIf(a -> a.conexao() == this && a.id().equals(headers.getSubscriptionId()));
+                case SEND -> publicar(headers, frame.getPayload());
+                case DISCONNECT -> {
+                    confirmar(headers);
+                    socket.close();
+                    return;
+                }
+                default -> { }
+            }
+            confirmar(headers);
+        }
+
+        private void publicar(StompHeaderAccessor headers, byte[] corpo) throws IOException {
+            String contentType = headers.getFirstNativeHeader("content-type");
+            for (Assinatura assinatura : assinaturas) {
+                if (assinatura.destino().equals(headers.getDestination())) {
+                    assinatura.conexao().escrever("MESSAGE", Map.of(
+                            "destination", assinatura.destino(),
+                            "subscription", assinatura.id(),
+                            "message-id", String.valueOf(sequencia.incrementAndGet()),
+                            "content-type", contentType != null ? contentType : "application/json"), corpo);
+                }
+            }
+        }
+
+        private void confirmar(StompHeaderAccessor headers) throws IOException {
+            String receipt = headers.getReceipt();
+            if (receipt != null) {
+                escrever("RECEIPT", Map.of("receipt-id", receipt), new byte[0]);
+            }
+        }
+
+        synchronized void escrever(String comando, Map<String, String> headers, byte[] corpo) throws IOException {
+            StringBuilder frame = new StringBuilder(comando).append('\n');
+            headers.forEach((nome, valor) -> frame.append(nome).append(':').append(valor).append('\n'));
+            frame.append("content-length:").append(corpo.length).append("\n\n");
+            out.write(frame.toString().getBytes(StandardCharsets.UTF_8));
+            out.write(corpo);
+            out.write(0);
+            out.flush();
+        }
+    }
+}
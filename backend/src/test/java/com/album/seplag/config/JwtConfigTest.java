@@ -1,8 +1,10 @@
 package com.album.seplag.config;
 
+import com.album.seplag.security.VerifiedToken;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
 
@@ -14,10 +16,7 @@ class JwtConfigTest {
 
     @BeforeEach
     void setUp() {
-        jwtConfig = new JwtConfig();
-        ReflectionTestUtils.setField(jwtConfig, "secret", "test-secret-key-for-testing-only-32chars");
-        ReflectionTestUtils.setField(jwtConfig, "expiration", 300000L);
-        ReflectionTestUtils.setField(jwtConfig, "refreshExpiration", 604800000L);
+        jwtConfig = new JwtConfig(JwtKeys.hmac("test-secret-key-for-testing-only-32chars"), 300000L, 604800000L, 1000L);
     }
 
     @Test
@@ -42,6 +41,15 @@ class JwtConfigTest {
         assertTrue(jwtConfig.getRolesFromToken(token).isEmpty());
     }
 
+    @Test
+    void generateAccessToken_ShouldCarryUserId_WhenProvided() {
+        VerifiedToken comId = jwtConfig.verifyToken(jwtConfig.generateAccessToken(42L, "testuser", List.of("ROLE_USER")));
+        VerifiedToken semId = jwtConfig.verifyToken(jwtConfig.generateAccessToken("testuser", List.of("ROLE_USER")));
+
+        assertEquals(42L, comId.userId());
+        assertNull(semId.userId());
+    }
+
     @Test
     void generateRefreshToken_ShouldHaveTypeRefresh() {
         String token = jwtConfig.generateRefreshToken("testuser");
@@ -79,4 +87,33 @@ class JwtConfigTest {
 
         assertFalse(jwtConfig.validateRefreshToken(token, "otheruser"));
     }
+
+    @Test
+    void verifyToken_ShouldReturnCachedInstance_WhenSameToken() {
+        String token = jwtConfig.generateAccessToken("testuser", List.of("ROLE_USER"));
+
+        VerifiedToken first = jwtConfig.verifyToken(token);
+        VerifiedToken second = jwtConfig.verifyToken(token);
+
+        assertSame(first, second);
+        assertEquals("testuser", first.username());
+        assertEquals(List.of("ROLE_USER"), first.roles());
+        assertFalse(first.refresh());
+    }
+
+    @Test
+    void verifyToken_ShouldThrow_WhenSignatureIsInvalid() {
+        String token = jwtConfig.generateAccessToken("testuser", List.of("ROLE_USER"));
+        JwtConfig outraChave = new JwtConfig(JwtKeys.hmac("another-secret-key-for-testing-only-32c"), 300000L, 604800000L, 1000L);
+
+        assertThrows(SignatureException.class, () -> outraChave.verifyToken(token));
+    }
+
+    @Test
+    void verifyToken_ShouldThrow_WhenTokenExpired() {
+        JwtConfig expirado = new JwtConfig(JwtKeys.hmac("test-secret-key-for-testing-only-32chars"), -1000L, 604800000L, 1000L);
+        String token = expirado.generateAccessToken("testuser", List.of("ROLE_USER"));
+
+        assertThrows(ExpiredJwtException.class, () -> expirado.verifyToken(token));
+    }
 }
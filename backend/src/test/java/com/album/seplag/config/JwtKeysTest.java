@@ -0,0 +1,102 @@
+package com.album.seplag.config;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PrivateJwk;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeysTest {
+
+    private static final String SECRET = "test-secret-key-for-testing-only-32chars";
+
+    @Test
+    void es256_ShouldSignWithKidAndVerify() {
+        JwtKeys keys = new JwtKeys("ES256", SECRET, jwkPrivado(Jwts.SIG.ES256.keyPair().build(), "chave-1"), "", true, false);
+        JwtConfig jwtConfig = new JwtConfig(keys, 300000L, 604800000L, 0L);
+
+        String token = jwtConfig.generateAccessToken("testuser", List.of("ROLE_USER"));
+
+        String header = header(token);
+        assertTrue(header.contains("\"kid\":\"chave-1\""));
+        assertTrue(header.contains("\"alg\":\"ES256\""));
+        assertEquals("testuser", jwtConfig.verifyToken(token).username());
+    }
+
+    @Test
+    void eddsa_ShouldSignAndVerify() {
+        JwtConfig jwtConfig = new JwtConfig(new JwtKeys("EdDSA", "", "", "", false, true), 300000L, 604800000L, 0L);
+
+        String token = jwtConfig.generateRefreshToken("testuser");
+
+        assertTrue(jwtConfig.verifyToken(token).refresh());
+    }
+
+    @Test
+    void rotacao_ShouldAcceptTokensFromPreviousKey_WhenListedForVerification() {
+        KeyPair antiga = Jwts.SIG.ES256.keyPair().build();
+        JwtConfig emissorAntigo = new JwtConfig(new JwtKeys("ES256", "", jwkPrivado(antiga, "antiga"), "", false, false),
+                300000L, 604800000L, 0L);
+        String tokenAntigo = emissorAntigo.generateAccessToken("testuser", List.of("ROLE_USER"));
+
+        String jwksAntiga = "{\"keys\":[" + Jwks.json(Jwks.builder().key(antiga.getPublic()).id("antiga").build()) + "]}";
+        JwtKeys novas = new JwtKeys("ES256", "", jwkPrivado(Jwts.SIG.ES256.keyPair().build(), "nova"), jwksAntiga, false, false);
+        JwtConfig emissorNovo = new JwtConfig(novas, 300000L, 604800000L, 0L);
+
+        assertEquals("testuser", emissorNovo.verifyToken(tokenAntigo).username());
+        JwtConfig semChaveAntiga = new JwtConfig(new JwtKeys("ES256", "", "", "", false, true), 300000L, 604800000L, 0L);
+        assertThrows(UnsupportedJwtException.class, () -> semChaveAntiga.verifyToken(tokenAntigo));
+    }
+
+    @Test
+    void legacyHmac_ShouldBeAcceptedOnlyWhenEnabled() {
+        String tokenHs256 = new JwtConfig(JwtKeys.hmac(SECRET), 300000L, 604800000L, 0L)
+                .generateAccessToken("testuser", List.of("ROLE_USER"));
+
+        JwtConfig comLegado = new JwtConfig(new JwtKeys("ES256", SECRET, "", "", true, true), 300000L, 604800000L, 0L);
+        JwtConfig semLegado = new JwtConfig(new JwtKeys("ES256", SECRET, "", "", false, true), 300000L, 604800000L, 0L);
+
+        assertEquals("testuser", comLegado.verifyToken(tokenHs256).username());
+        assertThrows(UnsupportedJwtException.class, () -> semLegado.verifyToken(tokenHs256));
+    }
+
+    @Test
+    void constructor_ShouldFail_WhenAsymmetricAlgorithmHasNoSigningJwk() {
+        assertThrows(IllegalStateException.class, () -> new JwtKeys("ES256", SECRET, "", "", false, false));
+        assertThrows(IllegalStateException.class, () -> new JwtKeys("EdDSA", "", "", "", false, false));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void jwks_ShouldPublishOnlyPublicParameters() {
+        String verificacao = "{\"keys\":[" + Jwks.json(Jwks.builder().key(Jwts.SIG.ES256.keyPair().build().getPublic())
+                .id("anterior").build()) + "]}";
+        JwtKeys keys = new JwtKeys("ES256", "", jwkPrivado(Jwts.SIG.ES256.keyPair().build(), "atual"), verificacao, false, false);
+
+        List<Map<String, Object>> publicadas = (List<Map<String, Object>>) keys.jwks().get("keys");
+
+        assertEquals(List.of("atual", "anterior"), publicadas.stream().map(k -> k.get("kid")).toList());
+        publicadas.forEach(k -> {
+            assertEquals("EC", k.get("kty"));
+            assertEquals("ES256", k.get("alg"));
+            assertFalse(k.containsKey("d"));
+        });
+    }
+
+    private static String jwkPrivado(KeyPair par, String kid) {
+        PrivateJwk<?, ?, ?> jwk = Jwks.builder().keyPair(par).id(kid).build();
+        return Jwks.UNSAFE_JSON(jwk);
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,32 @@
+package com.album.seplag.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.socket.WebSocketExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerMessageDeflateHandshakeHandlerTest {
+
+    private final ServletServerHttpRequest request = new ServletServerHttpRequest(new MockHttpServletRequest());
+    private final List<WebSocketExtension> pedidas = WebSocketExtension.parseExtensions(
+            "permessage-deflate; client_max_window_bits, x-webkit-deflate-frame");
+    private final List<WebSocketExtension> suportadas = List.of(new WebSocketExtension("permessage-deflate"));
+
+    @Test
+    void filterRequestedExtensions_ShouldNegotiatePermessageDeflate_WhenEnabled() {
+        List<WebSocketExtension> negociadas = new PerMessageDeflateHandshakeHandler(true)
+                .filterRequestedExtensions(request, pedidas, suportadas);
+
+        assertEquals(List.of("permessage-deflate"), negociadas.stream().map(WebSocketExtension::getName).toList());
+    }
+
+    @Test
+    void filterRequestedExtensions_ShouldDropPermessageDeflate_WhenDisabled() {
+        assertTrue(new PerMessageDeflateHandshakeHandler(false)
+                .filterRequestedExtensions(request, pedidas, suportadas).isEmpty());
+    }
+}
@@ -0,0 +1,105 @@
+package com.album.seplag.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Rate limit distribuído contra um Postgres real: cada fábrica faz o papel de uma réplica. */
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresBucketProxyFactoryTest {
+
+    private static final RateLimitBucketStore.BucketSpec SPEC =
+            new RateLimitBucketStore.BucketSpec(5, Duration.ofMinutes(1), false);
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrar() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+    }
+
+    @Test
+    void criar_ShouldShareLimitAcrossReplicas() {
+        String chave = "usuario-" + UUID.randomUUID();
+        Bucket replicaA = replica().criar(chave, SPEC);
+        Bucket replicaB = replica().criar(chave, SPEC);
+
+        assertTrue(replicaA.tryConsume(3));
+        assertFalse(replicaB.tryConsume(3));
+        assertTrue(replicaB.tryConsume(2));
+        assertFalse(replicaA.tryConsume(1));
+    }
+
+    @Test
+    void obter_ShouldSyncUnsyncedTokens_WhenProxyIsEvicted() {
+        String chave = "usuario-" + UUID.randomUUID();
+        AtomicLong agora = new AtomicLong();
+        Ticker ticker = agora::get;
+        // Até 10 tokens por 1 h sem ir ao banco: só a remoção da memória sincroniza
+        RateLimitBucketStore replicaA = new RateLimitBucketStore(new SimpleMeterRegistry(), 100, ticker,
+                new PostgresBucketProxyFactory(dataSource, jdbcTemplate, 10, 3_600_000, 3_600_000));
+
+        Bucket bucket = replicaA.obter(chave, SPEC);
+        assertTrue(bucket.tryConsume(1));
+        assertTrue(bucket.tryConsume(3));
+
+        agora.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        assertEquals(0, replicaA.tamanho());
+
+        Bucket replicaB = replica().criar(chave, SPEC);
+        assertEquals(1, replicaB.getAvailableTokens());
+    }
+
+    @Test
+    void removerBucketsOciosos_ShouldDeleteOnlyStaleRows() {
+        String ocioso = "ocioso-" + UUID.randomUUID();
+        String ativo = "ativo-" + UUID.randomUUID();
+        PostgresBucketProxyFactory factory = replica();
+        factory.criar(ocioso, SPEC).tryConsume(1);
+        factory.criar(ativo, SPEC).tryConsume(1);
+        jdbcTemplate.execute("ALTER TABLE " + PostgresBucketProxyFactory.TABELA
+                + " DISABLE TRIGGER trg_rate_limit_buckets_updated_at");
+        try {
+            jdbcTemplate.update("UPDATE " + PostgresBucketProxyFactory.TABELA
+                    + " SET updated_at = CURRENT_TIMESTAMP - INTERVAL '2 hours' WHERE id = ?", ocioso);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE " + PostgresBucketProxyFactory.TABELA
+                    + " ENABLE TRIGGER trg_rate_limit_buckets_updated_at");
+        }
+
+        factory.removerBucketsOciosos();
+
+        assertEquals(0, contar(ocioso));
+        assertEquals(1, contar(ativo));
+    }
+
+    private static PostgresBucketProxyFactory replica() {
+        return new PostgresBucketProxyFactory(dataSource, jdbcTemplate, 0, 500, 3_600_000);
+    }
+
+    private static int contar(String chave) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + PostgresBucketProxyFactory.TABELA
+                + " WHERE id = ?", Integer.class, chave);
+    }
+}
@@ -0,0 +1,138 @@
+package com.album.seplag.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.OptimizationController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RateLimitBucketStoreTest {
+
+    private static final RateLimitBucketStore.BucketSpec SPEC =
+            new RateLimitBucketStore.BucketSpec(100, Duration.ofMinutes(1), false);
+
+    @Test
+    void obter_ShouldNotExceedLimit_WhenHammeredConcurrently() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimitBucketStore store = new RateLimitBucketStore(registry, 10_000);
+        int threads = 32;
+        int tentativasPorThread = 500;
+        int usuarios = 20;
+        AtomicInteger[] aceitas = new AtomicInteger[usuarios];
+        for (int i = 0; i < usuarios; i++) {
+            aceitas[i] = new AtomicInteger();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < tentativasPorThread; i++) {
+                    int usuario = i % usuarios;
+                    if (store.obter("user-" + usuario, SPEC).tryConsume(1)) {
+                        aceitas[usuario].incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Nenhum bucket duplicado por corrida na criação: cada usuário recebe exatamente a capacidade
+        for (AtomicInteger aceitasUsuario : aceitas) {
+            assertEquals(100, aceitasUsuario.get());
+        }
+        assertEquals(usuarios, store.tamanho());
+        assertEquals(usuarios, registry.get("rate.limit.buckets").gauge().value());
+    }
+
+    @Test
+    void obter_ShouldKeepBucketInDebt_UntilFullyRefilled() {
+        FakeTicker ticker = new FakeTicker();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimitBucketStore store = new RateLimitBucketStore(registry, 10_000, ticker, null);
+
+        Bucket bucket = store.obter("ip", SPEC);
+        bucket.consumeIgnoringRateLimits(250);
+        // Acesso após o consumo recalcula a expiração a partir do débito
+        assertSame(bucket, store.obter("ip", SPEC));
+
+        ticker.avancar(Duration.ofMinutes(2));
+        assertSame(bucket, store.obter("ip", SPEC), "bucket em débito não pode ser descartado antes de reabastecer");
+
+        ticker.avancar(Duration.ofMinutes(10));
+        assertEquals(0, store.tamanho());
+        assertEquals(1.0, registry.get("rate.limit.bucket.evictions").tag("cause", "expired").counter().count());
+    }
+
+    @Test
+    void obter_ShouldBoundNumberOfBuckets() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimitBucketStore store = new RateLimitBucketStore(registry, 100);
+
+        for (int i = 0; i < 1_000; i++) {
+            store.obter("ip-" + i, SPEC).tryConsume(1);
+        }
+
+        assertTrue(store.tamanho() <= 100);
+        assertTrue(registry.get("rate.limit.bucket.evictions").tag("cause", "size").counter().count() >= 900);
+    }
+
+    @Test
+    void obter_ShouldSyncEvictedProxiesOnDedicatedThread() {
+        PostgresBucketProxyFactory factory = mock(PostgresBucketProxyFactory.class);
+        OptimizationController controller = mock(OptimizationController.class);
+        BucketProxy proxy = mock(BucketProxy.class);
+        when(proxy.getOptimizationController()).thenReturn(controller);
+        when(factory.criar(anyString(), any())).thenReturn(proxy);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        doAnswer(inv -> threads.add(Thread.currentThread().getName())).when(controller).syncImmediately();
+        RateLimitBucketStore store = new RateLimitBucketStore(new SimpleMeterRegistry(), 1, Ticker.systemTicker(), factory);
+
+        for (int i = 0; i < 10; i++) {
+            store.obter("usuario-" + i, SPEC);
+        }
+
+        // A escrita no banco de quem sai da memória não roda no commonPool nem na thread da requisição
+        verify(controller, timeout(2000).atLeastOnce()).syncImmediately();
+        assertTrue(threads.stream().allMatch("rate-limit-sync"::equals), threads.toString());
+        store.shutdown();
+    }
+
+    private static final class FakeTicker implements Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void avancar(Duration duracao) {
+            nanos.addAndGet(duracao.toNanos());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.album.seplag.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import com.album.seplag.controller.AlbumController;
+import com.album.seplag.dto.UploadSessaoCreateDTO;
+import com.album.seplag.enums.RateLimitTier;
+import jakarta.servlet.http.HttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RateLimitInterceptorTest {
+
+    static class ControllerExemplo {
+        public void listar() {
+        }
+
+        @RateLimited(RateLimitTier.UPLOAD)
+        public void enviar() {
+        }
+    }
+
+    private RateLimitConfig config;
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        config = new RateLimitConfig();
+        ReflectionTestUtils.setField(config, "readRequestsPerMinute", 5);
+        ReflectionTestUtils.setField(config, "readCost", 1);
+        ReflectionTestUtils.setField(config, "writeRequestsPerMinute", 5);
+        ReflectionTestUtils.setField(config, "writeCost", 1);
+        ReflectionTestUtils.setField(config, "uploadRequestsPerMinute", 10);
+        ReflectionTestUtils.setField(config, "uploadCost", 2);
+        ReflectionTestUtils.setField(config, "uploadBytesPerToken", 1024L);
+        RateLimitBucketStore store = new RateLimitBucketStore(new SimpleMeterRegistry(), 1000);
+        interceptor = new RateLimitInterceptor(store, config, new RateLimitTierResolver());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "usuario", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void preHandle_ShouldKeepSeparateBucketsPerTier() throws Exception {
+        HandlerMethod enviar = handler("enviar");
+        for (int i = 0; i < 5; i++) {
+            assertTrue(interceptor.preHandle(upload(0), new MockHttpServletResponse(), enviar));
+        }
+        MockHttpServletResponse recusada = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(upload(0), recusada, enviar));
+        assertEquals(429, recusada.getStatus());
+        assertNotNull(recusada.getHeader("Retry-After"));
+
+        // As demais faixas não foram afetadas pelos uploads
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/a"), new MockHttpServletResponse(), handler("listar")));
+    }
+
+    @Test
+    void preHandle_ShouldChargeUploadsBySize() throws Exception {
+        HandlerMethod enviar = handler("enviar");
+        // 8 KiB a 1 KiB por token = 8 tokens de 10
+        assertTrue(interceptor.preHandle(upload(8 * 1024), new MockHttpServletResponse(), enviar));
+        // Restam 2 tokens: um upload de 4 KiB é recusado, um pequeno (custo fixo 2) ainda passa
+        assertFalse(interceptor.preHandle(upload(4 * 1024), new MockHttpServletResponse(), enviar));
+        assertTrue(interceptor.preHandle(upload(0), new MockHttpServletResponse(), enviar));
+    }
+
+    @Test
+    void preHandle_ShouldChargeFullCapacity_WhenUploadLengthIsUnknown() throws Exception {
+        HandlerMethod enviar = handler("enviar");
+        // Sem Content-Length (chunked) o upload não pode declarar um tamanho pequeno para pagar o custo fixo
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("POST", "/a"), new MockHttpServletResponse(), enviar));
+        assertFalse(interceptor.preHandle(upload(0), new MockHttpServletResponse(), enviar));
+    }
+
+    @Test
+    void preHandle_ShouldChargeResumableUploadPartsTheFixedCost() throws Exception {
+        AlbumController controller = mock(AlbumController.class);
+        HandlerMethod criar = new HandlerMethod(controller, AlbumController.class.getMethod(
+                "criarUploadSessao", Long.class, UploadSessaoCreateDTO.class));
+        HandlerMethod enviarParte = new HandlerMethod(controller, AlbumController.class.getMethod(
+                "enviarParteUploadSessao", Long.class, String.class, long.class, HttpServletRequest.class));
+        HandlerMethod concluir = new HandlerMethod(controller, AlbumController.class.getMethod(
+                "concluirUploadSessao", Long.class, String.class));
+
+        assertTrue(interceptor.preHandle(upload(256), new MockHttpServletResponse(), criar));
+        // 40 KiB em partes de 8 KiB: 5 x custo fixo 2 = 10 tokens, o mesmo teto de um POST único de 40 KiB
+        for (int parte = 0; parte < 5; parte++) {
+            assertTrue(interceptor.preHandle(upload(8 * 1024), new MockHttpServletResponse(), enviarParte));
+        }
+        assertFalse(interceptor.preHandle(upload(8 * 1024), new MockHttpServletResponse(), enviarParte));
+        assertTrue(interceptor.preHandle(upload(0), new MockHttpServletResponse(), concluir));
+    }
+
+    @Test
+    void custo_ShouldNeverExceedTierCapacity() {
+        assertEquals(10, config.custo(RateLimitTier.UPLOAD, 1024L * 1024));
+        assertEquals(2, config.custo(RateLimitTier.UPLOAD, 0));
+        assertEquals(10, config.custo(RateLimitTier.UPLOAD, -1));
+        assertEquals(1, config.custo(RateLimitTier.READ, 4096));
+    }
+
+    private static MockHttpServletRequest upload(int bytes) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/a");
+        request.setContent(new byte[bytes]);
+        return request;
+    }
+
+    private static HandlerMethod handler(String metodo) throws NoSuchMethodException {
+        return new HandlerMethod(new ControllerExemplo(), ControllerExemplo.class.getMethod(metodo));
+    }
+}
@@ -0,0 +1,86 @@
+package com.album.seplag.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+import com.album.seplag.enums.RateLimitTier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitTierResolverTest {
+
+    static class ControllerExemplo {
+        public void listar() {
+        }
+
+        public void enviar() {
+        }
+
+        @RateLimited(RateLimitTier.EXPORT)
+        public void exportar() {
+        }
+
+        @RateLimited(value = RateLimitTier.UPLOAD, porTamanho = false)
+        public void enviarParte() {
+        }
+    }
+
+    @RateLimited(RateLimitTier.UPLOAD)
+    static class ControllerAnotado {
+        public void qualquer() {
+        }
+    }
+
+    @Test
+    void classificar_ShouldUseHttpMethodAndConsumes() throws Exception {
+        HandlerMethod listar = handler(new ControllerExemplo(), "listar");
+        HandlerMethod enviar = handler(new ControllerExemplo(), "enviar");
+
+        assertEquals(RateLimitTier.READ, RateLimitTierResolver.classificar(
+                RequestMappingInfo.paths("/a").methods(RequestMethod.GET, RequestMethod.HEAD).build(), listar));
+        assertEquals(RateLimitTier.WRITE, RateLimitTierResolver.classificar(
+                RequestMappingInfo.paths("/a").methods(RequestMethod.POST).build(), enviar));
+        assertEquals(RateLimitTier.WRITE, RateLimitTierResolver.classificar(
+                RequestMappingInfo.paths("/a").build(), enviar));
+        assertEquals(RateLimitTier.UPLOAD, RateLimitTierResolver.classificar(
+                RequestMappingInfo.paths("/a").methods(RequestMethod.POST)
+                        .consumes(MediaType.MULTIPART_FORM_DATA_VALUE).build(), enviar));
+        assertEquals(RateLimitTier.UPLOAD, RateLimitTierResolver.classificar(
+                RequestMappingInfo.paths("/a").methods(RequestMethod.PUT)
+                        .consumes(MediaType.APPLICATION_OCTET_STREAM_VALUE).build(), enviar));
+    }
+
+    @Test
+    void classificar_ShouldPreferAnnotation() throws Exception {
+        RequestMappingInfo post = RequestMappingInfo.paths("/a").methods(RequestMethod.POST).build();
+
+        assertEquals(RateLimitTier.EXPORT,
+                RateLimitTierResolver.classificar(post, handler(new ControllerExemplo(), "exportar")));
+        assertEquals(RateLimitTier.UPLOAD,
+                RateLimitTierResolver.classificar(post, handler(new ControllerAnotado(), "qualquer")));
+    }
+
+    @Test
+    void resolver_ShouldFallBackToWrite_WhenHandlerNotMapped() throws Exception {
+        RateLimitTierResolver resolver = new RateLimitTierResolver();
+
+        assertEquals(RateLimitTier.WRITE, resolver.resolver(handler(new ControllerExemplo(), "listar")));
+        assertEquals(RateLimitTier.EXPORT, resolver.resolver(handler(new ControllerExemplo(), "exportar")));
+    }
+
+    @Test
+    void cobraPorTamanho_ShouldBeFalseOnlyForFixedCostHandlers() throws Exception {
+        RateLimitTierResolver resolver = new RateLimitTierResolver();
+
+        assertFalse(resolver.cobraPorTamanho(handler(new ControllerExemplo(), "enviarParte")));
+        assertTrue(resolver.cobraPorTamanho(handler(new ControllerExemplo(), "enviar")));
+        assertTrue(resolver.cobraPorTamanho(handler(new ControllerAnotado(), "qualquer")));
+    }
+
+    private static HandlerMethod handler(Object bean, String metodo) throws NoSuchMethodException {
+        return new HandlerMethod(bean, bean.getClass().getMethod(metodo));
+    }
+}
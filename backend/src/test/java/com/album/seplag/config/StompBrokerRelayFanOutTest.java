@@ -0,0 +1,233 @@
+package com.album.seplag.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+import java.io.IOException;
+import java.net.BindException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Duas "réplicas" (relays independentes, cada uma com seus canais) ligadas ao mesmo broker STOMP:
+ * o que é publicado em uma chega aos clientes conectados na outra.
+ */
+class StompBrokerRelayFanOutTest {
+
+    private static final String DESTINO = "/topic/albuns";
+    private static final int MENSAGENS = 500;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final List<No> nos = new ArrayList<>();
+    private EmbeddedStompBroker broker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        broker = new EmbeddedStompBroker(0);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        nos.forEach(No::close);
+        broker.close();
+    }
+
+    @Test
+    void publish_ShouldReachSubscribersOnAllNodes() throws Exception {
+        No a = novoNo();
+        No b = novoNo();
+        a.conectarCliente("a-1");
+        b.conectarCliente("b-1");
+
+        a.template.convertAndSend(DESTINO, Map.of("type", "ALBUM_CREATED", "seq", 1));
+
+        assertEquals(1, ((Number) a.proximaMensagem("a-1").get("seq")).intValue());
+        assertEquals(1, ((Number) b.proximaMensagem("b-1").get("seq")).intValue());
+    }
+
+    @Test
+    void publish_ShouldReachScopedTopicSubscribersOnAllNodes() throws Exception {
+        No a = novoNo();
+        No b = novoNo();
+        b.conectarCliente("b-1", "/topic/artistas.3.albuns");
+
+        a.template.convertAndSend("/topic/artistas.3.albuns", Map.of("type", "ALBUM_UPDATED", "seq", 1));
+
+        assertEquals(1, ((Number) b.proximaMensagem("b-1").get("seq")).intValue());
+        assertTrue(a.relay.isBrokerAvailable());
+    }
+
+    @Test
+    void publish_ShouldDeliverAcrossNodesWithLowLatency(TestReporter reporter) throws Exception {
+        No a = novoNo();
+        No b = novoNo();
+        b.conectarCliente("b-1");
+
+        for (int i = 0; i < MENSAGENS; i++) {
+            a.template.convertAndSend(DESTINO, Map.of("seq", i, "enviadoEm", System.nanoTime()));
+        }
+
+        long[] latenciasUs = new long[MENSAGENS];
+        for (int i = 0; i < MENSAGENS; i++) {
+            Map<String, Object> payload = b.proximaMensagem("b-1");
+            assertEquals(i, ((Number) payload.get("seq")).intValue(), "entrega fora de ordem");
+            latenciasUs[i] = (b.ultimaChegada - ((Number) payload.get("enviadoEm")).longValue()) / 1000;
+        }
+        Arrays.sort(latenciasUs);
+        long p50 = latenciasUs[MENSAGENS / 2];
+        long p99 = latenciasUs[MENSAGENS * 99 / 100];
+        reporter.publishEntry("latencia-fan-out-us", "p50=" + p50 + " p99=" + p99 + " max=" + latenciasUs[MENSAGENS - 1]);
+        assertTrue(p99 < 500_000, "p99 de entrega entre nós acima de 500 ms: " + p99 + " us");
+    }
+
+    @Test
+    void relay_ShouldReconnect_WhenBrokerRestarts() throws Exception {
+        No a = novoNo();
+        int porta = broker.getPorta();
+
+        broker.close();
+        aguardar(() -> !a.relay.isBrokerAvailable(), 5000);
+
+        broker = religarBroker(porta, 10000);
+        // O relay tenta reconectar a sessão de sistema a cada 5 s
+        aguardar(a.relay::isBrokerAvailable, 15000);
+        a.conectarCliente("a-2");
+        a.template.convertAndSend(DESTINO, Map.of("seq", 2));
+        assertEquals(2, ((Number) a.proximaMensagem("a-2").get("seq")).intValue());
+    }
+
+    private No novoNo() throws InterruptedException {
+        No no = new No(broker.getPorta());
+        nos.add(no);
+        aguardar(no.relay::isBrokerAvailable, 5000);
+        return no;
+    }
+
+    /**
+     * As tentativas de reconexão do relay usam portas efêmeras locais e podem ocupar momentaneamente
+     * a porta antiga (auto-conexão TCP), então o bind é repetido até o prazo.
+     */
+    private static EmbeddedStompBroker religarBroker(int porta, long timeoutMs) throws Exception {
+        long limite = System.currentTimeMillis() + timeoutMs;
+        while (true) {
+            try {
+                return new EmbeddedStompBroker(porta);
+            } catch (BindException e) {
+                if (System.currentTimeMillis() > limite) {
+                    throw e;
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private static void aguardar(BooleanSupplier condicao, long timeoutMs) throws InterruptedException {
+        long limite = System.currentTimeMillis() + timeoutMs;
+        while (!condicao.getAsBoolean()) {
+            if (System.currentTimeMillis() > limite) {
+                fail("Condição não atingida em " + timeoutMs + " ms");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private record Chegada(Message<?> mensagem, long nanos) {}
+
+    /** Uma réplica: canais próprios e um relay com a mesma configuração do WebSocketConfig. */
+    private final class No implements AutoCloseable {
+
+        final ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+        final ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+        final ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        final StompBrokerRelayMessageHandler relay;
+        final SimpMessagingTemplate template;
+        final BlockingQueue<Chegada> saida = new LinkedBlockingQueue<>();
+        long ultimaChegada;
+
+        No(int porta) {
+            relay = new StompBrokerRelayMessageHandler(clientInbound, clientOutbound, brokerChannel, List.of("/topic"));
+            relay.setRelayHost("127.0.0.1");
+            relay.setRelayPort(porta);
+            relay.setSystemHeartbeatSendInterval(10000);
+            relay.setSystemHeartbeatReceiveInterval(10000);
+            clientOutbound.subscribe(m -> saida.add(new Chegada(m, System.nanoTime())));
+            relay.start();
+
+            MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+            converter.setObjectMapper(objectMapper);
+            template = new SimpMessagingTemplate(brokerChannel);
+            template.setMessageConverter(converter);
+        }
+
+        void conectarCliente(String sessionId) throws Exception {
+            conectarCliente(sessionId, DESTINO);
+        }
+
+        void conectarCliente(String sessionId, String destino) throws Exception {
+            StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+            connect.setSessionId(sessionId);
+            connect.setAcceptVersion("1.2");
+            connect.setHeartbeat(0, 0);
+            enviar(connect);
+            proximoFrame(sessionId, StompCommand.CONNECTED);
+
+            StompHeaderAccessor subscribe = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+            subscribe.setSessionId(sessionId);
+            subscribe.setSubscriptionId("sub-0");
+            subscribe.setDestination(destino);
+            subscribe.setReceipt("assinado-" + sessionId);
+            enviar(subscribe);
+            proximoFrame(sessionId, StompCommand.RECEIPT);
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> proximaMensagem(String sessionId) throws Exception {
+            Message<?> mensagem = proximoFrame(sessionId, StompCommand.MESSAGE);
+            return objectMapper.readValue((byte[]) mensagem.getPayload(), Map.class);
+        }
+
+        private Message<?> proximoFrame(String sessionId, StompCommand esperado) throws InterruptedException {
+            while (true) {
+                Chegada chegada = saida.poll(5, TimeUnit.SECONDS);
+                assertNotNull(chegada, "Nenhum " + esperado + " recebido por " + sessionId);
+                Message<?> mensagem = chegada.mensagem();
+                ultimaChegada = chegada.nanos();
+                StompHeaderAccessor headers = MessageHeaderAccessor.getAccessor(mensagem, StompHeaderAccessor.class);
+                if (headers != null && esperado == headers.getCommand() && sessionId.equals(headers.getSessionId())) {
+                    return mensagem;
+                }
+            }
+        }
+
+        private void enviar(StompHeaderAccessor headers) {
+            headers.setLeaveMutable(true);
+            clientInbound.send(MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders()));
+        }
+
+        @Override
+        public void close() {
+            relay.stop();
+        }
+    }
+}
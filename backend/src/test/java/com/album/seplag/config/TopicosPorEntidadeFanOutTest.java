@@ -0,0 +1,103 @@
+package com.album.seplag.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Milhares de clientes, cada um assinando o tópico de um artista, no broker em memória com o mesmo
+ * limite de cache do {@link WebSocketConfig}: cada publicação chega só a quem assina aquele artista,
+ * enquanto no tópico global cada publicação é entregue a todos.
+ */
+class TopicosPorEntidadeFanOutTest {
+
+    private static final int CLIENTES = 5000;
+    private static final int ARTISTAS = 1000;
+    private static final int PUBLICACOES_GLOBAIS = 50;
+
+    private final ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+    private final ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+    private final ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+    private final Map<String, LongAdder> recebidasPorSessao = new ConcurrentHashMap<>();
+    private final AtomicLong entregas = new AtomicLong();
+    private SimpleBrokerMessageHandler broker;
+
+    @BeforeEach
+    void setUp() {
+        broker = new SimpleBrokerMessageHandler(clientInbound, clientOutbound, brokerChannel, List.of("/topic"));
+        broker.setCacheLimit(16384);
+        broker.setPathMatcher(new AntPathMatcher("."));
+        clientOutbound.subscribe(m -> {
+            SimpMessageHeaderAccessor headers = MessageHeaderAccessor.getAccessor(m, SimpMessageHeaderAccessor.class);
+            if (headers != null && headers.getMessageType() == SimpMessageType.MESSAGE) {
+                entregas.incrementAndGet();
+                recebidasPorSessao.computeIfAbsent(headers.getSessionId(), s -> new LongAdder()).increment();
+            }
+        });
+        broker.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broker.stop();
+    }
+
+    @Test
+    void publish_ShouldReachOnlySubscribersOfThatArtist(TestReporter reporter) {
+        for (int i = 0; i < CLIENTES; i++) {
+            String sessao = "s-" + i;
+            enviar(SimpMessageType.CONNECT, sessao, null, null);
+            enviar(SimpMessageType.SUBSCRIBE, sessao, "sub-artista", "/topic/artistas." + (i % ARTISTAS) + ".albuns");
+            enviar(SimpMessageType.SUBSCRIBE, sessao, "sub-global", "/topic/albuns");
+        }
+
+        long inicio = System.nanoTime();
+        for (int artista = 0; artista < ARTISTAS; artista++) {
+            enviar(SimpMessageType.MESSAGE, null, null, "/topic/artistas." + artista + ".albuns");
+        }
+        long escopadoUs = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio);
+        long entregasEscopadas = entregas.getAndSet(0);
+
+        assertEquals(CLIENTES, entregasEscopadas);
+        assertEquals(CLIENTES, recebidasPorSessao.size());
+        assertTrue(recebidasPorSessao.values().stream().allMatch(n -> n.sum() == 1),
+                "algum cliente recebeu evento de outro artista");
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < PUBLICACOES_GLOBAIS; i++) {
+            enviar(SimpMessageType.MESSAGE, null, null, "/topic/albuns");
+        }
+        long globalUs = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio);
+
+        assertEquals((long) CLIENTES * PUBLICACOES_GLOBAIS, entregas.get());
+        reporter.publishEntry("fan-out-por-artista",
+                "entregas/publicacao=" + entregasEscopadas / ARTISTAS + " us/publicacao=" + (double) escopadoUs / ARTISTAS);
+        reporter.publishEntry("fan-out-global",
+                "entregas/publicacao=" + CLIENTES + " us/publicacao=" + (double) globalUs / PUBLICACOES_GLOBAIS);
+    }
+
+    private void enviar(SimpMessageType tipo, String sessao, String assinatura, String destino) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(tipo);
+        headers.setSessionId(sessao);
+        headers.setSubscriptionId(assinatura);
+        headers.setDestination(destino);
+        broker.handleMessage(MessageBuilder.createMessage("{}".getBytes(), headers.getMessageHeaders()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.album.seplag.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Sobe o {@link WebSocketConfig} real e confere limites, executores e interceptor aplicados pelo Spring. */
+@SpringJUnitWebConfig(classes = {WebSocketConfig.class, WebSocketConfigTest.Beans.class})
+@TestPropertySource(properties = {
+        "websocket.send-time-limit-ms=1234",
+        "websocket.send-buffer-size-limit=4096",
+        "websocket.channel.inbound.threads=3",
+        "websocket.channel.inbound.queue-capacity=50",
+        "websocket.channel.outbound.threads=4",
+        "websocket.channel.outbound.queue-capacity=100"
+})
+class WebSocketConfigTest {
+
+    @Autowired
+    @Qualifier("subProtocolWebSocketHandler")
+    private WebSocketHandler webSocketHandler;
+
+    @Autowired
+    @Qualifier("clientInboundChannelExecutor")
+    private ThreadPoolTaskExecutor inboundExecutor;
+
+    @Autowired
+    @Qualifier("clientOutboundChannelExecutor")
+    private ThreadPoolTaskExecutor outboundExecutor;
+
+    @Autowired
+    @Qualifier("clientOutboundChannel")
+    private AbstractSubscribableChannel clientOutboundChannel;
+
+    @Autowired
+    private WebSocketSessionRegistry sessionRegistry;
+
+    @Test
+    void transport_ShouldApplySendTimeAndBufferLimits() {
+        SubProtocolWebSocketHandler handler =
+                (SubProtocolWebSocketHandler) WebSocketHandlerDecorator.unwrap(webSocketHandler);
+
+        assertEquals(1234, handler.getSendTimeLimit());
+        assertEquals(4096, handler.getSendBufferSizeLimit());
+    }
+
+    @Test
+    void channels_ShouldUseBoundedFixedPools() {
+        assertEquals(3, inboundExecutor.getCorePoolSize());
+        assertEquals(3, inboundExecutor.getMaxPoolSize());
+        assertEquals(50, inboundExecutor.getQueueCapacity());
+        assertEquals(4, outboundExecutor.getCorePoolSize());
+        assertEquals(4, outboundExecutor.getMaxPoolSize());
+        assertEquals(100, outboundExecutor.getQueueCapacity());
+    }
+
+    @Test
+    void outboundChannel_ShouldBeInterceptedBySessionRegistry() {
+        assertTrue(clientOutboundChannel.getInterceptors().contains(sessionRegistry));
+    }
+
+    @Configuration
+    static class Beans {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        WebSocketSessionRegistry webSocketSessionRegistry(MeterRegistry meterRegistry) {
+            return new WebSocketSessionRegistry(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.album.seplag.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebSocketSessionRegistryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WebSocketSessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new WebSocketSessionRegistry(meterRegistry);
+    }
+
+    @Test
+    void events_ShouldTrackSessionsAndSubscriptionsPerDestinationPattern() {
+        conectar("s1");
+        conectar("s2");
+        registry.onSubscribe(new SessionSubscribeEvent(this, assinatura("s1", "sub-0", "/topic/albuns.10")));
+        registry.onSubscribe(new SessionSubscribeEvent(this, assinatura("s2", "sub-0", "/topic/albuns.20")));
+        registry.onSubscribe(new SessionSubscribeEvent(this, assinatura("s2", "sub-1", "/topic/artistas.3.albuns")));
+
+        assertEquals(2.0, meterRegistry.get(WebSocketSessionRegistry.METRICA_SESSOES).gauge().value());
+        assertEquals(2.0, assinaturas("/topic/albuns.{id}"));
+        assertEquals(1.0, assinaturas("/topic/artistas.{id}.albuns"));
+
+        registry.onUnsubscribe(new SessionUnsubscribeEvent(this, comando(StompCommand.UNSUBSCRIBE, "s1", "sub-0", null)));
+        registry.onDisconnect(desconexao("s2", CloseStatus.NORMAL));
+
+        assertEquals(1.0, meterRegistry.get(WebSocketSessionRegistry.METRICA_SESSOES).gauge().value());
+        assertEquals(0.0, assinaturas("/topic/albuns.{id}"));
+        assertEquals(0.0, assinaturas("/topic/artistas.{id}.albuns"));
+        assertEquals(0.0, meterRegistry.get(WebSocketSessionRegistry.METRICA_EVICTED).counter().count());
+    }
+
+    @Test
+    void onSubscribe_ShouldGroupNewDestinations_WhenPatternLimitIsReached() {
+        conectar("s1");
+        for (int i = 0; i < WebSocketSessionRegistry.MAX_PADROES + 5; i++) {
+            registry.onSubscribe(new SessionSubscribeEvent(this, assinatura("s1", "sub-" + i, "/topic/x" + i)));
+        }
+
+        assertTrue(registry.padroes().contains("/topic/x" + (WebSocketSessionRegistry.MAX_PADROES - 1)));
+        assertFalse(registry.padroes().contains("/topic/x" + WebSocketSessionRegistry.MAX_PADROES));
+        assertEquals(5.0, assinaturas(WebSocketSessionRegistry.OUTROS));
+    }
+
+    @Test
+    void onDisconnect_ShouldCountEviction_WhenSessionWasClosedForSlowness() {
+        conectar("s1");
+
+        registry.onDisconnect(desconexao("s1", CloseStatus.SESSION_NOT_RELIABLE));
+
+        assertEquals(0, registry.sessoesAtivas());
+        assertEquals(1.0, meterRegistry.get(WebSocketSessionRegistry.METRICA_EVICTED).counter().count());
+    }
+
+    @Test
+    void outboundChannel_ShouldDropMessagesForClosedSessionsAndTrackQueueDepth() {
+        List<Message<?>> entregues = new ArrayList<>();
+        ExecutorSubscribableChannel canal = new ExecutorSubscribableChannel();
+        canal.addInterceptor(registry);
+        canal.subscribe(message -> {
+            assertEquals(1.0, meterRegistry.get(WebSocketSessionRegistry.METRICA_FILA_SAIDA).gauge().value());
+            entregues.add(message);
+        });
+        conectar("s1");
+
+        assertTrue(canal.send(mensagem("s1")));
+        assertFalse(canal.send(mensagem("fechada")));
+
+        assertEquals(1, entregues.size());
+        assertEquals(0.0, meterRegistry.get(WebSocketSessionRegistry.METRICA_FILA_SAIDA).gauge().value());
+        assertEquals(1.0, descartadas("session_closed"));
+    }
+
+    @Test
+    void outboundChannel_ShouldLeaveQueueOnce_WhenExecutorIsFullAndTaskRunsOnCaller() {
+        List<Message<?>> entregues = new ArrayList<>();
+        ExecutorSubscribableChannel canal = new ExecutorSubscribableChannel(tarefa -> {
+            throw new RejectedExecutionException("cheio");
+        });
+        canal.addInterceptor(registry);
+        canal.subscribe(message -> {
+            entregues.add(message);
+            throw new IllegalStateException("sessão falhou na escrita");
+        });
+        conectar("s1");
+
+        assertThrows(RuntimeException.class, () -> canal.send(mensagem("s1")));
+
+        assertEquals(1, entregues.size());
+        assertEquals(0.0, meterRegistry.get(WebSocketSessionRegistry.METRICA_FILA_SAIDA).gauge().value());
+        assertEquals(0.0, descartadas("rejected"));
+    }
+
+    @Test
+    void outboundChannel_ShouldCountRejectedMessages_WhenSendFailsBeforeHandler() {
+        ExecutorSubscribableChannel canal = new ExecutorSubscribableChannel(Runnable::run);
+        canal.addInterceptor(registry);
+        canal.addInterceptor(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                throw new IllegalStateException("recusada");
+            }
+        });
+        canal.subscribe(message -> fail("não deveria ser entregue"));
+        conectar("s1");
+
+        assertThrows(RuntimeException.class, () -> canal.send(mensagem("s1")));
+
+        assertEquals(0.0, meterRegistry.get(WebSocketSessionRegistry.METRICA_FILA_SAIDA).gauge().value());
+        assertEquals(1.0, descartadas("rejected"));
+    }
+
+    private void conectar(String sessionId) {
+        registry.onConnect(new SessionConnectEvent(this, comando(StompCommand.CONNECT, sessionId, null, null)));
+    }
+
+    private SessionDisconnectEvent desconexao(String sessionId, CloseStatus status) {
+        return new SessionDisconnectEvent(this, comando(StompCommand.DISCONNECT, sessionId, null, null), sessionId, status);
+    }
+
+    private static Message<byte[]> assinatura(String sessionId, String subscriptionId, String destino) {
+        return comando(StompCommand.SUBSCRIBE, sessionId, subscriptionId, destino);
+    }
+
+    private static Message<byte[]> comando(StompCommand command, String sessionId, String subscriptionId, String destino) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        if (subscriptionId != null) {
+            accessor.setSubscriptionId(subscriptionId);
+        }
+        if (destino != null) {
+            accessor.setDestination(destino);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> mensagem(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination("/topic/albuns");
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private double assinaturas(String padrao) {
+        return meterRegistry.get(WebSocketSessionRegistry.METRICA_ASSINATURAS).tag("destination", padrao).gauge().value();
+    }
+
+    private double descartadas(String motivo) {
+        return meterRegistry.get(WebSocketSessionRegistry.METRICA_DESCARTADAS).tag("reason", motivo).counter().count();
+    }
+}
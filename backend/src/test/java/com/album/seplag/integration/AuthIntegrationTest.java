@@ -4,6 +4,7 @@ import com.album.seplag.dto.LoginRequest;
 import com.album.seplag.dto.LoginResponse;
 import com.album.seplag.dto.UsuarioRegisterDTO;
 import com.album.seplag.exception.InvalidCredentialsException;
+import com.album.seplag.exception.InvalidTokenException;
 import com.album.seplag.model.Usuario;
 import com.album.seplag.repository.UsuarioRepository;
 import com.album.seplag.service.AuthService;
@@ -123,6 +124,22 @@ class AuthIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Logout realizado com sucesso"));
     }
 
+    @Test
+    void logout_ShouldRevokeAccessAndRefreshTokens() throws Exception {
+        LoginResponse loginResponse = authService.login(new LoginRequest("testuser", "password123"));
+
+        mockMvc.perform(post("/api/v1/auth/logout")
+                        .header("Authorization", "Bearer " + loginResponse.accessToken())
+                        .contentType("application/json")
+                        .content("{\"refreshToken\":\"" + loginResponse.refreshToken() + "\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/usuarios/me")
+                        .header("Authorization", "Bearer " + loginResponse.accessToken()))
+                .andExpect(status().isUnauthorized());
+        assertThrows(InvalidTokenException.class, () -> authService.refreshToken(loginResponse.refreshToken()));
+    }
+
     @Test
     void logout_ShouldReturn401_WhenNotAuthenticated() throws Exception {
         mockMvc.perform(post("/api/v1/auth/logout"))
@@ -0,0 +1,41 @@
+package com.album.seplag.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void talvezContenha_ShouldNeverReturnFalseNegatives() {
+        BloomFilter filtro = new BloomFilter(10_000, 0.001);
+        String[] valores = new String[10_000];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = UUID.randomUUID().toString();
+            filtro.adicionar(valores[i]);
+        }
+
+        for (String valor : valores) {
+            assertTrue(filtro.talvezContenha(valor));
+        }
+    }
+
+    @Test
+    void talvezContenha_ShouldKeepFalsePositiveRateNearConfigured() {
+        BloomFilter filtro = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar("j:" + UUID.randomUUID());
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.talvezContenha("j:" + UUID.randomUUID())) {
+                falsosPositivos++;
+            }
+        }
+        // 1% esperado; margem para variação aleatória
+        assertTrue(falsosPositivos < 2_000, "falsos positivos: " + falsosPositivos);
+    }
+}
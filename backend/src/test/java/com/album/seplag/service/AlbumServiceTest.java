@@ -1,7 +1,11 @@
 package com.album.seplag.service;
 
+import com.album.seplag.dto.AlbumCreateDTO;
 import com.album.seplag.dto.AlbumDTO;
+import com.album.seplag.dto.AlbumUpdateDTO;
 import com.album.seplag.dto.CapaAlbumDTO;
+import com.album.seplag.dto.NotificationDTO;
+import com.album.seplag.dto.PresignedUrlResponse;
 import com.album.seplag.exception.ResourceNotFoundException;
 import com.album.seplag.model.Album;
 import com.album.seplag.model.Artista;
@@ -10,22 +14,29 @@ import com.album.seplag.model.Usuario;
 import com.album.seplag.repository.AlbumRepository;
 import com.album.seplag.repository.ArtistaRepository;
 import com.album.seplag.repository.UsuarioRepository;
+import com.album.seplag.security.UsuarioAutenticado;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,7 +58,10 @@ class AlbumServiceTest {
     private MinIOService minIOService;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private UploadSessaoService uploadSessaoService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private AlbumService albumService;
@@ -119,6 +133,7 @@ class AlbumServiceTest {
         });
 
         verify(albumRepository).findById(1L);
+        verify(uploadSessaoService).abortarSessoesDoAlbum(1L);
         verify(albumRepository).delete(album);
     }
 
@@ -153,5 +168,148 @@ class AlbumServiceTest {
         assertEquals("albuns/1/uuid_capa.jpg", result.get(0).nomeArquivo());
         verify(minIOService).uploadCapa(1L, file);
     }
-}
 
+    @Test
+    void create_ShouldInsertWithReferences_WhenPrincipalCarriesUserId() {
+        autenticar(new UsuarioAutenticado(1L, "testuser"));
+        when(artistaRepository.getReferenceById(1L)).thenReturn(artista);
+        when(usuarioRepository.getReferenceById(1L)).thenReturn(usuario);
+        when(albumRepository.saveAndFlush(any(Album.class))).thenAnswer(inv -> {
+            Album salvo = inv.getArgument(0);
+            salvo.setId(10L);
+            salvo.setCreatedAt(LocalDateTime.now());
+            return salvo;
+        });
+
+        AlbumDTO result = albumService.create(new AlbumCreateDTO("Novo", 1L, LocalDate.now()));
+
+        assertEquals(10L, result.id());
+        assertEquals(1L, result.artistaId());
+        assertTrue(result.capas().isEmpty());
+        verify(artistaRepository, never()).findById(any());
+        verify(usuarioRepository, never()).findByUsername(any());
+        verify(usuarioRepository, never()).findIdByUsername(any());
+        verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof NotificationEvent n
+                && n.destino().equals("/topic/albuns")
+                && n.notificacao().id().equals(10L)
+                && n.notificacao().changes().get("titulo").equals("Novo")
+                && n.notificacao().data() == null));
+        verifyNoInteractions(minIOService);
+    }
+
+    @Test
+    void create_ShouldLookUpOnlyUserId_WhenPrincipalHasNoId() {
+        autenticar("testuser");
+        when(usuarioRepository.findIdByUsername("testuser")).thenReturn(Optional.of(1L));
+        when(artistaRepository.getReferenceById(1L)).thenReturn(artista);
+        when(usuarioRepository.getReferenceById(1L)).thenReturn(usuario);
+        when(albumRepository.saveAndFlush(any(Album.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        albumService.create(new AlbumCreateDTO("Novo", 1L, LocalDate.now()));
+
+        verify(usuarioRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void create_ShouldThrowResourceNotFound_WhenArtistaForeignKeyFails() {
+        autenticar(new UsuarioAutenticado(1L, "testuser"));
+        when(artistaRepository.getReferenceById(99L)).thenReturn(new Artista());
+        when(usuarioRepository.getReferenceById(1L)).thenReturn(usuario);
+        when(albumRepository.saveAndFlush(any(Album.class))).thenThrow(new DataIntegrityViolationException(
+                "insert", new RuntimeException("violates foreign key constraint \"fk_album_artista\"")));
+
+        ResourceNotFoundException e = assertThrows(ResourceNotFoundException.class,
+                () -> albumService.create(new AlbumCreateDTO("Novo", 99L, LocalDate.now())));
+        assertTrue(e.getMessage().contains("99"));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void create_ShouldRethrow_WhenViolationIsNotAForeignKey() {
+        autenticar(new UsuarioAutenticado(1L, "testuser"));
+        DataIntegrityViolationException violacao = new DataIntegrityViolationException(
+                "insert", new RuntimeException("null value in column \"titulo\" violates not-null constraint"));
+        when(artistaRepository.getReferenceById(1L)).thenReturn(artista);
+        when(usuarioRepository.getReferenceById(1L)).thenReturn(usuario);
+        when(albumRepository.saveAndFlush(any(Album.class))).thenThrow(violacao);
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> albumService.create(new AlbumCreateDTO("Novo", 1L, LocalDate.now())));
+        assertSame(violacao, e);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void update_ShouldPublishOnlyChangedFieldsAndVersion_WithoutTouchingMinIO() {
+        CapaAlbum capa = new CapaAlbum();
+        capa.setId(5L);
+        capa.setAlbum(album);
+        album.getCapas().add(capa);
+        LocalDateTime versao = LocalDateTime.of(2026, 1, 1, 12, 0);
+        when(albumRepository.findById(1L)).thenReturn(Optional.of(album));
+        when(artistaRepository.findById(1L)).thenReturn(Optional.of(artista));
+        when(albumRepository.saveAndFlush(album)).thenAnswer(inv -> {
+            album.setUpdatedAt(versao);
+            return album;
+        });
+        when(minIOService.getPresignedUrl(1L, 5L)).thenReturn(new PresignedUrlResponse("http://capa", null));
+        ArgumentCaptor<Object> evento = ArgumentCaptor.forClass(Object.class);
+        doAnswer(inv -> {
+            verifyNoInteractions(minIOService);
+            return null;
+        }).when(eventPublisher).publishEvent(evento.capture());
+
+        albumService.update(1L, new AlbumUpdateDTO("Novo Título", 1L, album.getDataLancamento()));
+
+        NotificationDTO notificacao = ((NotificationEvent) evento.getValue()).notificacao();
+        assertEquals("ALBUM_UPDATED", notificacao.type());
+        assertEquals(1L, notificacao.id());
+        assertEquals(versao.toString(), notificacao.version());
+        assertEquals(Map.of("titulo", "Novo Título"), notificacao.changes());
+        assertNull(notificacao.data());
+    }
+
+    @Test
+    void update_ShouldNotifyOldAndNewArtistTopics_WhenArtistChanges() {
+        Artista outro = new Artista();
+        outro.setId(2L);
+        when(albumRepository.findById(1L)).thenReturn(Optional.of(album));
+        when(artistaRepository.findById(2L)).thenReturn(Optional.of(outro));
+        when(albumRepository.saveAndFlush(album)).thenReturn(album);
+
+        albumService.update(1L, new AlbumUpdateDTO(album.getTitulo(), 2L, album.getDataLancamento()));
+
+        verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof NotificationEvent n
+                && n.destino().equals("/topic/albuns")
+                && n.escopos().equals(List.of("/topic/albuns.1", "/topic/artistas.1.albuns", "/topic/artistas.2.albuns"))));
+    }
+
+    @Test
+    void update_ShouldNotPublish_WhenNothingChanged() {
+        when(albumRepository.findById(1L)).thenReturn(Optional.of(album));
+        when(artistaRepository.findById(1L)).thenReturn(Optional.of(artista));
+        when(albumRepository.saveAndFlush(album)).thenReturn(album);
+
+        albumService.update(1L, new AlbumUpdateDTO(album.getTitulo(), 1L, album.getDataLancamento()));
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void versao_ShouldThrowResourceNotFound_WhenAlbumMissing() {
+        when(albumRepository.findVersaoById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> albumService.versao(99L));
+        verify(albumRepository, never()).findById(any());
+    }
+
+    @AfterEach
+    void limparContexto() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void autenticar(Object principal) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
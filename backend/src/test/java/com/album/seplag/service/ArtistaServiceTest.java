@@ -1,23 +1,29 @@
 package com.album.seplag.service;
 
 import com.album.seplag.dto.ArtistaDTO;
+import com.album.seplag.dto.ArtistaUpdateDTO;
+import com.album.seplag.dto.NotificationDTO;
+import com.album.seplag.dto.PresignedUrlResponse;
+import com.album.seplag.enums.TipoArtista;
 import com.album.seplag.exception.ResourceNotFoundException;
 import com.album.seplag.model.Artista;
 import com.album.seplag.repository.ArtistaRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,7 +39,7 @@ class ArtistaServiceTest {
     private MinIOService minIOService;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private ArtistaService artistaService;
@@ -96,5 +102,37 @@ class ArtistaServiceTest {
         verify(artistaRepository).findById(1L);
         verify(artistaRepository).delete(artista);
     }
-}
 
+    @Test
+    void update_ShouldPublishOnlyChangedFields_WithoutLoadingAlbunsOrPhoto() {
+        Artista gerenciado = spy(artista);
+        gerenciado.setFotoNomeArquivo("artistas/1/foto.jpg");
+        when(artistaRepository.findById(1L)).thenReturn(Optional.of(gerenciado));
+        when(artistaRepository.saveAndFlush(gerenciado)).thenReturn(gerenciado);
+        when(minIOService.getPresignedUrlFotoArtista(1L)).thenReturn(new PresignedUrlResponse("http://foto", null));
+        ArgumentCaptor<Object> evento = ArgumentCaptor.forClass(Object.class);
+        doAnswer(inv -> {
+            verifyNoInteractions(minIOService);
+            verify(gerenciado, never()).getAlbuns();
+            return null;
+        }).when(eventPublisher).publishEvent(evento.capture());
+
+        artistaService.update(1L, new ArtistaUpdateDTO("Artista Teste", "Pop", TipoArtista.BANDA, "Biografia do artista"));
+
+        NotificationDTO notificacao = ((NotificationEvent) evento.getValue()).notificacao();
+        assertEquals("ARTISTA_UPDATED", notificacao.type());
+        assertEquals(Map.of("genero", "Pop", "tipoArtista", "BANDA"), notificacao.changes());
+    }
+
+    @Test
+    void delete_ShouldPublishIdOnly() {
+        when(artistaRepository.findById(1L)).thenReturn(Optional.of(artista));
+
+        artistaService.delete(1L);
+
+        verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof NotificationEvent n
+                && n.notificacao().id().equals(1L)
+                && n.notificacao().changes() == null
+                && n.notificacao().data() == null));
+    }
+}
@@ -5,6 +5,9 @@ import com.album.seplag.dto.LoginRequest;
 import com.album.seplag.dto.LoginResponse;
 import com.album.seplag.exception.InvalidCredentialsException;
 import com.album.seplag.exception.InvalidTokenException;
+import com.album.seplag.security.UsuarioDetails;
+import com.album.seplag.security.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,12 +15,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.quality.Strictness;
 import org.mockito.junit.jupiter.MockitoSettings;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 
@@ -42,18 +47,20 @@ class AuthServiceTest {
     @Mock
     private UsuarioService usuarioService;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     private AuthService authService;
 
     private UserDetails userDetails;
 
     @BeforeEach
     void setUp() {
-        userDetails = User.builder()
-                .username("testuser")
-                .password("encodedPassword")
-                .roles("USER")
-                .build();
-        authService = new AuthService(userDetailsService, passwordEncoder, jwtConfig, usuarioService);
+        userDetails = new UsuarioDetails(1L, "testuser", "encodedPassword",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        authService = new AuthService(userDetailsService,
+                new PasswordHashingService(passwordEncoder, new SimpleMeterRegistry(), 10, 1, 8, 2, 5000),
+                jwtConfig, usuarioService, tokenRevocationService);
     }
 
     @Test
@@ -61,7 +68,7 @@ class AuthServiceTest {
         LoginRequest request = new LoginRequest("testuser", "password");
         when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
         when(passwordEncoder.matches("password", userDetails.getPassword())).thenReturn(true);
-        when(jwtConfig.generateAccessToken(eq("testuser"), anyList())).thenReturn("access-token");
+        when(jwtConfig.generateAccessToken(eq(1L), eq("testuser"), anyList())).thenReturn("access-token");
         when(jwtConfig.generateRefreshToken("testuser")).thenReturn("refresh-token");
         when(jwtConfig.getExpiration()).thenReturn(300000L);
         doNothing().when(usuarioService).atualizarLastLogin("testuser");
@@ -73,10 +80,23 @@ class AuthServiceTest {
         assertEquals("refresh-token", response.refreshToken());
         assertEquals("Bearer", response.type());
         assertEquals(300000L, response.expiresIn());
-        verify(jwtConfig).generateAccessToken(eq("testuser"), anyList());
+        verify(jwtConfig).generateAccessToken(eq(1L), eq("testuser"), anyList());
         verify(jwtConfig).generateRefreshToken("testuser");
     }
 
+    @Test
+    void login_ShouldRehashPassword_WhenCostDiffersFromConfigured() {
+        String hashAntigo = "$2a$08$abcdefghijklmnopqrstuuABCDEFGHIJKLMNOPQRSTUVWXYZ01234";
+        UserDetails comHashAntigo = User.builder().username("testuser").password(hashAntigo).roles("USER").build();
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(comHashAntigo);
+        when(passwordEncoder.matches("password", hashAntigo)).thenReturn(true);
+        when(passwordEncoder.encode("password")).thenReturn("novo-hash");
+
+        authService.login(new LoginRequest("testuser", "password"));
+
+        verify(usuarioService, timeout(2000)).atualizarHashSenha("testuser", "novo-hash");
+    }
+
     @Test
     void login_ShouldThrowInvalidCredentialsException_WhenPasswordIsInvalid() {
         LoginRequest request = new LoginRequest("testuser", "wrongpassword");
@@ -101,8 +121,9 @@ class AuthServiceTest {
         var usuarioDTO = new com.album.seplag.dto.UsuarioDTO(1L, "testuser", "test@example.com", true, Set.of("ROLE_USER"), null, null);
         when(jwtConfig.getUsernameFromToken(anyString())).thenReturn("testuser");
         when(jwtConfig.validateRefreshToken(anyString(), eq("testuser"))).thenReturn(true);
+        when(jwtConfig.verifyToken(refreshToken)).thenReturn(refresh("jti-refresh"));
         when(usuarioService.findByUsername("testuser")).thenReturn(usuarioDTO);
-        when(jwtConfig.generateAccessToken(eq("testuser"), anyList())).thenReturn("new-access-token");
+        when(jwtConfig.generateAccessToken(eq(1L), eq("testuser"), anyList())).thenReturn("new-access-token");
         when(jwtConfig.generateRefreshToken("testuser")).thenReturn("new-refresh-token");
         when(jwtConfig.getExpiration()).thenReturn(300000L);
 
@@ -112,7 +133,7 @@ class AuthServiceTest {
         assertEquals("new-access-token", response.accessToken());
         assertEquals("new-refresh-token", response.refreshToken());
         assertEquals("Bearer", response.type());
-        verify(jwtConfig).generateAccessToken(eq("testuser"), anyList());
+        verify(jwtConfig).generateAccessToken(eq(1L), eq("testuser"), anyList());
         verify(jwtConfig).generateRefreshToken("testuser");
     }
 
@@ -124,4 +145,40 @@ class AuthServiceTest {
 
         assertThrows(InvalidTokenException.class, () -> authService.refreshToken(token));
     }
+
+    @Test
+    void refreshToken_ShouldThrowInvalidTokenException_WhenTokenIsRevoked() {
+        String token = "revoked-refresh-token";
+        VerifiedToken verified = refresh("jti-revogado");
+        when(jwtConfig.getUsernameFromToken(token)).thenReturn("testuser");
+        when(jwtConfig.validateRefreshToken(token, "testuser")).thenReturn(true);
+        when(jwtConfig.verifyToken(token)).thenReturn(verified);
+        when(tokenRevocationService.isRevogado(verified)).thenReturn(true);
+
+        assertThrows(InvalidTokenException.class, () -> authService.refreshToken(token));
+        verify(jwtConfig, never()).generateAccessToken(any(), anyString(), anyList());
+    }
+
+    @Test
+    void logout_ShouldRevokeAccessAndOwnRefreshToken() {
+        VerifiedToken access = new VerifiedToken("testuser", List.of("ROLE_USER"), false,
+                Instant.now().plusSeconds(300), "jti-access", Instant.now());
+        VerifiedToken refresh = refresh("jti-refresh");
+        VerifiedToken refreshDeOutro = new VerifiedToken("outro", List.of(), true,
+                Instant.now().plusSeconds(3600), "jti-outro", Instant.now());
+        when(jwtConfig.verifyToken("access")).thenReturn(access);
+        when(jwtConfig.verifyToken("refresh")).thenReturn(refresh);
+        when(jwtConfig.verifyToken("refresh-outro")).thenReturn(refreshDeOutro);
+
+        authService.logout("access", "refresh");
+        authService.logout("access", "refresh-outro");
+
+        verify(tokenRevocationService, times(2)).revogar(access);
+        verify(tokenRevocationService).revogar(refresh);
+        verify(tokenRevocationService, never()).revogar(refreshDeOutro);
+    }
+
+    private static VerifiedToken refresh(String jti) {
+        return new VerifiedToken("testuser", List.of(), true, Instant.now().plusSeconds(3600), jti, Instant.now());
+    }
 }
@@ -0,0 +1,126 @@
+package com.album.seplag.service;
+
+import com.album.seplag.model.CapaAlbum;
+import com.album.seplag.repository.CapaAlbumRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CapaMetadataBackfillJobTest {
+
+    private static final int MAX_TENTATIVAS = 3;
+
+    @Mock
+    private CapaAlbumRepository capaAlbumRepository;
+
+    @Mock
+    private MinIOService minIOService;
+
+    @Mock
+    private MinIOBucketInitializer bucketInitializer;
+
+    @Mock
+    private ImageMetadataExtractor imageMetadataExtractor;
+
+    private CapaMetadataBackfillJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new CapaMetadataBackfillJob(capaAlbumRepository, minIOService, bucketInitializer,
+                imageMetadataExtractor, true, 2, 2, MAX_TENTATIVAS);
+        when(bucketInitializer.isReady()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+    }
+
+    @Test
+    void executar_ShouldPageByLastIdAndSkipExhaustedCovers() throws Exception {
+        when(capaAlbumRepository.findByLarguraIsNullAndMetadadosTentativasLessThanAndIdGreaterThanOrderByIdAsc(
+                MAX_TENTATIVAS, 0L, PageRequest.of(0, 2))).thenReturn(List.of(capa(1L), capa(5L)));
+        when(capaAlbumRepository.findByLarguraIsNullAndMetadadosTentativasLessThanAndIdGreaterThanOrderByIdAsc(
+                MAX_TENTATIVAS, 5L, PageRequest.of(0, 2))).thenReturn(List.of(capa(9L)));
+        when(minIOService.abrirObjeto(any())).thenAnswer(inv -> new ByteArrayInputStream(new byte[0]));
+        when(imageMetadataExtractor.extrair(any())).thenReturn(metadata());
+
+        job.executar();
+
+        verify(capaAlbumRepository, times(2))
+                .findByLarguraIsNullAndMetadadosTentativasLessThanAndIdGreaterThanOrderByIdAsc(anyInt(), anyLong(), any());
+        verify(capaAlbumRepository, times(3)).atualizarMetadados(anyLong(), eq(640), eq(480), eq("#112233"), eq("LKO2"));
+    }
+
+    @Test
+    void executar_ShouldUpdateMetadata_WhenExtractionSucceeds() throws Exception {
+        when(capaAlbumRepository.findByLarguraIsNullAndMetadadosTentativasLessThanAndIdGreaterThanOrderByIdAsc(
+                eq(MAX_TENTATIVAS), eq(0L), any())).thenReturn(List.of(capa(7L)));
+        when(minIOService.abrirObjeto("capa-7.jpg")).thenReturn(new ByteArrayInputStream(new byte[0]));
+        when(imageMetadataExtractor.extrair(any())).thenReturn(metadata());
+
+        job.executar();
+
+        verify(capaAlbumRepository).atualizarMetadados(7L, 640, 480, "#112233", "LKO2");
+        verify(capaAlbumRepository, never()).registrarFalhaMetadados(anyLong());
+    }
+
+    @Test
+    void executar_ShouldRecordFailure_WhenObjectIsMissing() throws Exception {
+        when(capaAlbumRepository.findByLarguraIsNullAndMetadadosTentativasLessThanAndIdGreaterThanOrderByIdAsc(
+                eq(MAX_TENTATIVAS), eq(0L), any())).thenReturn(List.of(capa(3L)));
+        when(minIOService.abrirObjeto("capa-3.jpg")).thenThrow(new FileNotFoundException("capa-3.jpg"));
+
+        job.executar();
+
+        verify(capaAlbumRepository).registrarFalhaMetadados(3L);
+        verify(capaAlbumRepository, never()).atualizarMetadados(anyLong(), any(), any(), any(), any());
+    }
+
+    @Test
+    void executar_ShouldRecordFailure_WhenImageFormatIsNotRecognized() throws Exception {
+        when(capaAlbumRepository.findByLarguraIsNullAndMetadadosTentativasLessThanAndIdGreaterThanOrderByIdAsc(
+                eq(MAX_TENTATIVAS), eq(0L), any())).thenReturn(List.of(capa(4L)));
+        when(minIOService.abrirObjeto("capa-4.jpg")).thenReturn(new ByteArrayInputStream(new byte[0]));
+        when(imageMetadataExtractor.extrair(any())).thenReturn(ImageMetadataExtractor.ImageMetadata.VAZIO);
+
+        job.executar();
+
+        verify(capaAlbumRepository).registrarFalhaMetadados(4L);
+        verify(capaAlbumRepository, never()).atualizarMetadados(anyLong(), any(), any(), any(), any());
+    }
+
+    @Test
+    void executar_ShouldDoNothing_WhenBucketIsNotReady() {
+        when(bucketInitializer.isReady()).thenReturn(false);
+
+        job.executar();
+
+        verifyNoInteractions(capaAlbumRepository, minIOService);
+    }
+
+    private static CapaAlbum capa(Long id) {
+        CapaAlbum capa = new CapaAlbum();
+        capa.setId(id);
+        capa.setNomeArquivo("capa-" + id + ".jpg");
+        return capa;
+    }
+
+    private static ImageMetadataExtractor.ImageMetadata metadata() {
+        return new ImageMetadataExtractor.ImageMetadata(640, 480, "#112233", "LKO2");
+    }
+}
@@ -0,0 +1,64 @@
+package com.album.seplag.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageMetadataExtractorTest {
+
+    private final ImageMetadataExtractor extractor = new ImageMetadataExtractor();
+
+    @Test
+    void extrair_ShouldReturnDimensionsColorAndBlurhash_ForPng() throws IOException {
+        BufferedImage imagem = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = imagem.createGraphics();
+        g.setColor(new Color(0x20, 0x40, 0x80));
+        g.fillRect(0, 0, 800, 600);
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 100, 100);
+        g.dispose();
+
+        ImageMetadataExtractor.ImageMetadata metadata = extractor.extrair(new ByteArrayInputStream(toBytes(imagem, "png")));
+
+        assertEquals(800, metadata.largura());
+        assertEquals(600, metadata.altura());
+        assertEquals("#204080", metadata.corDominante());
+        assertNotNull(metadata.blurhash());
+        // 1 (tamanho) + 1 (máximo AC) + 4 (DC) + 2 * 11 (AC) = 28
+        assertEquals(28, metadata.blurhash().length());
+    }
+
+    @Test
+    void extrair_ShouldReturnVazio_WhenStreamIsNotAnImage() {
+        ImageMetadataExtractor.ImageMetadata metadata =
+                extractor.extrair(new ByteArrayInputStream("não é imagem".getBytes()));
+
+        assertSame(ImageMetadataExtractor.ImageMetadata.VAZIO, metadata);
+    }
+
+    @Test
+    void blurHash_ShouldMatchReferenceEncoding_ForSolidColor() {
+        BufferedImage imagem = new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = imagem.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 8, 8);
+        g.dispose();
+
+        // Componente DC branco (0xffffff), sem componentes AC
+        assertEquals("00TSUA", BlurHashEncoder.encode(imagem, 1, 1));
+    }
+
+    private static byte[] toBytes(BufferedImage imagem, String formato) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(imagem, formato, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,65 @@
+package com.album.seplag.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Gravação em lote do último acesso contra um Postgres real, com os triggers das migrations. */
+@Testcontainers(disabledWithoutDocker = true)
+class LastLoginBufferPostgresTest {
+
+    private static final String UPDATED_AT = "SELECT updated_at FROM usuarios WHERE username = ?";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrar() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(),
+                POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+    }
+
+    @Test
+    void flush_ShouldKeepUpdatedAt_WhenOnlyLastLoginChanges() {
+        inserir("acesso");
+        OffsetDateTime antes = jdbcTemplate.queryForObject(UPDATED_AT, OffsetDateTime.class, "acesso");
+        LastLoginBuffer buffer = new LastLoginBuffer(jdbcTemplate, new SimpleMeterRegistry(), 10);
+
+        buffer.registrar("acesso");
+        buffer.flush();
+
+        assertNotNull(jdbcTemplate.queryForObject("SELECT last_login FROM usuarios WHERE username = ?",
+                OffsetDateTime.class, "acesso"));
+        assertEquals(antes, jdbcTemplate.queryForObject(UPDATED_AT, OffsetDateTime.class, "acesso"));
+    }
+
+    @Test
+    void update_ShouldTouchUpdatedAt_WhenProfileChanges() {
+        inserir("perfil");
+        OffsetDateTime antes = jdbcTemplate.queryForObject(UPDATED_AT, OffsetDateTime.class, "perfil");
+
+        jdbcTemplate.update("UPDATE usuarios SET email = ? WHERE username = ?", "novo-perfil@teste.com", "perfil");
+
+        assertTrue(jdbcTemplate.queryForObject(UPDATED_AT, OffsetDateTime.class, "perfil").isAfter(antes));
+    }
+
+    /** Insere com updated_at no passado para que qualquer toque do trigger seja visível. */
+    private static void inserir(String username) {
+        jdbcTemplate.update("INSERT INTO usuarios (username, password, email, updated_at)"
+                + " VALUES (?, 'hash', ?, CURRENT_TIMESTAMP - INTERVAL '1 hour')", username, username + "@teste.com");
+    }
+}
@@ -0,0 +1,74 @@
+package com.album.seplag.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LastLoginBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private LastLoginBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new LastLoginBuffer(jdbcTemplate, new SimpleMeterRegistry(), 2);
+    }
+
+    @Test
+    void flush_ShouldWriteOneStatementPerBatch() {
+        buffer.registrar("a");
+        buffer.registrar("b");
+        buffer.registrar("c");
+        buffer.registrar("a");
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(2, 1);
+
+        buffer.flush();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).update(sql.capture(), any(Object[].class));
+        assertTrue(sql.getAllValues().get(0).contains("FROM (VALUES"));
+        assertEquals(0, buffer.pendentes());
+    }
+
+    @Test
+    void flush_ShouldKeepPending_WhenUpdateFails() {
+        buffer.registrar("a");
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("banco indisponível"));
+
+        buffer.flush();
+
+        assertEquals(1, buffer.pendentes());
+    }
+
+    @Test
+    void shutdown_ShouldFlushPending() {
+        buffer.registrar("a");
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+
+        buffer.shutdown();
+
+        verify(jdbcTemplate).update(anyString(), any(Object[].class));
+        assertEquals(0, buffer.pendentes());
+    }
+
+    @Test
+    void flush_ShouldDoNothing_WhenEmpty() {
+        buffer.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,85 @@
+package com.album.seplag.service;
+
+import com.album.seplag.config.MinIOConfig;
+import io.minio.MinioClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.ConnectException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MinIOBucketInitializerTest {
+
+    @Mock
+    private MinIOConfig minIOConfig;
+
+    @Mock
+    private MinioClient minioClient;
+
+    private MinIOBucketInitializer initializer;
+
+    @BeforeEach
+    void setUp() {
+        when(minIOConfig.minioClient()).thenReturn(minioClient);
+        initializer = new MinIOBucketInitializer(minIOConfig, "test-bucket", 1000L, 30000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        initializer.shutdown();
+    }
+
+    @Test
+    void constructor_ShouldNotCallMinIO() {
+        verifyNoInteractions(minioClient);
+        assertFalse(initializer.isReady());
+    }
+
+    @Test
+    void tentarInicializar_ShouldBeReady_WhenBucketExists() throws Exception {
+        when(minioClient.bucketExists(any())).thenReturn(true);
+
+        initializer.tentarInicializar();
+
+        assertTrue(initializer.isReady());
+        verify(minioClient, never()).makeBucket(any());
+    }
+
+    @Test
+    void tentarInicializar_ShouldCreateBucket_WhenBucketDoesNotExist() throws Exception {
+        when(minioClient.bucketExists(any())).thenReturn(false);
+
+        initializer.tentarInicializar();
+
+        assertTrue(initializer.isReady());
+        verify(minioClient).makeBucket(any());
+    }
+
+    @Test
+    void tentarInicializar_ShouldStayNotReady_WhenMinIOUnavailable() throws Exception {
+        when(minioClient.bucketExists(any())).thenThrow(new ConnectException("Connection refused"));
+
+        initializer.tentarInicializar();
+
+        assertFalse(initializer.isReady());
+        assertEquals(1, initializer.getTentativas());
+        assertEquals("Connection refused", initializer.getUltimoErro());
+    }
+
+    @Test
+    void calcularBackoff_ShouldGrowExponentiallyUpToMax() {
+        assertEquals(1000L, initializer.calcularBackoff(1));
+        assertEquals(2000L, initializer.calcularBackoff(2));
+        assertEquals(16000L, initializer.calcularBackoff(5));
+        assertEquals(30000L, initializer.calcularBackoff(6));
+        assertEquals(30000L, initializer.calcularBackoff(50));
+    }
+}
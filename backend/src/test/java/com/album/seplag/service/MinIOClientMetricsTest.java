@@ -0,0 +1,58 @@
+package com.album.seplag.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinIOClientMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private MinIOClientMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new MinIOClientMetrics(registry, 1000L);
+    }
+
+    @Test
+    void medir_ShouldRecordSuccessAndResetInFlight_WhenOperationSucceeds() throws Exception {
+        String resultado = metrics.medir("getPresignedObjectUrl", "albuns/1/capa.jpg", () -> {
+            assertEquals(1.0, registry.get(MinIOClientMetrics.METRICA_IN_FLIGHT)
+                    .tag("operation", "getPresignedObjectUrl").gauge().value());
+            return "http://url";
+        });
+
+        assertEquals("http://url", resultado);
+        assertEquals(1, registry.get(MinIOClientMetrics.METRICA_REQUESTS)
+                .tag("operation", "getPresignedObjectUrl").tag("outcome", "success").timer().count());
+        assertEquals(0.0, registry.get(MinIOClientMetrics.METRICA_IN_FLIGHT)
+                .tag("operation", "getPresignedObjectUrl").gauge().value());
+    }
+
+    @Test
+    void medir_ShouldRecordErrorAndRethrow_WhenOperationFails() {
+        assertThrows(IllegalStateException.class, () -> metrics.medir("putObject", "albuns/1/capa.jpg", () -> {
+            throw new IllegalStateException("falha");
+        }));
+
+        assertEquals(1, registry.get(MinIOClientMetrics.METRICA_REQUESTS)
+                .tag("operation", "putObject").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void contarDownload_ShouldCountBytesRead_WhenStreamIsConsumed() throws Exception {
+        try (InputStream in = metrics.contarDownload("getObject", new ByteArrayInputStream(new byte[300]))) {
+            in.read();
+            in.readAllBytes();
+        }
+
+        assertEquals(300.0, registry.get(MinIOClientMetrics.METRICA_BYTES)
+                .tag("operation", "getObject").tag("direction", "download").counter().count());
+    }
+}
@@ -8,6 +8,7 @@ import com.album.seplag.model.CapaAlbum;
 import com.album.seplag.repository.AlbumRepository;
 import com.album.seplag.repository.ArtistaRepository;
 import com.album.seplag.repository.CapaAlbumRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.minio.MinioClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -40,6 +41,9 @@ class MinIOServiceTest {
     @Mock
     private CapaAlbumRepository capaAlbumRepository;
 
+    @Mock
+    private ImageMetadataExtractor imageMetadataExtractor;
+
     @Mock
     private MultipartFile multipartFile;
 
@@ -50,12 +54,12 @@ class MinIOServiceTest {
     private CapaAlbum capa;
 
     @BeforeEach
-    void setUp() throws Exception {
+    void setUp() {
         when(minIOConfig.minioClient()).thenReturn(minioClient);
-        when(minioClient.bucketExists(any())).thenReturn(true);
 
         minIOService = new MinIOService(minIOConfig, "test-bucket", 1800000L,
-                albumRepository, artistaRepository, capaAlbumRepository);
+                albumRepository, artistaRepository, capaAlbumRepository, imageMetadataExtractor,
+                new MinIOClientMetrics(new SimpleMeterRegistry(), 1000L));
 
         artista = new Artista();
         artista.setId(1L);
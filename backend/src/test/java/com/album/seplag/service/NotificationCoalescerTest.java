@@ -0,0 +1,97 @@
+package com.album.seplag.service;
+
+import com.album.seplag.dto.NotificationDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationCoalescerTest {
+
+    private final NotificationCoalescer coalescer = new NotificationCoalescer();
+
+    @Test
+    void adicionar_ShouldKeepLatestPerEntityInFirstSeenOrder() {
+        coalescer.adicionar(evento("/topic/albuns", "album:1", "ALBUM_UPDATED", "a1"));
+        coalescer.adicionar(evento("/topic/albuns", "album:2", "ALBUM_UPDATED", "b1"));
+        coalescer.adicionar(evento("/topic/albuns", "album:1", "ALBUM_UPDATED", "a2"));
+        coalescer.adicionar(evento("/topic/artistas", "artista:1", "ARTISTA_UPDATED", "x"));
+
+        Map<String, List<NotificationEvent>> lotes = coalescer.drenar();
+
+        assertEquals(List.of("a2", "b1"), mensagens(lotes.get("/topic/albuns")));
+        assertEquals(List.of("x"), mensagens(lotes.get("/topic/artistas")));
+        assertEquals(1, coalescer.combinadas());
+        assertEquals(0, coalescer.pendentes());
+    }
+
+    @Test
+    void adicionar_ShouldKeepCreatedType_WhenUpdatedAfterCreated() {
+        coalescer.adicionar(evento("/topic/albuns", "album:1", "ALBUM_CREATED", "criado"));
+        coalescer.adicionar(evento("/topic/albuns", "album:1", "ALBUM_UPDATED", "editado"));
+
+        NotificationDTO resultado = coalescer.drenar().get("/topic/albuns").get(0).notificacao();
+
+        assertEquals("ALBUM_CREATED", resultado.type());
+        assertEquals("editado", resultado.message());
+    }
+
+    @Test
+    void adicionar_ShouldCancelOut_WhenDeletedAfterCreated() {
+        coalescer.adicionar(evento("/topic/albuns", "album:1", "ALBUM_CREATED", "criado"));
+        coalescer.adicionar(evento("/topic/albuns", "album:1", "ALBUM_DELETED", "removido"));
+
+        assertTrue(coalescer.drenar().isEmpty());
+        assertEquals(2, coalescer.combinadas());
+    }
+
+    @Test
+    void adicionar_ShouldMergeChangesKeepingLatestValuePerField() {
+        LocalDateTime v1 = LocalDateTime.of(2026, 1, 1, 10, 0);
+        LocalDateTime v2 = v1.plusSeconds(1);
+        coalescer.adicionar(delta("ALBUM_CREATED", v1, Map.of("titulo", "A", "artistaId", 1L)));
+        coalescer.adicionar(delta("ALBUM_UPDATED", v2, Map.of("titulo", "B")));
+
+        NotificationDTO resultado = coalescer.drenar().get("/topic/albuns").get(0).notificacao();
+
+        assertEquals("ALBUM_CREATED", resultado.type());
+        assertEquals(7L, resultado.id());
+        assertEquals(v2.toString(), resultado.version());
+        assertEquals(Map.of("titulo", "B", "artistaId", 1L), resultado.changes());
+    }
+
+    @Test
+    void adicionar_ShouldKeepOnlyDeletion_WhenDeletedAfterUpdated() {
+        coalescer.adicionar(delta("ALBUM_UPDATED", LocalDateTime.now(), Map.of("titulo", "B")));
+        coalescer.adicionar(delta("ALBUM_DELETED", null, null));
+
+        NotificationDTO resultado = coalescer.drenar().get("/topic/albuns").get(0).notificacao();
+
+        assertEquals("ALBUM_DELETED", resultado.type());
+        assertNull(resultado.changes());
+    }
+
+    @Test
+    void adicionar_ShouldNeverCombine_WhenKeyMissing() {
+        coalescer.adicionar(evento("/topic/albuns", null, "TEST", "1"));
+        coalescer.adicionar(evento("/topic/albuns", null, "TEST", "2"));
+
+        assertEquals(List.of("1", "2"), mensagens(coalescer.drenar().get("/topic/albuns")));
+    }
+
+    private static List<String> mensagens(List<NotificationEvent> eventos) {
+        return eventos.stream().map(e -> e.notificacao().message()).toList();
+    }
+
+    private static NotificationEvent delta(String tipo, LocalDateTime versao, Map<String, Object> changes) {
+        return new NotificationEvent("/topic/albuns", "album:7", NotificationDTO.delta(tipo, tipo, 7L, versao, changes));
+    }
+
+    private static NotificationEvent evento(String destino, String chave, String tipo, String mensagem) {
+        return new NotificationEvent(destino, chave, new NotificationDTO(tipo, mensagem, Instant.now()));
+    }
+}
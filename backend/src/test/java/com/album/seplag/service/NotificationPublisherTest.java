@@ -0,0 +1,257 @@
+package com.album.seplag.service;
+
+import com.album.seplag.dto.NotificationBatchDTO;
+import com.album.seplag.dto.NotificationDTO;
+import com.album.seplag.enums.NotificationOverflowPolicy;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NotificationPublisherTest {
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NotificationReplayBuffer replayBuffer = new NotificationReplayBuffer(meterRegistry, 100, false);
+    private NotificationPublisher publisher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+    }
+
+    @Test
+    void onNotification_ShouldSendOnWorkerThreadAndRecordLatency() {
+        publisher = novoPublisher(NotificationOverflowPolicy.DROP_OLDEST, 10);
+
+        publisher.onNotification(evento("A"));
+
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq("/topic/albuns"), any(Object.class));
+        assertEquals(1, meterRegistry.get(NotificationPublisher.METRICA_PUBLICACAO).tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void onNotification_ShouldEvictOldest_WhenQueueFullAndPolicyDropOldest() throws Exception {
+        publisher = novoPublisher(NotificationOverflowPolicy.DROP_OLDEST, 1);
+        CountDownLatch liberar = bloquearEnvio();
+
+        publisher.onNotification(evento("primeira"));
+        aguardarFilaVazia();
+        publisher.onNotification(evento("segunda"));
+        publisher.onNotification(evento("terceira"));
+        liberar.countDown();
+
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq("/topic/albuns"), argThatTipo("terceira"));
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/albuns"), argThatTipo("segunda"));
+        assertEquals(1.0, descartadas("evicted"));
+    }
+
+    @Test
+    void onNotification_ShouldDropNewest_WhenQueueFullAndPolicyDropNewest() throws Exception {
+        publisher = novoPublisher(NotificationOverflowPolicy.DROP_NEWEST, 1);
+        CountDownLatch liberar = bloquearEnvio();
+
+        publisher.onNotification(evento("primeira"));
+        aguardarFilaVazia();
+        publisher.onNotification(evento("segunda"));
+        publisher.onNotification(evento("terceira"));
+        liberar.countDown();
+
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq("/topic/albuns"), argThatTipo("segunda"));
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/albuns"), argThatTipo("terceira"));
+        assertEquals(1.0, descartadas("queue_full"));
+    }
+
+    @Test
+    void onNotification_ShouldDropAfterTimeout_WhenQueueFullAndPolicyBlock() throws Exception {
+        publisher = novoPublisher(NotificationOverflowPolicy.BLOCK, 1);
+        CountDownLatch liberar = bloquearEnvio();
+
+        publisher.onNotification(evento("primeira"));
+        aguardarFilaVazia();
+        publisher.onNotification(evento("segunda"));
+        long inicio = System.nanoTime();
+        publisher.onNotification(evento("terceira"));
+        long esperaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        liberar.countDown();
+
+        assertTrue(esperaMs >= 20, "publicação não aguardou espaço na fila: " + esperaMs + " ms");
+        assertEquals(1.0, descartadas("queue_full"));
+    }
+
+    @Test
+    void publishEvent_ShouldSendOnlyAfterCommit() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(SimpMessagingTemplate.class, () -> messagingTemplate);
+            context.registerBean(MeterRegistry.class, () -> meterRegistry);
+            context.register(TransacaoConfig.class, NotificationReplayBuffer.class, NotificationPublisher.class);
+            context.refresh();
+            ApplicationEventPublisher eventos = context;
+            TransactionTemplate transacao = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+            transacao.executeWithoutResult(status -> {
+                eventos.publishEvent(evento("revertida"));
+                status.setRollbackOnly();
+            });
+            transacao.executeWithoutResult(status -> {
+                eventos.publishEvent(evento("confirmada"));
+                verifyNoInteractions(messagingTemplate);
+            });
+            context.getBean(NotificationPublisher.class).fecharJanela();
+
+            verify(messagingTemplate, timeout(2000)).convertAndSend(eq("/topic/albuns"), argThatTipo("confirmada"));
+            verify(messagingTemplate, never()).convertAndSend(eq("/topic/albuns"), argThatTipo("revertida"));
+        }
+    }
+
+    @Test
+    void fecharJanela_ShouldSendOneCoalescedBatchPerDestinationPlusLegacyFrames() {
+        publisher = new NotificationPublisher(messagingTemplate, meterRegistry, replayBuffer, 1, 10,
+                NotificationOverflowPolicy.DROP_OLDEST, 50, true, 60_000L, true, true);
+
+        publisher.onNotification(new NotificationEvent("/topic/albuns", "album:1", notificacao("ALBUM_UPDATED", "v1")));
+        publisher.onNotification(new NotificationEvent("/topic/albuns", "album:2", notificacao("ALBUM_UPDATED", "outro")));
+        publisher.onNotification(new NotificationEvent("/topic/albuns", "album:1", notificacao("ALBUM_UPDATED", "v2")));
+        verifyNoInteractions(messagingTemplate);
+
+        publisher.fecharJanela();
+
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq("/topic/lote.albuns"),
+                argThat((Object b) -> b instanceof NotificationBatchDTO lote && lote.events().size() == 2
+                        && lote.events().get(0).message().equals("v2")));
+        verify(messagingTemplate, timeout(2000).times(2)).convertAndSend(eq("/topic/albuns"), any(Object.class));
+        DistributionSummary tamanho = meterRegistry.get(NotificationPublisher.METRICA_LOTE).summary();
+        assertEquals(1, tamanho.count());
+        assertEquals(2.0, tamanho.totalAmount());
+        assertEquals(1.0, meterRegistry.get(NotificationPublisher.METRICA_COMBINADAS).counter().count());
+    }
+
+    @Test
+    void fecharJanela_ShouldSkipLegacyFrames_WhenDisabled() {
+        publisher = new NotificationPublisher(messagingTemplate, meterRegistry, replayBuffer, 1, 10,
+                NotificationOverflowPolicy.DROP_OLDEST, 50, true, 60_000L, false, true);
+
+        publisher.onNotification(evento("A"));
+        publisher.fecharJanela();
+
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq("/topic/lote.albuns"), any(Object.class));
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/albuns"), any(Object.class));
+    }
+
+    @Test
+    void onNotification_ShouldSendToGlobalAndScopedTopics() {
+        publisher = novoPublisher(NotificationOverflowPolicy.DROP_OLDEST, 10);
+
+        publisher.onNotification(eventoComEscopos());
+
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq("/topic/albuns"), any(Object.class));
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq("/topic/albuns.7"), any(Object.class));
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq("/topic/artistas.3.albuns"), any(Object.class));
+        assertEquals(3.0, meterRegistry.get(NotificationPublisher.METRICA_FANOUT).summary().totalAmount());
+    }
+
+    @Test
+    void fecharJanela_ShouldBatchPerScopedTopic_WhenGlobalTopicDisabled() {
+        publisher = new NotificationPublisher(messagingTemplate, meterRegistry, replayBuffer, 1, 10,
+                NotificationOverflowPolicy.DROP_OLDEST, 50, true, 60_000L, false, false);
+
+        publisher.onNotification(eventoComEscopos());
+        publisher.onNotification(evento("sem-escopo"));
+        publisher.fecharJanela();
+
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq("/topic/lote.albuns.7"), any(Object.class));
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq("/topic/lote.artistas.3.albuns"), any(Object.class));
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq("/topic/lote.albuns"),
+                argThat((Object b) -> b instanceof NotificationBatchDTO lote && lote.events().size() == 1
+                        && lote.events().get(0).type().equals("sem-escopo")));
+    }
+
+    @Test
+    void onNotification_ShouldNumberEachSentFrameAndKeepItForReplay() {
+        publisher = novoPublisher(NotificationOverflowPolicy.DROP_OLDEST, 10);
+
+        publisher.onNotification(evento("A"));
+        publisher.onNotification(evento("B"));
+
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq("/topic/albuns"),
+                argThat((Object n) -> n instanceof NotificationDTO dto && dto.type().equals("B") && dto.seq() == 2L));
+        var replay = replayBuffer.desde("/topic/albuns", 1L, replayBuffer.getEpoch());
+        assertEquals(List.of("B"), replay.events().stream().map(NotificationDTO::type).toList());
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TransacaoConfig {
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new DataSourceTransactionManager(new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build());
+        }
+    }
+
+    private NotificationPublisher novoPublisher(NotificationOverflowPolicy politica, int capacidade) {
+        return new NotificationPublisher(messagingTemplate, meterRegistry, replayBuffer, 1, capacidade, politica, 50, false, 200L, true, true);
+    }
+
+    private CountDownLatch bloquearEnvio() {
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(inv -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(messagingTemplate).convertAndSend(eq("/topic/albuns"), argThatTipo("primeira"));
+        return liberar;
+    }
+
+    private void aguardarFilaVazia() throws InterruptedException {
+        long limite = System.currentTimeMillis() + 2000;
+        while (publisher.pendentes() > 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+    }
+
+    private double descartadas(String motivo) {
+        return meterRegistry.get(NotificationPublisher.METRICA_DESCARTADAS).tag("reason", motivo).counter().count();
+    }
+
+    private static Object argThatTipo(String tipo) {
+        return argThat((Object n) -> n instanceof NotificationDTO dto && dto.type().equals(tipo));
+    }
+
+    private static NotificationDTO notificacao(String tipo, String mensagem) {
+        return new NotificationDTO(tipo, mensagem, Instant.now());
+    }
+
+    private static NotificationEvent eventoComEscopos() {
+        return new NotificationEvent("/topic/albuns", List.of("/topic/albuns.7", "/topic/artistas.3.albuns"),
+                "album:7", new NotificationDTO("ALBUM_UPDATED", "escopo", Instant.now()));
+    }
+
+    private static NotificationEvent evento(String tipo) {
+        return new NotificationEvent("/topic/albuns", new NotificationDTO(tipo, tipo, Instant.now()));
+    }
+}
@@ -0,0 +1,90 @@
+package com.album.seplag.service;
+
+import com.album.seplag.dto.NotificationDTO;
+import com.album.seplag.dto.NotificationReplayDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationReplayBufferTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NotificationReplayBuffer buffer = new NotificationReplayBuffer(meterRegistry, 4, false);
+
+    @Test
+    void registrar_ShouldAssignIncreasingSequenceNumbersWithEpoch() {
+        NotificationDTO primeira = buffer.registrar("/topic/albuns", notificacao("a"));
+
+        assertEquals(1L, primeira.seq());
+        assertEquals(buffer.getEpoch(), primeira.epoch());
+        assertEquals(2L, buffer.registrar("/topic/artistas", notificacao("b")).seq());
+    }
+
+    @Test
+    void desde_ShouldAlwaysAskForResync_WhenBrokerRelayIsEnabled() {
+        NotificationReplayBuffer comRelay = new NotificationReplayBuffer(meterRegistry, 4, true);
+        comRelay.registrar("/topic/albuns", notificacao("a"));
+        comRelay.registrar("/topic/albuns", notificacao("b"));
+
+        assertTrue(comRelay.desde("/topic/albuns", 1L, comRelay.getEpoch()).resync());
+        assertFalse(comRelay.desde("/topic/albuns", null, null).resync());
+    }
+
+    @Test
+    void desde_ShouldReturnOnlyMissedEventsOfThatDestination() {
+        buffer.registrar("/topic/albuns", notificacao("a"));
+        buffer.registrar("/topic/artistas", notificacao("b"));
+        buffer.registrar("/topic/albuns", notificacao("c"));
+
+        NotificationReplayDTO replay = buffer.desde("/topic/albuns", 1L, buffer.getEpoch());
+
+        assertFalse(replay.resync());
+        assertEquals(3L, replay.ultimaSeq());
+        assertEquals(List.of("c"), mensagens(replay));
+        assertEquals(1.0, meterRegistry.get(NotificationReplayBuffer.METRICA_REPLAY).tag("outcome", "replayed").counter().count());
+    }
+
+    @Test
+    void desde_ShouldAskForResync_WhenMissedEventsWereEvicted() {
+        for (int i = 0; i < 6; i++) {
+            buffer.registrar("/topic/albuns", notificacao("n" + i));
+        }
+
+        assertTrue(buffer.desde("/topic/albuns", 1L, buffer.getEpoch()).resync());
+        // seq 3..6 ainda estão no buffer de 4 posições
+        assertEquals(List.of("n2", "n3", "n4", "n5"), mensagens(buffer.desde("/topic/albuns", 2L, buffer.getEpoch())));
+        assertEquals(1.0, meterRegistry.get(NotificationReplayBuffer.METRICA_REPLAY).tag("outcome", "resync").counter().count());
+    }
+
+    @Test
+    void desde_ShouldAskForResync_WhenEpochBelongsToAnotherInstanceLife() {
+        buffer.registrar("/topic/albuns", notificacao("a"));
+
+        assertTrue(buffer.desde("/topic/albuns", 0L, "outra-instancia").resync());
+        assertTrue(buffer.desde("/topic/albuns", 50L, null).resync());
+    }
+
+    @Test
+    void desde_ShouldOnlyReturnEpochAndLastSeq_OnFirstContact() {
+        buffer.registrar("/topic/albuns", notificacao("a"));
+
+        NotificationReplayDTO replay = buffer.desde("/topic/albuns", null, null);
+
+        assertEquals(buffer.getEpoch(), replay.epoch());
+        assertEquals(1L, replay.ultimaSeq());
+        assertTrue(replay.events().isEmpty());
+        assertFalse(replay.resync());
+    }
+
+    private static List<String> mensagens(NotificationReplayDTO replay) {
+        return replay.events().stream().map(NotificationDTO::message).toList();
+    }
+
+    private static NotificationDTO notificacao(String mensagem) {
+        return new NotificationDTO("ALBUM_UPDATED", mensagem, Instant.now());
+    }
+}
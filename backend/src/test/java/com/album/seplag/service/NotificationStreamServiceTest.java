@@ -0,0 +1,223 @@
+package com.album.seplag.service;
+
+import com.album.seplag.controller.NotificationStreamController;
+import com.album.seplag.dto.NotificationDTO;
+import com.album.seplag.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class NotificationStreamServiceTest {
+
+    private static final String STREAM = "/api/v1/notificacoes/stream";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final NotificationReplayBuffer buffer = new NotificationReplayBuffer(meterRegistry, 100, false);
+    private final NotificationStreamService service = new NotificationStreamService(buffer, meterRegistry, 1, 4, 60_000, 100, 60_000, 4, 60_000);
+    private final CountDownLatch liberarEscrita = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        liberarEscrita.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void stream_ShouldDeliverEventsOfSubscribedDestinationsWithEpochSeqIds() throws Exception {
+        MockHttpServletResponse response = abrir(mockMvc(), "/topic/albuns", null);
+
+        buffer.registrar("/topic/artistas", notificacao("artista"));
+        buffer.registrar("/topic/albuns", notificacao("album"));
+
+        aguardar(() -> conteudo(response).contains("\"message\":\"album\""));
+        assertTrue(conteudo(response).contains("id:" + buffer.getEpoch() + ":2"));
+        assertFalse(conteudo(response).contains("artista"));
+        assertEquals(1.0, meterRegistry.get(NotificationStreamService.METRICA_CONEXOES).gauge().value());
+    }
+
+    @Test
+    void stream_ShouldResumeFromLastEventId() throws Exception {
+        buffer.registrar("/topic/albuns", notificacao("vista"));
+        buffer.registrar("/topic/albuns", notificacao("perdida-1"));
+        buffer.registrar("/topic/albuns", notificacao("perdida-2"));
+
+        MockHttpServletResponse response = abrir(mockMvc(), "/topic/albuns", buffer.getEpoch() + ":1");
+        buffer.registrar("/topic/albuns", notificacao("nova"));
+
+        aguardar(() -> conteudo(response).contains("nova"));
+        String conteudo = conteudo(response);
+        assertFalse(conteudo.contains("vista"));
+        assertTrue(conteudo.indexOf("perdida-1") < conteudo.indexOf("perdida-2"));
+        assertTrue(conteudo.indexOf("perdida-2") < conteudo.indexOf("nova"));
+    }
+
+    @Test
+    void stream_ShouldSendResync_WhenLastEventIdIsFromAnotherInstanceLife() throws Exception {
+        buffer.registrar("/topic/albuns", notificacao("a"));
+
+        MockHttpServletResponse response = abrir(mockMvc(), "/topic/albuns", "outra-instancia:1");
+
+        aguardar(() -> conteudo(response).contains("event:" + NotificationStreamService.EVENTO_RESYNC));
+        assertTrue(conteudo(response).contains("id:" + buffer.getEpoch() + ":1"));
+    }
+
+    @Test
+    void stream_ShouldDropSlowReader_WhenItsQueueFills() throws Exception {
+        CountDownLatch escrevendo = new CountDownLatch(1);
+        Filter leitorLento = (req, res, chain) -> chain.doFilter(req,
+                new RespostaBloqueada((HttpServletResponse) res, escrevendo, liberarEscrita));
+        abrir(MockMvcBuilders.standaloneSetup(new NotificationStreamController(service))
+                .addPlaceholderValue("app.api.base", "/api/v1").addFilters(leitorLento).build(), "/topic/albuns", null);
+
+        buffer.registrar("/topic/albuns", notificacao("primeira"));
+        assertTrue(escrevendo.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            buffer.registrar("/topic/albuns", notificacao("pendente-" + i));
+        }
+
+        assertEquals(0, service.conexoes());
+        assertEquals(1.0, meterRegistry.get(NotificationStreamService.METRICA_DESCARTADAS).tag("reason", "slow_reader").counter().count());
+    }
+
+    @Test
+    void stream_ShouldDropReaderStuckInAWrite_AndKeepServingOthers() throws Exception {
+        NotificationStreamService comPrazo = new NotificationStreamService(buffer, meterRegistry, 1, 256, 60_000, 100, 100, 4, 60_000);
+        try {
+            CountDownLatch escrevendo = new CountDownLatch(1);
+            Filter leitorLento = (req, res, chain) -> chain.doFilter(req,
+                    new RespostaBloqueada((HttpServletResponse) res, escrevendo, liberarEscrita));
+            abrir(MockMvcBuilders.standaloneSetup(new NotificationStreamController(comPrazo))
+                    .addPlaceholderValue("app.api.base", "/api/v1").addFilters(leitorLento).build(), "/topic/albuns", null);
+            buffer.registrar("/topic/albuns", notificacao("primeira"));
+            assertTrue(escrevendo.await(5, TimeUnit.SECONDS));
+
+            aguardar(() -> comPrazo.conexoes() == 0);
+            assertEquals(1.0, meterRegistry.get(NotificationStreamService.METRICA_DESCARTADAS).tag("reason", "slow_reader").counter().count());
+
+            // A única thread de escrita segue presa; a thread compensada atende o próximo cliente
+            MockHttpServletResponse outro = abrir(MockMvcBuilders.standaloneSetup(new NotificationStreamController(comPrazo))
+                    .addPlaceholderValue("app.api.base", "/api/v1").build(), "/topic/albuns", null);
+            buffer.registrar("/topic/albuns", notificacao("segunda"));
+            aguardar(() -> conteudo(outro).contains("segunda"));
+        } finally {
+            liberarEscrita.countDown();
+            comPrazo.shutdown();
+        }
+    }
+
+    @Test
+    void stream_ShouldRespondNotImplemented_WhenBrokerRelayIsEnabled() throws Exception {
+        NotificationReplayBuffer bufferRelay = new NotificationReplayBuffer(meterRegistry, 100, true);
+        NotificationStreamService comRelay = new NotificationStreamService(bufferRelay, meterRegistry, 1, 4, 60_000, 100, 60_000, 4, 60_000);
+        try {
+            MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new NotificationStreamController(comRelay))
+                    .setControllerAdvice(new GlobalExceptionHandler())
+                    .addPlaceholderValue("app.api.base", "/api/v1").build();
+
+            mockMvc.perform(get(STREAM).param("destino", "/topic/albuns"))
+                    .andExpect(status().isNotImplemented());
+            bufferRelay.registrar("/topic/albuns", notificacao("album"));
+
+            assertEquals(0, comRelay.conexoes());
+        } finally {
+            comRelay.shutdown();
+        }
+    }
+
+    @Test
+    void stream_ShouldDisableProxyBuffering() throws Exception {
+        MockHttpServletResponse response = abrir(mockMvc(), "/topic/albuns", null);
+
+        assertEquals("no", response.getHeader("X-Accel-Buffering"));
+    }
+
+    private MockMvc mockMvc() {
+        return MockMvcBuilders.standaloneSetup(new NotificationStreamController(service))
+                .addPlaceholderValue("app.api.base", "/api/v1").build();
+    }
+
+    private static MockHttpServletResponse abrir(MockMvc mockMvc, String destino, String lastEventId) throws Exception {
+        var requisicao = get(STREAM).param("destino", destino);
+        if (lastEventId != null) {
+            requisicao.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(requisicao).andExpect(request().asyncStarted()).andReturn().getResponse();
+    }
+
+    private static String conteudo(MockHttpServletResponse response) {
+        try {
+            return response.getContentAsString();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "condição não atingida em 5s");
+            Thread.sleep(10);
+        }
+    }
+
+    private static NotificationDTO notificacao(String mensagem) {
+        return new NotificationDTO("ALBUM_UPDATED", mensagem, Instant.now());
+    }
+
+    /** Resposta cujo socket não drena: a primeira escrita fica presa até o fim do teste. */
+    private static final class RespostaBloqueada extends HttpServletResponseWrapper {
+
+        private final CountDownLatch escrevendo;
+        private final CountDownLatch liberar;
+
+        RespostaBloqueada(HttpServletResponse response, CountDownLatch escrevendo, CountDownLatch liberar) {
+            super(response);
+            this.escrevendo = escrevendo;
+            this.liberar = liberar;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    escrevendo.countDown();
+                    try {
+                        liberar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException(e);
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                }
+            };
+        }
+    }
+}
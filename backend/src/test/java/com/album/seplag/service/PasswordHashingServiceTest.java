@@ -0,0 +1,100 @@
+package com.album.seplag.service;
+
+import com.album.seplag.exception.ServicoSobrecarregadoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_ShouldUseConfiguredEncoder() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(4), registry, 4, 1, 4, 2, 5000);
+
+        String hash = service.encode("senha123");
+
+        assertTrue(service.matches("senha123", hash));
+        assertFalse(service.matches("outra", hash));
+        assertEquals(1, registry.get("auth.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("auth.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void matches_ShouldRejectWithRetryAfter_WhenQueueIsFull() throws Exception {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(encoder.matches(anyString(), anyString())).thenAnswer(inv -> {
+            iniciou.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        service = new PasswordHashingService(encoder, registry, 10, 1, 1, 3, 5000);
+
+        CompletableFuture<Boolean> emExecucao = CompletableFuture.supplyAsync(() -> service.matches("a", "h"));
+        assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> naFila = CompletableFuture.supplyAsync(() -> service.matches("b", "h"));
+        while (registry.get("auth.password.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        ServicoSobrecarregadoException ex = assertThrows(ServicoSobrecarregadoException.class,
+                () -> service.matches("c", "h"));
+        assertEquals(3, ex.getRetryAfterSeconds());
+        assertEquals(1.0, registry.get("auth.password.rejected").counter().count());
+
+        liberar.countDown();
+        assertTrue(emExecucao.get(5, TimeUnit.SECONDS));
+        assertTrue(naFila.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_ShouldFailWithRetryAfter_WhenOperationTimesOut() throws Exception {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(encoder.matches(anyString(), anyString())).thenAnswer(inv -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        service = new PasswordHashingService(encoder, registry, 10, 1, 4, 3, 50);
+
+        ServicoSobrecarregadoException ex = assertThrows(ServicoSobrecarregadoException.class,
+                () -> service.matches("a", "h"));
+        assertEquals(3, ex.getRetryAfterSeconds());
+        // A segunda espera atrás da primeira e também expira; cancelada na fila, não chega ao encoder
+        assertThrows(ServicoSobrecarregadoException.class, () -> service.matches("b", "h"));
+        assertEquals(2.0, registry.get("auth.password.timeouts").counter().count());
+
+        liberar.countDown();
+        verify(encoder, after(200).times(1)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void precisaRehash_ShouldCompareHashCostWithConfiguredCost() {
+        service = new PasswordHashingService(mock(PasswordEncoder.class), registry, 12, 1, 4, 2, 5000);
+
+        assertTrue(service.precisaRehash("$2a$10$abcdefghijklmnopqrstuuABCDEFGHIJKLMNOPQRSTUVWXYZ01234"));
+        assertFalse(service.precisaRehash("$2a$12$abcdefghijklmnopqrstuuABCDEFGHIJKLMNOPQRSTUVWXYZ01234"));
+        assertFalse(service.precisaRehash("{noop}senha"));
+    }
+}
@@ -9,12 +9,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +39,8 @@ class RegionalServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(regionalService, "regionalApiUrl", "http://regionais.test/v1/regionais");
+
         regional1 = new Regional();
         regional1.setId(1L);
         regional1.setNome("Regional 1");
@@ -69,5 +76,58 @@ class RegionalServiceTest {
         assertTrue(result.isEmpty());
         verify(regionalRepository).findAll();
     }
-}
 
+    @Test
+    void sincronizarRegionais_ShouldApplyDiffWithBulkStatements() {
+        Regional inativa = new Regional();
+        inativa.setId(3L);
+        inativa.setNome("Regional 3");
+        inativa.setAtivo(false);
+        when(restTemplate.getForObject(anyString(), eq(Object.class))).thenReturn(List.of(
+                Map.of("nome", "Regional 1"),
+                Map.of("nome", " Regional 3 "),
+                Map.of("nome", "Regional 4"),
+                Map.of("nome", "Regional 4"),
+                Map.of("id", 5)));
+        when(regionalRepository.findAll()).thenReturn(List.of(regional1, regional2, inativa));
+
+        regionalService.sincronizarRegionais();
+
+        verify(regionalRepository).inserirNovas(Set.of("Regional 4"));
+        verify(regionalRepository).atualizarAtivo(eq(List.of(3L)), eq(true), any());
+        verify(regionalRepository).atualizarAtivo(eq(List.of(2L)), eq(false), any());
+        verify(regionalRepository, never()).save(any());
+    }
+
+    @Test
+    void sincronizarRegionais_ShouldNotWrite_WhenNothingChanged() {
+        when(restTemplate.getForObject(anyString(), eq(Object.class))).thenReturn(Map.of("data", List.of(
+                Map.of("nome", "Regional 1"),
+                Map.of("nome", "Regional 2"))));
+        when(regionalRepository.findAll()).thenReturn(List.of(regional1, regional2));
+
+        regionalService.sincronizarRegionais();
+
+        verify(regionalRepository).findAll();
+        verifyNoMoreInteractions(regionalRepository);
+    }
+
+    @Test
+    void sincronizarRegionais_ShouldSkipSync_WhenExternalListIsEmpty() {
+        when(restTemplate.getForObject(anyString(), eq(Object.class))).thenReturn(List.of());
+
+        regionalService.sincronizarRegionais();
+
+        verifyNoInteractions(regionalRepository);
+    }
+
+    @Test
+    void sincronizarRegionais_ShouldSkipSync_WhenFetchFails() {
+        when(restTemplate.getForObject(anyString(), eq(Object.class)))
+                .thenThrow(new ResourceAccessException("timeout"));
+
+        regionalService.sincronizarRegionais();
+
+        verifyNoInteractions(regionalRepository);
+    }
+}
@@ -0,0 +1,162 @@
+package com.album.seplag.service;
+
+import com.album.seplag.model.RevogacaoUsuario;
+import com.album.seplag.model.TokenRevogado;
+import com.album.seplag.repository.RevogacaoUsuarioRepository;
+import com.album.seplag.repository.TokenRevogadoRepository;
+import com.album.seplag.security.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private TokenRevogadoRepository tokenRevogadoRepository;
+
+    @Mock
+    private RevogacaoUsuarioRepository revogacaoUsuarioRepository;
+
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TokenRevocationService(tokenRevogadoRepository, revogacaoUsuarioRepository,
+                new SimpleMeterRegistry(), 1000, 0.001, 604800000L);
+        when(tokenRevogadoRepository.findJtisValidos(any())).thenReturn(List.of("jti-revogado"));
+        when(revogacaoUsuarioRepository.findValidas(any())).thenReturn(List.of());
+        when(tokenRevogadoRepository.findJtisRevogadosDesde(any(), any())).thenReturn(List.of());
+        when(revogacaoUsuarioRepository.findRevogadasDesde(any(), any())).thenReturn(List.of());
+        when(tokenRevogadoRepository.existsById("jti-revogado")).thenReturn(true);
+        service.reconstruir();
+    }
+
+    @Test
+    void isRevogado_ShouldNotQueryDatabase_WhenFilterIsNegative() {
+        assertFalse(service.isRevogado(token("testuser", "jti-valido", Instant.now())));
+
+        verify(tokenRevogadoRepository, never()).existsById(anyString());
+        verify(revogacaoUsuarioRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void isRevogado_ShouldConfirmInDatabase_WhenFilterMatches() {
+        assertTrue(service.isRevogado(token("testuser", "jti-revogado", Instant.now())));
+
+        verify(tokenRevogadoRepository).existsById("jti-revogado");
+    }
+
+    @Test
+    void revogar_ShouldPersistAndRejectImmediately() {
+        VerifiedToken token = token("testuser", "jti-novo", Instant.now());
+
+        service.revogar(token);
+        when(tokenRevogadoRepository.existsById("jti-novo")).thenReturn(true);
+
+        verify(tokenRevogadoRepository).save(any(TokenRevogado.class));
+        assertTrue(service.isRevogado(token));
+    }
+
+    @Test
+    void revogarTodos_ShouldRejectOnlyTokensIssuedBefore_WithoutQueryingDatabase() {
+        Instant antes = Instant.now().minusSeconds(60);
+        service.revogarTodos("testuser");
+
+        assertTrue(service.isRevogado(token("testuser", "jti-antigo", antes)));
+        assertFalse(service.isRevogado(token("testuser", "jti-recente", Instant.now().plusSeconds(5))));
+        verify(revogacaoUsuarioRepository).save(any(RevogacaoUsuario.class));
+        verify(revogacaoUsuarioRepository, never()).findById(anyString());
+        verify(tokenRevogadoRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    void revogarTodos_ShouldAcceptTokenIssuedInTheSameSecond() {
+        service.revogarTodos("testuser");
+        Instant mesmoSegundo = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        assertFalse(service.isRevogado(token("testuser", "jti-novo-login", mesmoSegundo)));
+    }
+
+    @Test
+    void revogarTodos_ShouldApplyInMemoryOnlyAfterCommit() {
+        Instant antes = Instant.now().minusSeconds(60);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.revogarTodos("testuser");
+
+            assertFalse(service.isRevogado(token("testuser", "jti-antigo", antes)));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(service.isRevogado(token("testuser", "jti-antigo", antes)));
+    }
+
+    @Test
+    void revogarTodos_ShouldNotRejectTokens_WhenTransactionRollsBack() {
+        Instant antes = Instant.now().minusSeconds(60);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.revogarTodos("testuser");
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(service.isRevogado(token("testuser", "jti-antigo", antes)));
+    }
+
+    @Test
+    void isRevogado_ShouldUseDatabase_BeforeFirstBuild() {
+        TokenRevocationService semFiltro = new TokenRevocationService(tokenRevogadoRepository, revogacaoUsuarioRepository,
+                new SimpleMeterRegistry(), 1000, 0.001, 604800000L);
+        LocalDateTime revogadoAntes = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        when(revogacaoUsuarioRepository.findById("testuser")).thenReturn(Optional.of(
+                new RevogacaoUsuario("testuser", revogadoAntes, revogadoAntes.plusDays(7))));
+
+        assertTrue(semFiltro.isRevogado(token("testuser", "jti-antigo", Instant.now().minusSeconds(60))));
+        assertFalse(semFiltro.isRevogado(token("testuser", "jti-recente", Instant.now().plusSeconds(5))));
+    }
+
+    @Test
+    void sincronizar_ShouldAddRevocationsFromOtherNodes() {
+        LocalDateTime revogadoAntes = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        when(tokenRevogadoRepository.findJtisRevogadosDesde(any(), any())).thenReturn(List.of("jti-outro-no"));
+        when(tokenRevogadoRepository.existsById("jti-outro-no")).thenReturn(true);
+        when(revogacaoUsuarioRepository.findRevogadasDesde(any(), any())).thenReturn(List.of(
+                new RevogacaoUsuario("outrouser", revogadoAntes, revogadoAntes.plusDays(7))));
+
+        service.sincronizar();
+
+        assertTrue(service.isRevogado(token("testuser", "jti-outro-no", Instant.now())));
+        assertTrue(service.isRevogado(token("outrouser", "jti-x", Instant.now().minusSeconds(60))));
+    }
+
+    private static VerifiedToken token(String username, String jti, Instant issuedAt) {
+        return new VerifiedToken(username, List.of("ROLE_USER"), false, Instant.now().plusSeconds(300), jti, issuedAt);
+    }
+}
@@ -0,0 +1,213 @@
+package com.album.seplag.service;
+
+import com.album.seplag.dto.UploadSessaoCreateDTO;
+import com.album.seplag.dto.UploadSessaoDTO;
+import com.album.seplag.enums.StatusUploadSessao;
+import com.album.seplag.exception.ResourceNotFoundException;
+import com.album.seplag.model.Album;
+import com.album.seplag.model.CapaAlbum;
+import com.album.seplag.model.UploadParte;
+import com.album.seplag.model.UploadSessao;
+import com.album.seplag.repository.AlbumRepository;
+import com.album.seplag.repository.CapaAlbumRepository;
+import com.album.seplag.repository.UploadSessaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UploadSessaoServiceTest {
+
+    private static final int PARTE = UploadSessaoService.TAMANHO_MINIMO_PARTE;
+
+    @Mock
+    private UploadSessaoRepository uploadSessaoRepository;
+
+    @Mock
+    private AlbumRepository albumRepository;
+
+    @Mock
+    private CapaAlbumRepository capaAlbumRepository;
+
+    @Mock
+    private MinIOService minIOService;
+
+    @Mock
+    private ImageMetadataExtractor imageMetadataExtractor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UploadSessaoService uploadSessaoService;
+
+    private UploadSessao sessao;
+
+    @BeforeEach
+    void setUp() {
+        uploadSessaoService = new UploadSessaoService(uploadSessaoRepository, albumRepository, capaAlbumRepository,
+                minIOService, imageMetadataExtractor, new TransactionTemplate(transactionManager), PARTE, 100L * 1024 * 1024, 86400000L);
+
+        sessao = new UploadSessao();
+        sessao.setId("sessao-1");
+        sessao.setAlbumId(1L);
+        sessao.setNomeArquivo("albuns/1/uuid_capa.jpg");
+        sessao.setTamanhoTotal((long) PARTE + 10);
+        sessao.setTamanhoParte(PARTE);
+        sessao.setUploadId("upload-1");
+        sessao.setStatus(StatusUploadSessao.EM_ANDAMENTO);
+        sessao.setExpiraEm(LocalDateTime.now().plusHours(1));
+    }
+
+    @Test
+    void criar_ShouldThrowException_WhenFileTooLarge() {
+        when(albumRepository.existsById(1L)).thenReturn(true);
+        UploadSessaoCreateDTO dto = new UploadSessaoCreateDTO("capa.jpg", "image/jpeg", 200L * 1024 * 1024);
+
+        assertThrows(IllegalArgumentException.class, () -> uploadSessaoService.criar(1L, dto));
+        verifyNoInteractions(minIOService);
+    }
+
+    @Test
+    void enviarParte_ShouldUploadLastPartWithRemainingSize() throws Exception {
+        when(uploadSessaoRepository.findByIdAndAlbumId("sessao-1", 1L)).thenReturn(Optional.of(sessao));
+        when(minIOService.enviarParte(eq("albuns/1/uuid_capa.jpg"), eq("upload-1"), eq(2), any(), eq(10))).thenReturn("etag-2");
+
+        UploadSessaoDTO result = uploadSessaoService.enviarParte(1L, "sessao-1", PARTE, new ByteArrayInputStream(new byte[10]));
+
+        assertNotNull(result);
+        verify(uploadSessaoRepository).registrarParte(eq("sessao-1"), eq(2), eq("etag-2"), eq(10L), any());
+    }
+
+    @Test
+    void enviarParte_ShouldRejectOffsetNotAlignedToPartSize() {
+        when(uploadSessaoRepository.findByIdAndAlbumId("sessao-1", 1L)).thenReturn(Optional.of(sessao));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> uploadSessaoService.enviarParte(1L, "sessao-1", 100, new ByteArrayInputStream(new byte[10])));
+        verifyNoInteractions(minIOService);
+    }
+
+    @Test
+    void enviarParte_ShouldRejectChunkWithWrongSize() {
+        when(uploadSessaoRepository.findByIdAndAlbumId("sessao-1", 1L)).thenReturn(Optional.of(sessao));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> uploadSessaoService.enviarParte(1L, "sessao-1", PARTE, new ByteArrayInputStream(new byte[11])));
+        verifyNoInteractions(minIOService);
+    }
+
+    @Test
+    void enviarParte_ShouldThrowNotFound_WhenSessionExpired() {
+        sessao.setExpiraEm(LocalDateTime.now().minusMinutes(1));
+        when(uploadSessaoRepository.findByIdAndAlbumId("sessao-1", 1L)).thenReturn(Optional.of(sessao));
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> uploadSessaoService.enviarParte(1L, "sessao-1", 0, new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    void concluir_ShouldThrowException_WhenPartsMissing() throws Exception {
+        sessao.getPartes().put(1, new UploadParte("etag-1", (long) PARTE));
+        when(uploadSessaoRepository.findByIdAndAlbumId("sessao-1", 1L)).thenReturn(Optional.of(sessao));
+
+        assertThrows(IllegalArgumentException.class, () -> uploadSessaoService.concluir(1L, "sessao-1"));
+        verify(minIOService, never()).concluirUploadMultipart(any(), any(), any());
+    }
+
+    @Test
+    void concluir_ShouldCompleteMultipartAndSaveCoverWithMetadata() throws Exception {
+        sessao.getPartes().put(2, new UploadParte("etag-2", 10L));
+        sessao.getPartes().put(1, new UploadParte("etag-1", (long) PARTE));
+        Album album = new Album();
+        album.setId(1L);
+        when(uploadSessaoRepository.findByIdAndAlbumId("sessao-1", 1L)).thenReturn(Optional.of(sessao));
+        when(minIOService.abrirObjeto("albuns/1/uuid_capa.jpg")).thenReturn(new ByteArrayInputStream(new byte[0]));
+        when(imageMetadataExtractor.extrair(any()))
+                .thenReturn(new ImageMetadataExtractor.ImageMetadata(800, 600, "#abcdef", "LKO2"));
+        when(uploadSessaoRepository.marcarConcluida("sessao-1")).thenReturn(1);
+        when(albumRepository.getReferenceById(1L)).thenReturn(album);
+        when(capaAlbumRepository.save(any(CapaAlbum.class))).thenAnswer(inv -> {
+            CapaAlbum capa = inv.getArgument(0);
+            capa.setId(10L);
+            return capa;
+        });
+
+        CapaAlbum capa = uploadSessaoService.concluir(1L, "sessao-1");
+
+        InOrder ordem = inOrder(uploadSessaoRepository, minIOService);
+        ordem.verify(uploadSessaoRepository).marcarConcluida("sessao-1");
+        ordem.verify(minIOService).concluirUploadMultipart(eq("albuns/1/uuid_capa.jpg"), eq("upload-1"),
+                argThat(partes -> partes.length == 2 && partes[0].partNumber() == 1 && partes[1].partNumber() == 2));
+        assertEquals(10L, capa.getId());
+        assertSame(album, capa.getAlbum());
+        assertEquals("albuns/1/uuid_capa.jpg", capa.getNomeArquivo());
+        assertEquals((long) PARTE + 10, capa.getTamanho());
+        assertEquals(800, capa.getLargura());
+        assertEquals("LKO2", capa.getBlurhash());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void concluir_ShouldNotCallMinIO_WhenSessionWasAlreadyClaimed() throws Exception {
+        sessao.getPartes().put(1, new UploadParte("etag-1", (long) PARTE));
+        sessao.getPartes().put(2, new UploadParte("etag-2", 10L));
+        when(uploadSessaoRepository.findByIdAndAlbumId("sessao-1", 1L)).thenReturn(Optional.of(sessao));
+        when(uploadSessaoRepository.marcarConcluida("sessao-1")).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> uploadSessaoService.concluir(1L, "sessao-1"));
+
+        verify(minIOService, never()).concluirUploadMultipart(any(), any(), any());
+        verify(capaAlbumRepository, never()).save(any());
+    }
+
+    @Test
+    void concluir_ShouldReopenSession_WhenMinIOCompletionFails() throws Exception {
+        sessao.getPartes().put(1, new UploadParte("etag-1", (long) PARTE));
+        sessao.getPartes().put(2, new UploadParte("etag-2", 10L));
+        when(uploadSessaoRepository.findByIdAndAlbumId("sessao-1", 1L)).thenReturn(Optional.of(sessao));
+        when(uploadSessaoRepository.marcarConcluida("sessao-1")).thenReturn(1);
+        doThrow(new IllegalStateException("minio indisponível"))
+                .when(minIOService).concluirUploadMultipart(any(), any(), any());
+
+        assertThrows(RuntimeException.class, () -> uploadSessaoService.concluir(1L, "sessao-1"));
+
+        verify(uploadSessaoRepository).reabrir("sessao-1");
+        verify(capaAlbumRepository, never()).save(any());
+    }
+
+    @Test
+    void abortarSessoesDoAlbum_ShouldAbortMultipartUploads_WhenNoTransactionIsActive() throws Exception {
+        when(uploadSessaoRepository.findByAlbumIdAndStatus(1L, StatusUploadSessao.EM_ANDAMENTO))
+                .thenReturn(List.of(sessao));
+
+        uploadSessaoService.abortarSessoesDoAlbum(1L);
+
+        verify(minIOService).abortarUploadMultipart("albuns/1/uuid_capa.jpg", "upload-1");
+    }
+
+    @Test
+    void limparSessoesExpiradas_ShouldAbortMultipartAndDeleteSession() throws Exception {
+        when(uploadSessaoRepository.findByStatusAndExpiraEmBefore(eq(StatusUploadSessao.EM_ANDAMENTO), any()))
+                .thenReturn(List.of(sessao));
+
+        uploadSessaoService.limparSessoesExpiradas();
+
+        verify(minIOService).abortarUploadMultipart("albuns/1/uuid_capa.jpg", "upload-1");
+        verify(uploadSessaoRepository).delete(sessao);
+        verify(uploadSessaoRepository).deleteByStatusAndExpiraEmBefore(eq(StatusUploadSessao.CONCLUIDA), any());
+    }
+}
@@ -5,10 +5,10 @@ import com.album.seplag.exception.ResourceNotFoundException;
 import com.album.seplag.exception.UsuarioJaExisteException;
 import com.album.seplag.model.Usuario;
 import com.album.seplag.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
@@ -38,13 +38,19 @@ class UsuarioServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
-    @InjectMocks
+    @Mock
+    private LastLoginBuffer lastLoginBuffer;
+
     private UsuarioService usuarioService;
 
     private Usuario usuario;
 
     @BeforeEach
     void setUp() {
+        usuarioService = new UsuarioService(usuarioRepository,
+                new PasswordHashingService(passwordEncoder, new SimpleMeterRegistry(), 10, 1, 8, 2, 5000),
+                new UsuarioPrincipalCache(100, 60000), lastLoginBuffer);
+
         usuario = new Usuario();
         usuario.setId(1L);
         usuario.setUsername("testuser");
@@ -260,5 +266,37 @@ class UsuarioServiceTest {
         assertFalse(result.ativo());
         verify(usuarioRepository).save(usuario);
     }
-}
 
+    @Test
+    void loadUserByUsername_ShouldUseCache_WhenCalledTwice() {
+        when(usuarioRepository.findByUsername("testuser")).thenReturn(Optional.of(usuario));
+
+        UserDetails first = usuarioService.loadUserByUsername("testuser");
+        UserDetails second = usuarioService.loadUserByUsername("testuser");
+
+        assertEquals(first.getAuthorities(), second.getAuthorities());
+        assertNotSame(first, second);
+        verify(usuarioRepository, times(1)).findByUsername("testuser");
+    }
+
+    @Test
+    void toggleAtivo_ShouldEvictCachedPrincipal() {
+        when(usuarioRepository.findByUsername("testuser")).thenReturn(Optional.of(usuario));
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(usuarioRepository.save(any(Usuario.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        usuarioService.loadUserByUsername("testuser");
+        usuarioService.toggleAtivo(1L);
+
+        assertThrows(UsernameNotFoundException.class, () -> usuarioService.loadUserByUsername("testuser"));
+        verify(usuarioRepository, times(2)).findByUsername("testuser");
+    }
+
+    @Test
+    void atualizarLastLogin_ShouldBufferWithoutTouchingRepository() {
+        usuarioService.atualizarLastLogin("testuser");
+
+        verify(lastLoginBuffer).registrar("testuser");
+        verifyNoInteractions(usuarioRepository);
+    }
+}
@@ -18,7 +18,7 @@ import {
 import { Music2, Disc3, Globe, User, LogOut, Zap } from 'lucide-react';
 import { useAuth } from '@/contexts/AuthContext';
 import { Button } from '@/components/ui/button';
-import { webSocketService } from '@/services/WebSocketService';
+import { RESYNC, webSocketService } from '@/services/WebSocketService';
 import { artistFacadeService } from '@/services/ArtistFacadeService';
 import { albumFacadeService } from '@/services/AlbumFacadeService';
 import { toast } from 'sonner';
@@ -44,6 +44,11 @@ export function AppLayout() {
       webSocketService.conectar();
       const sub = webSocketService.obterNotificacoes().subscribe((notif) => {
         if (!notif) return;
+        if (notif.type === RESYNC) {
+          artistFacadeService.invalidarCache();
+          albumFacadeService.invalidarCache();
+          return;
+        }
         if (notif.message) {
           toast.info(notif.message, { duration: 5000 });
         }
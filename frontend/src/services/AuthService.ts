@@ -125,8 +125,8 @@ export class AuthService {
    */
   async logout(): Promise<void> {
     try {
-      // Chamar endpoint de logout para invalidar token no backend
-      await api.post('/auth/logout', {});
+      // Revoga no backend o access token (header) e o refresh token
+      await api.post('/auth/logout', { refreshToken: localStorage.getItem('refreshToken') });
     } catch (error) {
       console.error('Erro ao fazer logout:', error);
     } finally {
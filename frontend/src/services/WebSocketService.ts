@@ -1,24 +1,92 @@
-import { Client } from '@stomp/stompjs';
+import { Client, type StompSubscription } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 import { BehaviorSubject, Observable } from 'rxjs';
-import type { Album, Artista } from '@/types/types';
 
+/**
+ * Eventos de álbum/artista trazem só o id, a versão (updatedAt) e os campos alterados;
+ * os detalhes são buscados na API (GET por id responde 304 se a versão em cache ainda vale).
+ */
 export interface NotificationMessage {
   type: string;
   message: string;
   timestamp?: string;
-  data?: { payload?: Album | Artista | Record<string, unknown> };
+  id?: number;
+  version?: string;
+  changes?: Record<string, unknown>;
+  data?: { payload?: Record<string, unknown> };
+  /** Instância do backend que numerou o evento; seq só é comparável dentro do mesmo epoch */
+  epoch?: string;
+  /** Crescente por instância do backend; usado para pedir replay ao reconectar */
+  seq?: number;
+}
+
+/** Frame com as notificações de uma janela de coalescência do backend (/topic/lote.albuns, /topic/lote.albuns.10, ...). */
+export interface NotificationBatch {
+  type: 'BATCH';
+  timestamp?: string;
+  events: NotificationMessage[];
+}
+
+/** Resposta de /app/replay: eventos perdidos desde o último seq, ou resync se saíram do buffer. */
+export interface NotificationReplay {
+  type: 'REPLAY';
+  destino: string;
+  epoch: string;
+  ultimaSeq: number;
+  resync: boolean;
+  events: NotificationMessage[];
+}
+
+/** Emitida quando o replay não cobre o que foi perdido: as listas devem ser recarregadas. */
+export const RESYNC = 'RESYNC';
+
+const TOPICOS_GLOBAIS = ['/topic/albuns', '/topic/artistas'];
+const MAX_EVENTOS_VISTOS = 1000;
+
+/**
+ * Chave estável de um evento. O mesmo evento chega com seq diferentes no tópico global e nos
+ * tópicos por entidade, e com o relay cada réplica numera por conta própria; id + versão
+ * identificam a mudança em qualquer tópico. Sem id, vale epoch + seq.
+ */
+function chaveEvento(evento: NotificationMessage): string | undefined {
+  if (evento.id !== undefined) return `${evento.type}:${evento.id}:${evento.version ?? ''}`;
+  if (evento.seq !== undefined) return `${evento.epoch ?? ''}:${evento.seq}`;
+  return undefined;
+}
+
+/** Conjunto limitado de chaves já entregues; devolve false para eventos repetidos. */
+function criarFiltroRepetidos(): (evento: NotificationMessage) => boolean {
+  const vistos = new Set<string>();
+  return (evento) => {
+    const chave = chaveEvento(evento);
+    if (chave === undefined) return true;
+    if (vistos.has(chave)) return false;
+    vistos.add(chave);
+    if (vistos.size > MAX_EVENTOS_VISTOS) {
+      vistos.delete(vistos.values().next().value as string);
+    }
+    return true;
+  };
 }
 
 /**
  * Serviço WebSocket para notificações em tempo real via STOMP
- * Conecta ao endpoint /ws/albuns e subscreve em /topic/albuns e /topic/artistas
+ * Conecta ao endpoint WebSocket nativo /ws/albuns-nativo (ou ao SockJS /ws/albuns com
+ * VITE_WS_TRANSPORT=sockjs, para redes que bloqueiam WebSocket) e subscreve em /topic/lote.albuns e /topic/lote.artistas,
+ * que entregam as notificações em lotes (uma por entidade a cada janela).
+ * A cada conexão pede em /app/replay o que foi perdido desde o último seq visto, em vez de
+ * recarregar todas as listas após uma queda ou deploy. Só os seq do epoch da instância que
+ * respondeu o replay contam para o próximo pedido; com o relay STOMP o backend sempre responde
+ * resync, já que cada réplica só guarda o que ela publicou.
  */
 export class WebSocketService {
   private client: Client | null = null;
   private novasNotificacoes$ = new BehaviorSubject<NotificationMessage | null>(null);
   private conectado$ = new BehaviorSubject<boolean>(false);
   private baseUrl: string;
+  private epoch: string | undefined;
+  private ultimaSeq: number | undefined;
+  private naoRepetido = criarFiltroRepetidos();
 
   constructor() {
     const wsUrl = import.meta.env.VITE_WS_URL || '';
@@ -42,33 +110,31 @@ export class WebSocketService {
   conectar(): void {
     if (!this.baseUrl || this.client?.active) return;
 
-    const brokerURL = `${this.baseUrl}/albuns`;
+    const sockJs = import.meta.env.VITE_WS_TRANSPORT === 'sockjs';
+    const brokerURL = sockJs
+      ? `${this.baseUrl}/albuns`
+      : `${this.baseUrl.replace(/^http/, 'ws')}/albuns-nativo`;
     if (import.meta.env.DEV) {
       console.debug('[WebSocket] Conectando em:', brokerURL);
     }
     this.client = new Client({
-      webSocketFactory: () => new SockJS(brokerURL) as unknown as WebSocket,
+      ...(sockJs
+        ? { webSocketFactory: () => new SockJS(brokerURL) as unknown as WebSocket }
+        : { brokerURL }),
       reconnectDelay: 5000,
       heartbeatIncoming: 4000,
       heartbeatOutgoing: 4000,
       onConnect: () => {
         this.conectado$.next(true);
         if (import.meta.env.DEV) {
-          console.debug('[WebSocket] Conectado. Subscrevendo em /topic/albuns e /topic/artistas');
+          console.debug('[WebSocket] Conectado. Subscrevendo em /topic/lote.albuns e /topic/lote.artistas');
         }
         const handleMessage = (message: { body: string }) => {
-          try {
-            const body = JSON.parse(message.body) as NotificationMessage;
-            if (import.meta.env.DEV) {
-              console.debug('[WebSocket] Mensagem recebida:', body);
-            }
-            this.novasNotificacoes$.next(body);
-          } catch (e) {
-            console.error('[WebSocket] Erro ao processar mensagem STOMP:', e);
-          }
+          this.desempacotar(message.body).forEach((evento) => this.emitir(evento));
         };
-        this.client?.subscribe('/topic/albuns', handleMessage);
-        this.client?.subscribe('/topic/artistas', handleMessage);
+        this.client?.subscribe('/topic/lote.albuns', handleMessage);
+        this.client?.subscribe('/topic/lote.artistas', handleMessage);
+        this.pedirReplay();
       },
       onStompError: (frame) => {
         console.error('[WebSocket] Erro STOMP:', frame);
@@ -82,6 +148,79 @@ export class WebSocketService {
     this.client.activate();
   }
 
+  /**
+   * Assina um tópico por entidade (ex.: /topic/lote.artistas.5.albuns ou /topic/lote.albuns.10)
+   * enquanto houver inscritos no Observable; a assinatura é refeita a cada reconexão.
+   */
+  observarDestino(destino: string): Observable<NotificationMessage> {
+    return new Observable<NotificationMessage>((observer) => {
+      let assinatura: StompSubscription | undefined;
+      const naoRepetido = criarFiltroRepetidos();
+      const conexao = this.conectado$.subscribe((conectado) => {
+        assinatura = conectado && this.client
+          ? this.client.subscribe(destino, (message) => this.desempacotar(message.body).filter(naoRepetido).forEach((e) => observer.next(e)))
+          : undefined;
+      });
+      return () => {
+        conexao.unsubscribe();
+        if (this.client?.connected) {
+          assinatura?.unsubscribe();
+        }
+      };
+    });
+  }
+
+  private pedirReplay(): void {
+    const desde = this.ultimaSeq;
+    const epoch = this.epoch;
+    let resync = false;
+    TOPICOS_GLOBAIS.forEach((destino) => {
+      const headers: Record<string, string> = { destino };
+      if (desde !== undefined) headers.since = String(desde);
+      if (epoch) headers.epoch = epoch;
+      this.client?.subscribe('/app/replay', (message) => {
+        const replay = JSON.parse(message.body) as NotificationReplay;
+        if (replay.epoch !== this.epoch) {
+          this.epoch = replay.epoch;
+          this.ultimaSeq = replay.ultimaSeq;
+        }
+        if (replay.resync) {
+          if (!resync) {
+            resync = true;
+            this.novasNotificacoes$.next({ type: RESYNC, message: '' });
+          }
+          return;
+        }
+        replay.events.forEach((evento) => this.emitir(evento));
+      }, headers);
+    });
+  }
+
+  /**
+   * Ignora eventos já entregues: o replay pode repetir o que chegou ao vivo durante a reconexão e
+   * o mesmo evento pode vir por mais de um tópico.
+   */
+  private emitir(evento: NotificationMessage): void {
+    if (!this.naoRepetido(evento)) return;
+    if (evento.seq !== undefined && evento.epoch === this.epoch) {
+      this.ultimaSeq = Math.max(this.ultimaSeq ?? 0, evento.seq);
+    }
+    this.novasNotificacoes$.next(evento);
+  }
+
+  private desempacotar(corpo: string): NotificationMessage[] {
+    try {
+      const body = JSON.parse(corpo) as NotificationMessage | NotificationBatch;
+      if (import.meta.env.DEV) {
+        console.debug('[WebSocket] Mensagem recebida:', body);
+      }
+      return body.type === 'BATCH' ? (body as NotificationBatch).events : [body as NotificationMessage];
+    } catch (e) {
+      console.error('[WebSocket] Erro ao processar mensagem STOMP:', e);
+      return [];
+    }
+  }
+
   desconectar(): void {
     if (this.client) {
       this.client.deactivate();
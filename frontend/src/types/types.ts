@@ -44,6 +44,10 @@ export interface CapaAlbum {
   nomeArquivo: string;
   contentType: string;
   tamanho: number;
+  largura?: number;
+  altura?: number;
+  corDominante?: string;
+  blurhash?: string;
   dataUpload: string;
   url?: string;
   presignedUrl?: string;